@@ -17,7 +17,8 @@
 package org.apache.sentry.binding.hive.authz;
 
 import java.lang.reflect.Constructor;
-import java.util.EnumSet;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -37,7 +38,7 @@ import org.apache.sentry.core.common.ActiveRoleSet;
 import org.apache.sentry.core.common.Model;
 import org.apache.sentry.core.common.Subject;
 import org.apache.sentry.core.model.db.AccessConstants;
-import org.apache.sentry.core.model.db.DBModelAction;
+import org.apache.sentry.core.model.db.Column;
 import org.apache.sentry.core.model.db.DBModelAuthorizable;
 import org.apache.sentry.core.model.db.DBModelAuthorizable.AuthorizableType;
 import org.apache.sentry.core.model.db.HivePrivilegeModel;
@@ -48,6 +49,7 @@ import org.apache.sentry.provider.cache.SimpleCacheProviderBackend;
 import org.apache.sentry.provider.common.AuthorizationProvider;
 import org.apache.sentry.provider.common.ProviderBackend;
 import org.apache.sentry.provider.common.ProviderBackendContext;
+import org.apache.sentry.provider.common.ResourceAuthorizationProvider;
 import org.apache.sentry.provider.db.service.thrift.TSentryRole;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -319,32 +321,21 @@ public class HiveAuthzBinding {
      */
 
     // Check read entities
-    Map<AuthorizableType, EnumSet<DBModelAction>> requiredInputPrivileges =
-        stmtAuthPrivileges.getInputPrivileges();
+    HiveAuthzPlan plan = stmtAuthPrivileges.getPlan();
     if(isDebug) {
-      LOG.debug("requiredInputPrivileges = " + requiredInputPrivileges);
+      LOG.debug("plan = " + plan);
       LOG.debug("inputHierarchyList = " + inputHierarchyList);
-    }
-    Map<AuthorizableType, EnumSet<DBModelAction>> requiredOutputPrivileges =
-        stmtAuthPrivileges.getOutputPrivileges();
-    if(isDebug) {
-      LOG.debug("requiredOuputPrivileges = " + requiredOutputPrivileges);
       LOG.debug("outputHierarchyList = " + outputHierarchyList);
     }
 
-    boolean found = false;
-    for (Map.Entry<AuthorizableType, EnumSet<DBModelAction>> entry : requiredInputPrivileges.entrySet()) {
-      AuthorizableType key = entry.getKey();
-      for (List<DBModelAuthorizable> inputHierarchy : inputHierarchyList) {
-        if (getAuthzType(inputHierarchy).equals(key)) {
-          found = true;
-          if (!authProvider.hasAccess(subject, inputHierarchy, entry.getValue(), activeRoleSet)) {
-            throw new AuthorizationException("User " + subject.getName() +
-                " does not have privileges for " + hiveOp.name());
-          }
-        }
-      }
-      if (!found && !key.equals(AuthorizableType.URI) && !(hiveOp.equals(HiveOperation.QUERY))
+    Map<AuthorizableType, List<List<DBModelAuthorizable>>> inputHierarchies =
+        HiveAuthzPlan.bind(inputHierarchyList);
+    for (HiveAuthzPlan.Requirement requirement : plan.getInputRequirements()) {
+      AuthorizableType key = requirement.getAuthzType();
+      List<List<DBModelAuthorizable>> hierarchies = inputHierarchies.get(key);
+      if (hierarchies != null) {
+        checkAccess(hiveOp, subject, requirement, hierarchies);
+      } else if (!key.equals(AuthorizableType.URI) && !(hiveOp.equals(HiveOperation.QUERY))
           && !(hiveOp.equals(HiveOperation.CREATETABLE_AS_SELECT))) {
         //URI privileges are optional for some privileges: anyPrivilege, tableDDLAndOptionalUriPrivilege
         //Query can mean select/insert/analyze where all of them have different required privileges.
@@ -354,21 +345,16 @@ public class HiveAuthzBinding {
         //the input privileges correctly
         throw new AuthorizationException("Required privilege( " + key.name() + ") not available in input privileges");
       }
-      found = false;
     }
 
-    for (Map.Entry<AuthorizableType, EnumSet<DBModelAction>> entry : requiredOutputPrivileges.entrySet()) {
-      AuthorizableType key = entry.getKey();
-      for (List<DBModelAuthorizable> outputHierarchy : outputHierarchyList) {
-        if (getAuthzType(outputHierarchy).equals(key)) {
-          found = true;
-          if (!authProvider.hasAccess(subject, outputHierarchy, entry.getValue(), activeRoleSet)) {
-            throw new AuthorizationException("User " + subject.getName() +
-                " does not have privileges for " + hiveOp.name());
-          }
-        }
-      }
-      if(!found && !(key.equals(AuthorizableType.URI)) &&  !(hiveOp.equals(HiveOperation.QUERY))) {
+    Map<AuthorizableType, List<List<DBModelAuthorizable>>> outputHierarchies =
+        HiveAuthzPlan.bind(outputHierarchyList);
+    for (HiveAuthzPlan.Requirement requirement : plan.getOutputRequirements()) {
+      AuthorizableType key = requirement.getAuthzType();
+      List<List<DBModelAuthorizable>> hierarchies = outputHierarchies.get(key);
+      if (hierarchies != null) {
+        checkAccess(hiveOp, subject, requirement, hierarchies);
+      } else if(!(key.equals(AuthorizableType.URI)) &&  !(hiveOp.equals(HiveOperation.QUERY))) {
         //URI privileges are optional for some privileges: tableInsertPrivilege
         //Query can mean select/insert/analyze where all of them have different required privileges.
         //For these alone we skip if there is no equivalent output privilege
@@ -376,11 +362,78 @@ public class HiveAuthzBinding {
         //the output privileges correctly
         throw new AuthorizationException("Required privilege( " + key.name() + ") not available in output privileges");
       }
-      found = false;
     }
 
   }
 
+  private void checkAccess(HiveOperation hiveOp, Subject subject,
+      HiveAuthzPlan.Requirement requirement, List<List<DBModelAuthorizable>> hierarchies)
+          throws AuthorizationException {
+    if (requirement.getAuthzType().equals(AuthorizableType.Column) && hierarchies.size() > 1
+        && authProvider instanceof ResourceAuthorizationProvider) {
+      checkColumnAccess(hiveOp, subject, requirement, hierarchies);
+      return;
+    }
+    for (List<DBModelAuthorizable> hierarchy : hierarchies) {
+      if (!authProvider.hasAccess(subject, hierarchy, requirement.getActions(), activeRoleSet)) {
+        throw new AuthorizationException("User " + subject.getName() +
+            " does not have privileges for " + hiveOp.name());
+      }
+    }
+  }
+
+  /**
+   * Check the column hierarchies of a statement with one privilege lookup per table
+   * instead of one per column. A column the view denies is checked again through the
+   * provider, which records the failed privileges reported to the user.
+   */
+  private void checkColumnAccess(HiveOperation hiveOp, Subject subject,
+      HiveAuthzPlan.Requirement requirement, List<List<DBModelAuthorizable>> hierarchies)
+          throws AuthorizationException {
+    PolicyEngine policyEngine = authProvider.getPolicyEngine();
+    Set<String> groups = null;
+    Map<List<DBModelAuthorizable>, HiveColumnPrivilegeView> views =
+        new HashMap<List<DBModelAuthorizable>, HiveColumnPrivilegeView>();
+    for (List<DBModelAuthorizable> hierarchy : hierarchies) {
+      boolean allowed = false;
+      if (isColumnHierarchy(hierarchy)) {
+        List<DBModelAuthorizable> tableHierarchy = hierarchy.subList(0, hierarchy.size() - 1);
+        HiveColumnPrivilegeView view = views.get(tableHierarchy);
+        if (view == null) {
+          if (groups == null) {
+            groups = authProvider.getGroupMapping().getGroups(subject.getName());
+          }
+          // a wildcard column returns the privileges of every column of the table
+          List<DBModelAuthorizable> lookupHierarchy =
+              new ArrayList<DBModelAuthorizable>(tableHierarchy);
+          lookupHierarchy.add(Column.ALL);
+          Set<String> privileges = policyEngine.getPrivileges(groups,
+              Sets.newHashSet(subject.getName()), activeRoleSet,
+              lookupHierarchy.toArray(new DBModelAuthorizable[lookupHierarchy.size()]));
+          view = new HiveColumnPrivilegeView(policyEngine.getPrivilegeFactory(),
+              HivePrivilegeModel.getInstance(), privileges, tableHierarchy,
+              requirement.getActions());
+          views.put(tableHierarchy, view);
+        }
+        allowed = view.hasColumnAccess(hierarchy.get(hierarchy.size() - 1).getName());
+      }
+      if (!allowed
+          && !authProvider.hasAccess(subject, hierarchy, requirement.getActions(), activeRoleSet)) {
+        throw new AuthorizationException("User " + subject.getName() +
+            " does not have privileges for " + hiveOp.name());
+      }
+    }
+  }
+
+  // server->db->table->column, except the "some table" form the provider handles specially
+  private static boolean isColumnHierarchy(List<DBModelAuthorizable> hierarchy) {
+    return hierarchy.size() == 4
+        && hierarchy.get(0).getAuthzType().equals(AuthorizableType.Server)
+        && hierarchy.get(1).getAuthzType().equals(AuthorizableType.Db)
+        && hierarchy.get(2).getAuthzType().equals(AuthorizableType.Table)
+        && !AccessConstants.SOME.equals(hierarchy.get(2).getName());
+  }
+
   public void setActiveRoleSet(String activeRoleSet,
       Set<TSentryRole> allowedRoles) throws SentryUserException {
     this.activeRoleSet = parseActiveRoleSet(activeRoleSet, allowedRoles);
@@ -410,10 +463,6 @@ public class HiveAuthzBinding {
     return hiveConf;
   }
 
-  private AuthorizableType getAuthzType (List<DBModelAuthorizable> hierarchy){
-    return hierarchy.get(hierarchy.size() -1).getAuthzType();
-  }
-
   public List<String> getLastQueryPrivilegeErrors() {
     if (!open) {
       throw new IllegalStateException("Binding has been closed");
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.binding.hive.authz;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.sentry.core.model.db.DBModelAction;
+import org.apache.sentry.core.model.db.DBModelAuthorizable;
+import org.apache.sentry.core.model.db.DBModelAuthorizable.AuthorizableType;
+
+/**
+ * Immutable form of the input and output privileges of a HiveAuthzPrivileges,
+ * compiled once when the privileges are built. Each requirement gives the
+ * authorizable type of the hierarchies it applies to and the actions the
+ * provider has to grant on them, in a fixed order, so that authorizing a
+ * statement only has to bind its hierarchies to the requirements.
+ */
+public final class HiveAuthzPlan {
+
+  /**
+   * Actions required on every hierarchy whose leaf has the given type.
+   */
+  public static final class Requirement {
+    private final AuthorizableType authzType;
+    private final Set<DBModelAction> actions;
+
+    private Requirement(AuthorizableType authzType, EnumSet<DBModelAction> actions) {
+      this.authzType = authzType;
+      this.actions = Collections.unmodifiableSet(EnumSet.copyOf(actions));
+    }
+
+    public AuthorizableType getAuthzType() {
+      return authzType;
+    }
+
+    public Set<DBModelAction> getActions() {
+      return actions;
+    }
+
+    @Override
+    public String toString() {
+      return authzType + "=" + actions;
+    }
+  }
+
+  private final List<Requirement> inputRequirements;
+  private final List<Requirement> outputRequirements;
+
+  HiveAuthzPlan(Map<AuthorizableType, EnumSet<DBModelAction>> inputPrivileges,
+      Map<AuthorizableType, EnumSet<DBModelAction>> outputPrivileges) {
+    inputRequirements = compile(inputPrivileges);
+    outputRequirements = compile(outputPrivileges);
+  }
+
+  private static List<Requirement> compile(
+      Map<AuthorizableType, EnumSet<DBModelAction>> privileges) {
+    List<Requirement> requirements = new ArrayList<Requirement>(privileges.size());
+    // EnumMap iterates in declaration order of the types
+    Map<AuthorizableType, EnumSet<DBModelAction>> ordered =
+        new EnumMap<AuthorizableType, EnumSet<DBModelAction>>(AuthorizableType.class);
+    ordered.putAll(privileges);
+    for (Map.Entry<AuthorizableType, EnumSet<DBModelAction>> entry : ordered.entrySet()) {
+      requirements.add(new Requirement(entry.getKey(), entry.getValue()));
+    }
+    return Collections.unmodifiableList(requirements);
+  }
+
+  public List<Requirement> getInputRequirements() {
+    return inputRequirements;
+  }
+
+  public List<Requirement> getOutputRequirements() {
+    return outputRequirements;
+  }
+
+  /**
+   * Group the hierarchies of a statement by the type of their leaf authorizable,
+   * the key the requirements are matched on.
+   */
+  public static Map<AuthorizableType, List<List<DBModelAuthorizable>>> bind(
+      List<List<DBModelAuthorizable>> hierarchyList) {
+    Map<AuthorizableType, List<List<DBModelAuthorizable>>> bound =
+        new EnumMap<AuthorizableType, List<List<DBModelAuthorizable>>>(AuthorizableType.class);
+    for (List<DBModelAuthorizable> hierarchy : hierarchyList) {
+      AuthorizableType authzType = hierarchy.get(hierarchy.size() - 1).getAuthzType();
+      List<List<DBModelAuthorizable>> hierarchies = bound.get(authzType);
+      if (hierarchies == null) {
+        hierarchies = new ArrayList<List<DBModelAuthorizable>>();
+        bound.put(authzType, hierarchies);
+      }
+      hierarchies.add(hierarchy);
+    }
+    return bound;
+  }
+
+  @Override
+  public String toString() {
+    return "input " + inputRequirements + ", output " + outputRequirements;
+  }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.sentry.binding.hive.authz;
 
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
@@ -113,6 +114,7 @@ public class HiveAuthzPrivileges {
       new HashMap<AuthorizableType,EnumSet<DBModelAction>>();
   private final HiveOperationType operationType;
   private final HiveOperationScope operationScope;
+  private final HiveAuthzPlan plan;
 
   protected HiveAuthzPrivileges(Map<AuthorizableType,EnumSet<DBModelAction>> inputPrivileges,
       Map<AuthorizableType,EnumSet<DBModelAction>> outputPrivileges, HiveOperationType operationType,
@@ -121,20 +123,21 @@ public class HiveAuthzPrivileges {
     this.outputPrivileges.putAll(outputPrivileges);
     this.operationScope = operationScope;
     this.operationType = operationType;
+    this.plan = new HiveAuthzPlan(this.inputPrivileges, this.outputPrivileges);
   }
 
   /**
    * @return the inputPrivileges
    */
   public Map<AuthorizableType, EnumSet<DBModelAction>> getInputPrivileges() {
-    return inputPrivileges;
+    return Collections.unmodifiableMap(inputPrivileges);
   }
 
   /**
    * @return the outputPrivileges
    */
   public Map<AuthorizableType, EnumSet<DBModelAction>> getOutputPrivileges() {
-    return outputPrivileges;
+    return Collections.unmodifiableMap(outputPrivileges);
   }
 
   /**
@@ -150,4 +153,11 @@ public class HiveAuthzPrivileges {
   public HiveOperationScope getOperationScope() {
     return operationScope;
   }
+
+  /**
+   * @return the privileges compiled when this object was built
+   */
+  public HiveAuthzPlan getPlan() {
+    return plan;
+  }
 }
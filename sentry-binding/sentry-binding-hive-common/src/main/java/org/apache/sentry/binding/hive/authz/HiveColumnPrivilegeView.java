@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.binding.hive.authz;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.sentry.core.common.Action;
+import org.apache.sentry.core.common.Authorizable;
+import org.apache.sentry.core.common.Model;
+import org.apache.sentry.core.common.utils.KeyValue;
+import org.apache.sentry.core.common.utils.SentryConstants;
+import org.apache.sentry.core.model.db.Column;
+import org.apache.sentry.core.model.db.DBModelAuthorizable.AuthorizableType;
+import org.apache.sentry.policy.common.Privilege;
+import org.apache.sentry.policy.common.PrivilegeFactory;
+
+/*
+ * The column privileges of a subject on one table, built from the privileges the
+ * provider returns for the table. Either the subject has table wide access, which
+ * implies every column, or the access to a column is decided by the privileges on
+ * that column only, which are grouped by column name. Each column is decided once.
+ * This class is not thread safe.
+ */
+public class HiveColumnPrivilegeView {
+
+  private final PrivilegeFactory privilegeFactory;
+  private final Model model;
+  private final List<? extends Authorizable> tableHierarchy;
+  private final Set<? extends Action> actions;
+  private final boolean tableAccess;
+  // <column, privileges on the column>
+  private final Map<String, List<Privilege>> columnPrivileges =
+      new HashMap<String, List<Privilege>>();
+  // <column, access>, the explicit column decisions made so far
+  private final Map<String, Boolean> columnAccess = new HashMap<String, Boolean>();
+
+  public HiveColumnPrivilegeView(PrivilegeFactory privilegeFactory, Model model,
+      Set<String> privileges, List<? extends Authorizable> tableHierarchy,
+      Set<? extends Action> actions) {
+    this.privilegeFactory = privilegeFactory;
+    this.model = model;
+    this.tableHierarchy = tableHierarchy;
+    this.actions = actions;
+
+    List<Privilege> tablePrivileges = new ArrayList<Privilege>();
+    int columnIndex = tableHierarchy.size();
+    for (String privilegeStr : privileges) {
+      Privilege privilege = privilegeFactory.createPrivilege(privilegeStr);
+      String column = getColumn(privilege, columnIndex);
+      if (column == null) {
+        tablePrivileges.add(privilege);
+      } else {
+        List<Privilege> list = columnPrivileges.get(column);
+        if (list == null) {
+          list = new ArrayList<Privilege>();
+          columnPrivileges.put(column, list);
+        }
+        list.add(privilege);
+      }
+    }
+    // privileges which don't name a column do not depend on the requested column
+    tableAccess = implies(tablePrivileges, Column.ALL);
+  }
+
+  public boolean hasTableAccess() {
+    return tableAccess;
+  }
+
+  public boolean hasColumnAccess(String columnName) {
+    if (tableAccess) {
+      return true;
+    }
+    String column = columnName.toLowerCase();
+    Boolean access = columnAccess.get(column);
+    if (access == null) {
+      List<Privilege> privileges = columnPrivileges.get(column);
+      access = privileges != null && implies(privileges, new Column(columnName));
+      columnAccess.put(column, access);
+    }
+    return access;
+  }
+
+  private boolean implies(List<Privilege> privileges, Column column) {
+    if (privileges.isEmpty()) {
+      return false;
+    }
+    List<String> parts = new ArrayList<String>(tableHierarchy.size() + 1);
+    for (Authorizable authorizable : tableHierarchy) {
+      parts.add(SentryConstants.KV_JOINER.join(authorizable.getTypeName(), authorizable.getName()));
+    }
+    parts.add(SentryConstants.KV_JOINER.join(column.getTypeName(), column.getName()));
+    String hierarchy = SentryConstants.AUTHORIZABLE_JOINER.join(parts);
+    for (Action action : actions) {
+      Privilege request = privilegeFactory.createPrivilege(SentryConstants.AUTHORIZABLE_JOINER
+          .join(hierarchy, SentryConstants.KV_JOINER.join(SentryConstants.PRIVILEGE_NAME,
+              action.getValue())));
+      for (Privilege privilege : privileges) {
+        if (privilege.implies(request, model)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the lower cased column named by the privilege at the column position, or null
+   * if the privilege has no column there or names all columns.
+   */
+  private static String getColumn(Privilege privilege, int columnIndex) {
+    List<KeyValue> authorizable = privilege.getAuthorizable();
+    if (authorizable.size() <= columnIndex) {
+      return null;
+    }
+    KeyValue part = authorizable.get(columnIndex);
+    if (!AuthorizableType.Column.name().equalsIgnoreCase(part.getKey())
+        || SentryConstants.RESOURCE_WILDCARD_VALUE.equals(part.getValue())
+        || SentryConstants.RESOURCE_WILDCARD_VALUE_ALL.equalsIgnoreCase(part.getValue())) {
+      return null;
+    }
+    return part.getValue().toLowerCase();
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.binding.hive.authz;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.sentry.core.common.Authorizable;
+import org.apache.sentry.core.common.utils.KeyValue;
+import org.apache.sentry.core.common.utils.SentryConstants;
+import org.apache.sentry.core.model.db.Column;
+import org.apache.sentry.core.model.db.DBModelAction;
+import org.apache.sentry.core.model.db.DBModelAuthorizable.AuthorizableType;
+import org.apache.sentry.core.model.db.Database;
+import org.apache.sentry.core.model.db.HivePrivilegeModel;
+import org.apache.sentry.core.model.db.Server;
+import org.apache.sentry.core.model.db.Table;
+import org.apache.sentry.policy.common.CommonPrivilege;
+import org.apache.sentry.policy.common.Privilege;
+
+/*
+ * Index of the privileges of one user, used to filter the results of SHOW DATABASES,
+ * SHOW TABLES and SHOW COLUMNS. The privileges are parsed once and grouped by database
+ * and table name, so that checking an object only evaluates the privileges which can
+ * imply it. A privilege implies an object exactly when HiveAuthzBinding.authorize would
+ * grant the SELECT or INSERT metadata access the filters ask for. This class is not
+ * thread safe.
+ */
+public class HiveMetadataPrivilegeIndex {
+
+  private static final Set<DBModelAction> METADATA_ACTIONS =
+      EnumSet.of(DBModelAction.SELECT, DBModelAction.INSERT);
+
+  private final Server authServer;
+  // privileges without a database, or on all databases
+  private final List<Privilege> serverPrivileges = new ArrayList<Privilege>();
+  // <db, privileges on the whole database or on all of its tables>
+  private final Map<String, List<Privilege>> dbPrivileges = new HashMap<String, List<Privilege>>();
+  // <db, <table, privileges on the table or on its columns>>
+  private final Map<String, Map<String, List<Privilege>>> tablePrivileges =
+      new HashMap<String, Map<String, List<Privilege>>>();
+
+  public HiveMetadataPrivilegeIndex(Server authServer, Set<String> privileges) {
+    this.authServer = authServer;
+    for (String privilegeStr : privileges) {
+      CommonPrivilege privilege = new CommonPrivilege(privilegeStr);
+      List<KeyValue> parts = privilege.getParts();
+      String dbName = getNamedPart(parts, 1, AuthorizableType.Db);
+      if (dbName == null) {
+        serverPrivileges.add(privilege);
+        continue;
+      }
+      String tableName = getNamedPart(parts, 2, AuthorizableType.Table);
+      if (tableName == null) {
+        getList(dbPrivileges, dbName).add(privilege);
+      } else {
+        Map<String, List<Privilege>> tables = tablePrivileges.get(dbName);
+        if (tables == null) {
+          tables = new HashMap<String, List<Privilege>>();
+          tablePrivileges.put(dbName, tables);
+        }
+        getList(tables, tableName).add(privilege);
+      }
+    }
+  }
+
+  /**
+   * Check whether the user has any privilege on the given database or on its objects.
+   */
+  public boolean canSeeDatabase(String dbName) {
+    List<Privilege> candidates = new ArrayList<Privilege>(serverPrivileges);
+    String dbKey = dbName.toLowerCase();
+    addAll(candidates, dbPrivileges.get(dbKey));
+    Map<String, List<Privilege>> tables = tablePrivileges.get(dbKey);
+    if (tables != null) {
+      for (List<Privilege> privileges : tables.values()) {
+        candidates.addAll(privileges);
+      }
+    }
+    return implies(candidates, new Database(dbName), Table.ALL, Column.ALL);
+  }
+
+  /**
+   * Check whether the user has a privilege on the given table or on any of its columns.
+   */
+  public boolean canSeeTable(String dbName, String tableName) {
+    return implies(getCandidates(dbName, tableName), new Database(dbName),
+        new Table(tableName), Column.ALL);
+  }
+
+  /**
+   * Check whether the user has a privilege on the given column.
+   */
+  public boolean canSeeColumn(String dbName, String tableName, String columnName) {
+    return implies(getCandidates(dbName, tableName), new Database(dbName),
+        new Table(tableName), new Column(columnName));
+  }
+
+  private List<Privilege> getCandidates(String dbName, String tableName) {
+    List<Privilege> candidates = new ArrayList<Privilege>(serverPrivileges);
+    String dbKey = dbName.toLowerCase();
+    addAll(candidates, dbPrivileges.get(dbKey));
+    Map<String, List<Privilege>> tables = tablePrivileges.get(dbKey);
+    if (tables != null) {
+      addAll(candidates, tables.get(tableName.toLowerCase()));
+    }
+    return candidates;
+  }
+
+  private boolean implies(List<Privilege> candidates, Authorizable... hierarchy) {
+    if (candidates.isEmpty()) {
+      return false;
+    }
+    List<String> parts = new ArrayList<String>(hierarchy.length + 1);
+    parts.add(SentryConstants.KV_JOINER.join(authServer.getTypeName(), authServer.getName()));
+    for (Authorizable authorizable : hierarchy) {
+      parts.add(SentryConstants.KV_JOINER.join(authorizable.getTypeName(), authorizable.getName()));
+    }
+    String requestHierarchy = SentryConstants.AUTHORIZABLE_JOINER.join(parts);
+    for (DBModelAction action : METADATA_ACTIONS) {
+      Privilege request = new CommonPrivilege(SentryConstants.AUTHORIZABLE_JOINER.join(
+          requestHierarchy,
+          SentryConstants.KV_JOINER.join(SentryConstants.PRIVILEGE_NAME, action.getValue())));
+      for (Privilege privilege : candidates) {
+        if (privilege.implies(request, HivePrivilegeModel.getInstance())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the lower cased name of the part at the given position if it has the given type
+   * and is not a wildcard, or null otherwise.
+   */
+  private static String getNamedPart(List<KeyValue> parts, int index, AuthorizableType type) {
+    if (parts.size() <= index) {
+      return null;
+    }
+    KeyValue part = parts.get(index);
+    if (!type.name().equalsIgnoreCase(part.getKey())
+        || SentryConstants.RESOURCE_WILDCARD_VALUE.equals(part.getValue())
+        || SentryConstants.RESOURCE_WILDCARD_VALUE_ALL.equalsIgnoreCase(part.getValue())) {
+      return null;
+    }
+    return part.getValue().toLowerCase();
+  }
+
+  private static List<Privilege> getList(Map<String, List<Privilege>> map, String key) {
+    List<Privilege> list = map.get(key);
+    if (list == null) {
+      list = new ArrayList<Privilege>();
+      map.put(key, list);
+    }
+    return list;
+  }
+
+  private static void addAll(List<Privilege> candidates, List<Privilege> privileges) {
+    if (privileges != null) {
+      candidates.addAll(privileges);
+    }
+  }
+}
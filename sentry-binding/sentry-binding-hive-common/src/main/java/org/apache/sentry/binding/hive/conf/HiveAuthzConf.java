@@ -102,9 +102,32 @@ public class HiveAuthzConf extends Configuration {
     AUTHZ_ALLOW_HIVE_IMPERSONATION("sentry.hive.allow.hive.impersonation", "false"),
     AUTHZ_ONFAILURE_HOOKS("sentry.hive.failure.hooks", ""),
     AUTHZ_METASTORE_SERVICE_USERS("sentry.metastore.service.users", null),
+    // cross-request, stale-tolerant cache of the metastore table and database filter decisions,
+    // 0 disables it; only the drops and renames seen by the metastore and the grants, revokes and
+    // role changes run in the same process forget them early, privilege changes made through a
+    // remote HiveServer2, Impala or the Sentry shell show after at most this time
+    AUTHZ_METASTORE_STALE_DECISION_CACHE_TTL_MS(
+        "sentry.metastore.authz.stale.decision.cache.ttl.ms", "0"),
+    AUTHZ_METASTORE_STALE_DECISION_CACHE_SIZE(
+        "sentry.metastore.authz.stale.decision.cache.size", "10000"),
     AUTHZ_SYNC_ALTER_WITH_POLICY_STORE("sentry.hive.sync.alter", "true"),
     AUTHZ_SYNC_CREATE_WITH_POLICY_STORE("sentry.hive.sync.create", "false"),
     AUTHZ_SYNC_DROP_WITH_POLICY_STORE("sentry.hive.sync.drop", "true"),
+    // send the privilege drops and renames of the metastore listener from a background queue,
+    // a create still waits for the queued drops of its name and cleans up synchronously
+    AUTHZ_SYNC_ASYNC("sentry.hive.sync.async", "false"),
+    AUTHZ_SYNC_ASYNC_BATCH_SIZE("sentry.hive.sync.async.batch.size", "1000"),
+    AUTHZ_SYNC_ASYNC_RETRIES("sentry.hive.sync.async.retries", "3"),
+    AUTHZ_SYNC_ASYNC_RETRY_INTERVAL_MS("sentry.hive.sync.async.retry.interval.ms", "1000"),
+    // how long a create waits for the queued drops of its name before going on
+    AUTHZ_SYNC_ASYNC_AWAIT_TIMEOUT_MS("sentry.hive.sync.async.await.timeout.ms", "10000"),
+    // how long a Hive v2 session reuses its binding and filter decisions, 0 disables reuse;
+    // the binding is closed at the end of the interval, or once the calls using it return
+    AUTHZ_SESSION_BINDING_REFRESH_MS("sentry.hive.session.binding.refresh.ms", "0"),
+    AUTHZ_SESSION_DECISION_CACHE_SIZE("sentry.hive.session.decision.cache.size", "10000"),
+    // how long the grant/revoke tasks of a Hive session keep reusing its idle Sentry client,
+    // 0 opens a client per task
+    AUTHZ_SESSION_CLIENT_IDLE_MS("sentry.hive.session.client.idle.ms", "0"),
 
     AUTHZ_PROVIDER_DEPRECATED("hive.sentry.provider",
       "org.apache.sentry.provider.file.ResourceAuthorizationProvider"),
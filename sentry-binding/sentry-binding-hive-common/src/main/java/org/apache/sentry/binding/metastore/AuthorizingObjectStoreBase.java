@@ -21,8 +21,11 @@ package org.apache.sentry.binding.metastore;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.security.auth.login.LoginException;
 
@@ -45,8 +48,11 @@ import org.apache.sentry.binding.hive.authz.HiveAuthzBinding;
 import org.apache.sentry.binding.hive.conf.HiveAuthzConf;
 import org.apache.sentry.binding.hive.conf.HiveAuthzConf.AuthzConfVars;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 /***
@@ -65,6 +71,10 @@ public class AuthorizingObjectStoreBase extends ObjectStore {
   private static HiveConf hiveConf;
   private static HiveAuthzConf authzConf;
   private static HiveAuthzBinding hiveAuthzBinding;
+  // user/db/table filter decisions shared across requests, may be stale, off by default
+  private static Cache<String, Boolean> staleDecisionCache;
+  private static boolean staleDecisionCacheInitialized = false;
+  private static final char KEY_SEPARATOR = '\u0001';
   private static String NO_ACCESS_MESSAGE_TABLE = "Table does not exist or insufficient privileges to access: ";
   private static String NO_ACCESS_MESSAGE_DATABASE = "Database does not exist or insufficient privileges to access: ";
 
@@ -283,16 +293,46 @@ public class AuthorizingObjectStoreBase extends ObjectStore {
    */
   private List<String> filterDatabases(List<String> dbList)
       throws MetaException {
-    if (needsAuthorization(getUserName())) {
-      try {
-        return HiveAuthzBindingHookBase.filterShowDatabases(getHiveAuthzBinding(),
-            dbList, HiveOperation.SHOWDATABASES, getUserName());
-      } catch (SemanticException e) {
-        throw new MetaException("Error getting DB list " + e.getMessage());
-      }
-    } else {
+    String userName = getUserName();
+    if (!needsAuthorization(userName)) {
       return dbList;
     }
+    Cache<String, Boolean> cache = getStaleDecisionCache();
+    // the decisions of this call, each name is authorized once
+    Map<String, Boolean> decisions = Maps.newHashMap();
+    List<String> unknownDbs = Lists.newArrayList();
+    for (String dbName : dbList) {
+      if (decisions.containsKey(dbName)) {
+        continue;
+      }
+      Boolean allowed = cache == null ? null
+          : cache.getIfPresent(getDecisionKey(userName, dbName, ""));
+      decisions.put(dbName, allowed);
+      if (allowed == null) {
+        unknownDbs.add(dbName);
+      }
+    }
+    if (!unknownDbs.isEmpty()) {
+      Set<String> allowedDbs = Sets.newHashSet(authorizeDatabases(unknownDbs, userName));
+      for (String dbName : unknownDbs) {
+        boolean allowed = allowedDbs.contains(dbName);
+        if (cache != null) {
+          cache.put(getDecisionKey(userName, dbName, ""), allowed);
+        }
+        decisions.put(dbName, allowed);
+      }
+    }
+    return applyDecisions(dbList, decisions);
+  }
+
+  private List<String> authorizeDatabases(List<String> dbList, String userName)
+      throws MetaException {
+    try {
+      return HiveAuthzBindingHookBase.filterShowDatabases(getHiveAuthzBinding(),
+          dbList, HiveOperation.SHOWDATABASES, userName);
+    } catch (SemanticException e) {
+      throw new MetaException("Error getting DB list " + e.getMessage());
+    }
   }
 
   /**
@@ -304,16 +344,123 @@ public class AuthorizingObjectStoreBase extends ObjectStore {
    */
   protected List<String> filterTables(String dbName, List<String> tabList)
       throws MetaException {
-    if (needsAuthorization(getUserName())) {
-      try {
-        return HiveAuthzBindingHookBase.filterShowTables(getHiveAuthzBinding(),
-            tabList, HiveOperation.SHOWTABLES, getUserName(), dbName);
-      } catch (SemanticException e) {
-        throw new MetaException("Error getting Table list " + e.getMessage());
-      }
-    } else {
+    String userName = getUserName();
+    if (!needsAuthorization(userName)) {
       return tabList;
     }
+    Cache<String, Boolean> cache = getStaleDecisionCache();
+    // the decisions of this call, each name is authorized once
+    Map<String, Boolean> decisions = Maps.newHashMap();
+    List<String> unknownTables = Lists.newArrayList();
+    for (String tabName : tabList) {
+      if (decisions.containsKey(tabName)) {
+        continue;
+      }
+      Boolean allowed = cache == null ? null
+          : cache.getIfPresent(getDecisionKey(userName, dbName, tabName));
+      decisions.put(tabName, allowed);
+      if (allowed == null) {
+        unknownTables.add(tabName);
+      }
+    }
+    // only the tables without a decision go to the binding, in one call
+    if (!unknownTables.isEmpty()) {
+      Set<String> allowedTables = Sets.newHashSet(authorizeTables(dbName, unknownTables, userName));
+      for (String tabName : unknownTables) {
+        boolean allowed = allowedTables.contains(tabName);
+        if (cache != null) {
+          cache.put(getDecisionKey(userName, dbName, tabName), allowed);
+        }
+        decisions.put(tabName, allowed);
+      }
+    }
+    return applyDecisions(tabList, decisions);
+  }
+
+  private List<String> authorizeTables(String dbName, List<String> tabList,
+      String userName) throws MetaException {
+    try {
+      return HiveAuthzBindingHookBase.filterShowTables(getHiveAuthzBinding(),
+          tabList, HiveOperation.SHOWTABLES, userName, dbName);
+    } catch (SemanticException e) {
+      throw new MetaException("Error getting Table list " + e.getMessage());
+    }
+  }
+
+  private static List<String> applyDecisions(List<String> names,
+      Map<String, Boolean> decisions) {
+    List<String> result = Lists.newArrayList();
+    for (String name : names) {
+      if (Boolean.TRUE.equals(decisions.get(name))) {
+        result.add(name);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Get the cross-request filter decision cache, or null if it is disabled.
+   * Its decisions can be stale for up to its TTL, see
+   * sentry.metastore.authz.stale.decision.cache.ttl.ms.
+   */
+  private Cache<String, Boolean> getStaleDecisionCache() throws MetaException {
+    synchronized (AuthorizingObjectStoreBase.class) {
+      if (!staleDecisionCacheInitialized) {
+        long ttlMs = getAuthzConf().getLong(
+            AuthzConfVars.AUTHZ_METASTORE_STALE_DECISION_CACHE_TTL_MS.getVar(),
+            Long.parseLong(AuthzConfVars.AUTHZ_METASTORE_STALE_DECISION_CACHE_TTL_MS.getDefault()));
+        long maxSize = getAuthzConf().getLong(
+            AuthzConfVars.AUTHZ_METASTORE_STALE_DECISION_CACHE_SIZE.getVar(),
+            Long.parseLong(AuthzConfVars.AUTHZ_METASTORE_STALE_DECISION_CACHE_SIZE.getDefault()));
+        if (ttlMs > 0) {
+          staleDecisionCache = CacheBuilder.newBuilder()
+              .maximumSize(maxSize)
+              .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+              .build();
+        }
+        staleDecisionCacheInitialized = true;
+      }
+      return staleDecisionCache;
+    }
+  }
+
+  private static String getDecisionKey(String userName, String dbName, String tabName) {
+    return userName + KEY_SEPARATOR + dbName.toLowerCase() + KEY_SEPARATOR
+        + tabName.toLowerCase();
+  }
+
+  /**
+   * Forget the cached filter decisions of all users for the given
+   * database and its tables, e.g. after its privileges changed.
+   */
+  public static void invalidateDecisions(String dbName) {
+    Cache<String, Boolean> cache;
+    synchronized (AuthorizingObjectStoreBase.class) {
+      cache = staleDecisionCache;
+    }
+    if (cache == null) {
+      return;
+    }
+    String dbPart = KEY_SEPARATOR + dbName.toLowerCase() + KEY_SEPARATOR;
+    Iterator<String> keys = cache.asMap().keySet().iterator();
+    while (keys.hasNext()) {
+      if (keys.next().contains(dbPart)) {
+        keys.remove();
+      }
+    }
+  }
+
+  /**
+   * Forget all cached filter decisions.
+   */
+  public static void invalidateDecisions() {
+    Cache<String, Boolean> cache;
+    synchronized (AuthorizingObjectStoreBase.class) {
+      cache = staleDecisionCache;
+    }
+    if (cache != null) {
+      cache.invalidateAll();
+    }
   }
 
   /**
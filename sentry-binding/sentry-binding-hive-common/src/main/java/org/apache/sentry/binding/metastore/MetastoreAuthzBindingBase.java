@@ -23,7 +23,10 @@ import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.security.auth.login.LoginException;
@@ -297,42 +300,53 @@ public abstract class MetastoreAuthzBindingBase extends MetaStorePreEventListene
         inputBuilder.build(), outputBuilder.build());
   }
 
+  /**
+   * Authorize all the partitions of the event in one call. Each table and
+   * each URI outside of its table's location is only added once, and the
+   * location of each table is only looked up once.
+   */
   private void authorizeAddPartition(PreAddPartitionEvent context)
       throws InvalidOperationException, MetaException, NoSuchObjectException {
+    HierarcyBuilder inputBuilder = new HierarcyBuilder();
+    HierarcyBuilder outputBuilder = new HierarcyBuilder();
+    Map<String, String> tableLocations = new HashMap<String, String>();
+    Set<String> uris = new HashSet<String>();
     for (Partition mapiPart : context.getPartitions()) {
-	    HierarcyBuilder inputBuilder = new HierarcyBuilder();
-      inputBuilder.addTableToOutput(getAuthServer(), mapiPart
-          .getDbName(), mapiPart.getTableName());
-      HierarcyBuilder outputBuilder = new HierarcyBuilder();
-	    outputBuilder.addTableToOutput(getAuthServer(), mapiPart
-	        .getDbName(), mapiPart.getTableName());
-	    // check if we need to validate URI permissions when storage location is
-	    // non-default, ie something not under the parent table
-
+      String tableKey = mapiPart.getDbName() + "." + mapiPart.getTableName();
+      if (!tableLocations.containsKey(tableKey)) {
+        inputBuilder.addTableToOutput(getAuthServer(), mapiPart
+            .getDbName(), mapiPart.getTableName());
+        outputBuilder.addTableToOutput(getAuthServer(), mapiPart
+            .getDbName(), mapiPart.getTableName());
+        tableLocations.put(tableKey, null);
+      }
+      // check if we need to validate URI permissions when storage location is
+      // non-default, ie something not under the parent table
       String partitionLocation = null;
       if (mapiPart.isSetSd()) {
         partitionLocation = mapiPart.getSd().getLocation();
-	    }
-	    if (!StringUtils.isEmpty(partitionLocation)) {
-	      String tableLocation = context
-	          .getHandler()
-	          .get_table(mapiPart.getDbName(),
-	              mapiPart.getTableName()).getSd().getLocation();
-	      String uriPath;
-	      try {
-	        uriPath = PathUtils.parseDFSURI(warehouseDir, mapiPart
-	            .getSd().getLocation());
-	      } catch (URISyntaxException e) {
-	        throw new MetaException(e.getMessage());
-	      }
-        if (!partitionLocation.equals(tableLocation) &&
-            !partitionLocation.startsWith(tableLocation + File.separator)) {
-          outputBuilder.addUriToOutput(getAuthServer(), uriPath, warehouseDir);
-	      }
-	    }
-      authorizeMetastoreAccess(HiveOperation.ALTERTABLE_ADDPARTS,
-	        inputBuilder.build(), outputBuilder.build());
+      }
+      if (StringUtils.isEmpty(partitionLocation) || uris.contains(partitionLocation)) {
+        continue;
+      }
+      String tableLocation = tableLocations.get(tableKey);
+      if (tableLocation == null) {
+        tableLocation = context.getHandler()
+            .get_table(mapiPart.getDbName(), mapiPart.getTableName())
+            .getSd().getLocation();
+        tableLocations.put(tableKey, tableLocation);
+      }
+      if (!partitionLocation.equals(tableLocation) &&
+          !partitionLocation.startsWith(tableLocation + File.separator)) {
+        outputBuilder.addUriToOutput(getAuthServer(), partitionLocation, warehouseDir);
+        uris.add(partitionLocation);
+      }
     }
+    if (tableLocations.isEmpty()) {
+      return;
+    }
+    authorizeMetastoreAccess(HiveOperation.ALTERTABLE_ADDPARTS,
+        inputBuilder.build(), outputBuilder.build());
   }
 
   protected void authorizeDropPartition(PreDropPartitionEvent context)
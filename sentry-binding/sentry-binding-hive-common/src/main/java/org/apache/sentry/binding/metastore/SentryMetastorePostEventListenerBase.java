@@ -55,6 +55,8 @@ public class SentryMetastorePostEventListenerBase extends MetaStoreEventListener
   private static final Logger LOGGER = LoggerFactory.getLogger(SentryMetastoreListenerPlugin.class);
   private final HiveAuthzConf authzConf;
   private final Server server;
+  // null when privileges are synced inline
+  private final SentryPolicySyncQueue syncQueue;
 
   protected List<SentryMetastoreListenerPlugin> sentryPlugins = new ArrayList<SentryMetastoreListenerPlugin>();
 
@@ -69,6 +71,16 @@ public class SentryMetastorePostEventListenerBase extends MetaStoreEventListener
 
     authzConf = HiveAuthzConf.getAuthzConf((HiveConf)config);
     server = new Server(authzConf.get(AuthzConfVars.AUTHZ_SERVER_NAME.getVar()));
+    if (syncWithPolicyStore(AuthzConfVars.AUTHZ_SYNC_ASYNC, "false")) {
+      syncQueue = SentryPolicySyncQueue.getInstance(authzConf);
+      if (!syncWithPolicyStore(AuthzConfVars.AUTHZ_SYNC_CREATE_WITH_POLICY_STORE)) {
+        LOGGER.warn(AuthzConfVars.AUTHZ_SYNC_ASYNC.getVar() + " is enabled but "
+            + AuthzConfVars.AUTHZ_SYNC_CREATE_WITH_POLICY_STORE.getVar() + " is not, the"
+            + " privileges of queued drops lost on a restart won't be cleaned up");
+      }
+    } else {
+      syncQueue = null;
+    }
     Iterable<String> pluginClasses = ConfUtilties.CLASS_SPLITTER
         .split(config.get(ServerConfig.SENTRY_METASTORE_PLUGINS,
             ServerConfig.SENTRY_METASTORE_PLUGINS_DEFAULT).trim());
@@ -111,6 +123,10 @@ public class SentryMetastorePostEventListenerBase extends MetaStoreEventListener
       }
     }
 
+    // a queued drop of the same name must not run after the new table is granted
+    awaitQueuedDrops(tableAuthorizables(tableEvent.getTable().getDbName(),
+        tableEvent.getTable().getTableName()));
+
     // drop the privileges on the given table, in case if anything was left
     // behind during the drop
     if (!syncWithPolicyStore(AuthzConfVars.AUTHZ_SYNC_CREATE_WITH_POLICY_STORE)) {
@@ -118,7 +134,7 @@ public class SentryMetastorePostEventListenerBase extends MetaStoreEventListener
     }
 
     dropSentryTablePrivilege(tableEvent.getTable().getDbName(),
-        tableEvent.getTable().getTableName());
+        tableEvent.getTable().getTableName(), false);
   }
 
   @Override
@@ -148,7 +164,7 @@ public class SentryMetastorePostEventListenerBase extends MetaStoreEventListener
     }
 
     dropSentryTablePrivilege(tableEvent.getTable().getDbName(),
-        tableEvent.getTable().getTableName());
+        tableEvent.getTable().getTableName(), true);
   }
 
   @Override
@@ -169,13 +185,16 @@ public class SentryMetastorePostEventListenerBase extends MetaStoreEventListener
         plugin.addPath(authzObj, path);
       }
     }
+    // a queued drop of the same name must not run after the new database is granted
+    awaitQueuedDrops(dbAuthorizables(dbEvent.getDatabase().getName()));
+
     // drop the privileges on the database, in case anything left behind during
     // last drop db
     if (!syncWithPolicyStore(AuthzConfVars.AUTHZ_SYNC_CREATE_WITH_POLICY_STORE)) {
       return;
     }
 
-    dropSentryDbPrivileges(dbEvent.getDatabase().getName());
+    dropSentryDbPrivileges(dbEvent.getDatabase().getName(), false);
   }
 
   /**
@@ -202,7 +221,7 @@ public class SentryMetastorePostEventListenerBase extends MetaStoreEventListener
       return;
     }
 
-    dropSentryDbPrivileges(dbEvent.getDatabase().getName());
+    dropSentryDbPrivileges(dbEvent.getDatabase().getName(), true);
   }
 
   /**
@@ -318,44 +337,87 @@ public class SentryMetastorePostEventListenerBase extends MetaStoreEventListener
     }
   }
 
-  private void dropSentryDbPrivileges(String dbName) throws MetaException {
-    List<Authorizable> authorizableTable = new ArrayList<Authorizable>();
-    authorizableTable.add(server);
-    authorizableTable.add(new Database(dbName));
+  private List<Authorizable> dbAuthorizables(String dbName) {
+    List<Authorizable> authorizables = new ArrayList<Authorizable>();
+    authorizables.add(server);
+    authorizables.add(new Database(dbName));
+    return authorizables;
+  }
+
+  private List<Authorizable> tableAuthorizables(String dbName, String tabName) {
+    List<Authorizable> authorizables = dbAuthorizables(dbName);
+    authorizables.add(new Table(tabName));
+    return authorizables;
+  }
+
+  /**
+   * Wait for the queued privilege sync operations on the given object, so that
+   * they can't remove the privileges granted on an object created after them.
+   */
+  private void awaitQueuedDrops(List<? extends Authorizable> authorizables)
+      throws MetaException {
+    if (syncQueue == null) {
+      return;
+    }
     try {
-      dropSentryPrivileges(authorizableTable);
+      if (!syncQueue.awaitRelated(authorizables)) {
+        LOGGER.warn("Timed out waiting for the queued Sentry privilege sync operations on "
+            + SentryPolicySyncQueue.SyncOperation.toKey(authorizables) + ", they may remove"
+            + " the privileges granted on the new object");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MetaException("Interrupted while waiting for the queued Sentry"
+          + " privilege drops");
+    }
+  }
+
+  private void dropSentryDbPrivileges(String dbName, boolean queued) throws MetaException {
+    List<Authorizable> authorizableTable = dbAuthorizables(dbName);
+    try {
+      dropSentryPrivileges(authorizableTable, queued);
     } catch (SentryUserException e) {
       throw new MetaException("Failed to remove Sentry policies for drop DB "
           + dbName + " Error: " + e.getMessage());
     } catch (IOException e) {
       throw new MetaException("Failed to find local user " + e.getMessage());
+    } finally {
+      AuthorizingObjectStoreBase.invalidateDecisions(dbName);
     }
 
   }
 
-  private void dropSentryTablePrivilege(String dbName, String tabName)
+  private void dropSentryTablePrivilege(String dbName, String tabName, boolean queued)
       throws MetaException {
-    List<Authorizable> authorizableTable = new ArrayList<Authorizable>();
-    authorizableTable.add(server);
-    authorizableTable.add(new Database(dbName));
-    authorizableTable.add(new Table(tabName));
+    List<Authorizable> authorizableTable = tableAuthorizables(dbName, tabName);
 
     try {
-      dropSentryPrivileges(authorizableTable);
+      dropSentryPrivileges(authorizableTable, queued);
     } catch (SentryUserException e) {
       throw new MetaException(
           "Failed to remove Sentry policies for drop table " + dbName + "."
               + tabName + " Error: " + e.getMessage());
     } catch (IOException e) {
       throw new MetaException("Failed to find local user " + e.getMessage());
+    } finally {
+      AuthorizingObjectStoreBase.invalidateDecisions(dbName);
     }
 
   }
+  /**
+   * Drop the privileges, from the sync queue when it is enabled and the caller
+   * allows it. The cleanup done on create is always synchronous, so that the
+   * grants following the create can't be removed by it.
+   */
   private void dropSentryPrivileges(
-      List<? extends Authorizable> authorizableTable)
+      List<? extends Authorizable> authorizableTable, boolean queued)
       throws SentryUserException, IOException, MetaException {
     String requestorUserName = UserGroupInformation.getCurrentUser()
         .getShortUserName();
+    if (queued && syncQueue != null
+        && syncQueue.dropPrivileges(requestorUserName, authorizableTable)) {
+      return;
+    }
     SentryPolicyServiceClient sentryClient = getSentryServiceClient();
     sentryClient.dropPrivileges(requestorUserName, authorizableTable);
 
@@ -376,7 +438,18 @@ public class SentryMetastorePostEventListenerBase extends MetaStoreEventListener
     newAuthorizableTable.add(new Database(newDbName));
     newAuthorizableTable.add(new Table(newTabName));
 
+    boolean queued = false;
     if (!oldTabName.equalsIgnoreCase(newTabName)
+        && syncWithPolicyStore(AuthzConfVars.AUTHZ_SYNC_ALTER_WITH_POLICY_STORE)
+        && syncQueue != null) {
+      try {
+        queued = syncQueue.renamePrivileges(UserGroupInformation.getCurrentUser()
+            .getShortUserName(), oldAuthorizableTable, newAuthorizableTable);
+      } catch (IOException e) {
+        throw new MetaException("Failed to find local user " + e.getMessage());
+      }
+    }
+    if (!queued && !oldTabName.equalsIgnoreCase(newTabName)
         && syncWithPolicyStore(AuthzConfVars.AUTHZ_SYNC_ALTER_WITH_POLICY_STORE)) {
 
       SentryPolicyServiceClient sentryClient = getSentryServiceClient();
@@ -396,6 +469,8 @@ public class SentryMetastorePostEventListenerBase extends MetaStoreEventListener
 
         // Close the connection after renaming privileges is done.
         sentryClient.close();
+        AuthorizingObjectStoreBase.invalidateDecisions(oldDbName);
+        AuthorizingObjectStoreBase.invalidateDecisions(newDbName);
       }
     }
     // The HDFS plugin needs to know if it's a path change (set location)
@@ -406,8 +481,12 @@ public class SentryMetastorePostEventListenerBase extends MetaStoreEventListener
   }
 
   private boolean syncWithPolicyStore(AuthzConfVars syncConfVar) {
+    return syncWithPolicyStore(syncConfVar, "true");
+  }
+
+  private boolean syncWithPolicyStore(AuthzConfVars syncConfVar, String defaultValue) {
     return "true"
-        .equalsIgnoreCase(authzConf.get(syncConfVar.getVar(), "true"));
+        .equalsIgnoreCase(authzConf.get(syncConfVar.getVar(), defaultValue));
   }
 
 }
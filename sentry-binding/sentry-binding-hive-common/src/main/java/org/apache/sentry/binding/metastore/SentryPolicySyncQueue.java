@@ -0,0 +1,389 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.binding.metastore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sentry.binding.hive.conf.HiveAuthzConf;
+import org.apache.sentry.binding.hive.conf.HiveAuthzConf.AuthzConfVars;
+import org.apache.sentry.core.common.Authorizable;
+import org.apache.sentry.core.common.exception.SentryUserException;
+import org.apache.sentry.core.model.db.Database;
+import org.apache.sentry.provider.db.service.thrift.SentryPolicyServiceClient;
+import org.apache.sentry.service.thrift.SentryServiceClientFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ordered background queue for the privilege drops and renames the metastore
+ * listener sends to the Sentry service, so that DDL threads don't wait on a
+ * Sentry round trip. A single worker drains the queue in batches, skips a drop
+ * when the same object was already dropped earlier in the batch, and sends the
+ * remaining operations in order over one long lived client.
+ *
+ * Every operation gets a sequence number. Before an object is created, the
+ * listener calls {@link #awaitRelated(List)} so that a drop still queued for
+ * the same name, or for its database, runs before the create returns and can't
+ * remove the privileges granted on the new object afterwards. The wait is
+ * bounded by sentry.hive.sync.async.await.timeout.ms.
+ *
+ * The metastore creates a listener per handler thread, so they all share the
+ * queue of the process returned by {@link #getInstance(HiveAuthzConf)}.
+ *
+ * The queue only lives in memory. {@link #stop()} and the shutdown hook send
+ * the pending operations before the metastore exits, but the operations of a
+ * crashed metastore, and the ones given up after the retries, are lost. Their
+ * leftover privileges are removed by the synchronous drop done when an object
+ * with the same name is created again, see sentry.hive.sync.create.
+ */
+public class SentryPolicySyncQueue {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SentryPolicySyncQueue.class);
+  private static final long POLL_INTERVAL_MS = 1000L;
+  private static final long STOP_TIMEOUT_MS = 30000L;
+
+  // the queue shared by the listeners of the process
+  private static SentryPolicySyncQueue instance;
+  private static boolean shutdownHookAdded = false;
+
+  private final HiveAuthzConf authzConf;
+  private final BlockingQueue<SyncOperation> queue = new LinkedBlockingQueue<SyncOperation>();
+  private final int batchSize;
+  private final int retries;
+  private final long retryIntervalMs;
+  private final long awaitTimeoutMs;
+  private final Thread worker;
+  private SentryPolicyServiceClient client;
+  private volatile boolean stopped = false;
+
+  // guards the sequence numbers below
+  private final Object seqLock = new Object();
+  private long enqueuedSeq = 0;
+  private long appliedSeq = 0;
+  // key of an object with a pending operation -> sequence of its last operation
+  private final Map<String, Long> pendingByKey = new HashMap<String, Long>();
+
+  /**
+   * Get the queue of the process, starting it on first use.
+   */
+  public static synchronized SentryPolicySyncQueue getInstance(HiveAuthzConf authzConf) {
+    if (instance == null) {
+      instance = new SentryPolicySyncQueue(authzConf);
+      if (!shutdownHookAdded) {
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+          @Override
+          public void run() {
+            stopInstance();
+          }
+        }, SentryPolicySyncQueue.class.getSimpleName() + "Shutdown"));
+        shutdownHookAdded = true;
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * Stop the queue of the process, sending its pending operations. The next
+   * {@link #getInstance(HiveAuthzConf)} starts a new queue.
+   */
+  public static void stopInstance() {
+    SentryPolicySyncQueue stopping;
+    synchronized (SentryPolicySyncQueue.class) {
+      stopping = instance;
+      instance = null;
+    }
+    if (stopping != null) {
+      stopping.stop();
+    }
+  }
+
+  SentryPolicySyncQueue(HiveAuthzConf authzConf) {
+    this.authzConf = authzConf;
+    batchSize = Math.max(1, authzConf.getInt(AuthzConfVars.AUTHZ_SYNC_ASYNC_BATCH_SIZE.getVar(),
+        Integer.parseInt(AuthzConfVars.AUTHZ_SYNC_ASYNC_BATCH_SIZE.getDefault())));
+    retries = Math.max(0, authzConf.getInt(AuthzConfVars.AUTHZ_SYNC_ASYNC_RETRIES.getVar(),
+        Integer.parseInt(AuthzConfVars.AUTHZ_SYNC_ASYNC_RETRIES.getDefault())));
+    retryIntervalMs = authzConf.getLong(AuthzConfVars.AUTHZ_SYNC_ASYNC_RETRY_INTERVAL_MS.getVar(),
+        Long.parseLong(AuthzConfVars.AUTHZ_SYNC_ASYNC_RETRY_INTERVAL_MS.getDefault()));
+    awaitTimeoutMs = authzConf.getLong(AuthzConfVars.AUTHZ_SYNC_ASYNC_AWAIT_TIMEOUT_MS.getVar(),
+        Long.parseLong(AuthzConfVars.AUTHZ_SYNC_ASYNC_AWAIT_TIMEOUT_MS.getDefault()));
+    worker = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        processQueue();
+      }
+    }, SentryPolicySyncQueue.class.getSimpleName());
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * Queue a privilege drop. Returns false when the queue is stopped, the
+   * caller then has to drop the privileges itself.
+   */
+  public boolean dropPrivileges(String requestorUserName,
+      List<? extends Authorizable> authorizables) {
+    return enqueue(new SyncOperation(requestorUserName, authorizables, null));
+  }
+
+  public boolean renamePrivileges(String requestorUserName,
+      List<? extends Authorizable> oldAuthorizables,
+      List<? extends Authorizable> newAuthorizables) {
+    return enqueue(new SyncOperation(requestorUserName, oldAuthorizables, newAuthorizables));
+  }
+
+  private boolean enqueue(SyncOperation operation) {
+    synchronized (seqLock) {
+      if (stopped) {
+        return false;
+      }
+      operation.seq = ++enqueuedSeq;
+      pendingByKey.put(operation.getKey(), operation.seq);
+      if (operation.isRename()) {
+        pendingByKey.put(operation.getNewKey(), operation.seq);
+      }
+      queue.add(operation);
+      return true;
+    }
+  }
+
+  /**
+   * Wait until the queued operations on the given object, on its parents and
+   * on its children were sent to Sentry, or given up. Operations on other
+   * objects are not waited for. Returns false when they are still pending
+   * after the await timeout.
+   */
+  public boolean awaitRelated(List<? extends Authorizable> authorizables)
+      throws InterruptedException {
+    String key = SyncOperation.toKey(authorizables);
+    synchronized (seqLock) {
+      long target = 0;
+      for (Map.Entry<String, Long> entry : pendingByKey.entrySet()) {
+        if (entry.getKey().startsWith(key) || key.startsWith(entry.getKey())) {
+          target = Math.max(target, entry.getValue());
+        }
+      }
+      long deadline = System.currentTimeMillis() + awaitTimeoutMs;
+      while (appliedSeq < target && worker.isAlive()) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+          return false;
+        }
+        seqLock.wait(Math.min(remaining, POLL_INTERVAL_MS));
+      }
+      return true;
+    }
+  }
+
+  public int getPendingCount() {
+    return queue.size();
+  }
+
+  /**
+   * Stop accepting operations and send the pending ones, waiting a bounded
+   * time for the worker to finish.
+   */
+  public void stop() {
+    synchronized (seqLock) {
+      if (stopped) {
+        return;
+      }
+      stopped = true;
+    }
+    try {
+      worker.join(STOP_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (!queue.isEmpty()) {
+      LOGGER.warn("Stopped with " + queue.size()
+          + " privilege sync operations not sent to Sentry");
+    }
+  }
+
+  private void processQueue() {
+    List<SyncOperation> batch = new ArrayList<SyncOperation>();
+    // after stop(), keep going until the queue is empty
+    while (!stopped || !queue.isEmpty()) {
+      try {
+        SyncOperation first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+      } catch (InterruptedException e) {
+        break;
+      }
+      queue.drainTo(batch, batchSize - 1);
+      for (SyncOperation operation : coalesce(batch)) {
+        apply(operation);
+      }
+      // the operations skipped by coalesce() are covered by an earlier one
+      markApplied(batch.get(batch.size() - 1).seq);
+      batch.clear();
+    }
+    closeClient();
+    synchronized (seqLock) {
+      seqLock.notifyAll();
+    }
+  }
+
+  private void markApplied(long seq) {
+    synchronized (seqLock) {
+      appliedSeq = Math.max(appliedSeq, seq);
+      for (Iterator<Long> it = pendingByKey.values().iterator(); it.hasNext();) {
+        if (it.next() <= appliedSeq) {
+          it.remove();
+        }
+      }
+      seqLock.notifyAll();
+    }
+  }
+
+  /**
+   * Remove the drops which repeat an earlier drop of the batch. A rename
+   * ends the window, as it may recreate privileges on a dropped name.
+   */
+  static List<SyncOperation> coalesce(List<SyncOperation> batch) {
+    List<SyncOperation> result = new ArrayList<SyncOperation>(batch.size());
+    Set<String> dropped = new HashSet<String>();
+    for (SyncOperation operation : batch) {
+      if (operation.isRename()) {
+        dropped.clear();
+        result.add(operation);
+      } else if (dropped.add(operation.getKey())) {
+        result.add(operation);
+      }
+    }
+    if (LOGGER.isDebugEnabled() && result.size() < batch.size()) {
+      LOGGER.debug("Coalesced " + batch.size() + " privilege sync operations into "
+          + result.size());
+    }
+    return result;
+  }
+
+  private void apply(SyncOperation operation) {
+    for (int attempt = 0; attempt <= retries; attempt++) {
+      try {
+        if (client == null) {
+          client = createClient();
+        }
+        operation.apply(client);
+        operation.invalidateDecisions();
+        return;
+      } catch (Exception e) {
+        LOGGER.warn("Failed to sync " + operation + " with Sentry, attempt "
+            + (attempt + 1) + " of " + (retries + 1), e);
+        // the connection may be broken, open a new one for the next attempt
+        closeClient();
+        try {
+          Thread.sleep(retryIntervalMs);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+    LOGGER.error("Giving up syncing " + operation + " with Sentry, its privileges are"
+        + " removed when an object with the same name is created");
+  }
+
+  SentryPolicyServiceClient createClient() throws Exception {
+    return SentryServiceClientFactory.create(authzConf);
+  }
+
+  private void closeClient() {
+    if (client != null) {
+      client.close();
+      client = null;
+    }
+  }
+
+  static class SyncOperation {
+    private final String requestorUserName;
+    private final List<? extends Authorizable> authorizables;
+    private final List<? extends Authorizable> newAuthorizables;
+    // set when the operation is queued
+    private long seq;
+
+    SyncOperation(String requestorUserName, List<? extends Authorizable> authorizables,
+        List<? extends Authorizable> newAuthorizables) {
+      this.requestorUserName = requestorUserName;
+      this.authorizables = authorizables;
+      this.newAuthorizables = newAuthorizables;
+    }
+
+    boolean isRename() {
+      return newAuthorizables != null;
+    }
+
+    String getKey() {
+      return toKey(authorizables);
+    }
+
+    String getNewKey() {
+      return toKey(newAuthorizables);
+    }
+
+    static String toKey(List<? extends Authorizable> authorizables) {
+      StringBuilder key = new StringBuilder();
+      for (Authorizable authorizable : authorizables) {
+        key.append(authorizable.getTypeName()).append('=')
+            .append(authorizable.getName().toLowerCase()).append('/');
+      }
+      return key.toString();
+    }
+
+    void apply(SentryPolicyServiceClient client) throws SentryUserException {
+      if (isRename()) {
+        client.renamePrivileges(requestorUserName, authorizables, newAuthorizables);
+      } else {
+        client.dropPrivileges(requestorUserName, authorizables);
+      }
+    }
+
+    void invalidateDecisions() {
+      for (Authorizable authorizable : authorizables) {
+        if (authorizable instanceof Database) {
+          AuthorizingObjectStoreBase.invalidateDecisions(authorizable.getName());
+        }
+      }
+      if (newAuthorizables != null) {
+        for (Authorizable authorizable : newAuthorizables) {
+          if (authorizable instanceof Database) {
+            AuthorizingObjectStoreBase.invalidateDecisions(authorizable.getName());
+          }
+        }
+      }
+    }
+
+    @Override
+    public String toString() {
+      return (isRename() ? "rename of " : "drop of ") + getKey();
+    }
+  }
+}
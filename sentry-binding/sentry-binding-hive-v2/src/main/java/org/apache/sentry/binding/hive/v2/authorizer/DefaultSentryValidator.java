@@ -19,8 +19,13 @@ import static org.apache.hadoop.hive.metastore.MetaStoreUtils.DEFAULT_DATABASE_N
 import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.hadoop.hive.conf.HiveConf;
 import org.apache.hadoop.hive.ql.metadata.AuthorizationException;
@@ -56,7 +61,10 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * This class used to do authorization. Check if current user has privileges to do the operation.
@@ -92,10 +100,39 @@ public class DefaultSentryValidator extends SentryHiveAuthorizationValidator {
     this.conf = conf;
     this.authzConf = authzConf;
     this.authenticator = authenticator;
+    this.bindingRefreshMs = authzConf.getLong(
+        HiveAuthzConf.AuthzConfVars.AUTHZ_SESSION_BINDING_REFRESH_MS.getVar(),
+        Long.parseLong(HiveAuthzConf.AuthzConfVars.AUTHZ_SESSION_BINDING_REFRESH_MS.getDefault()));
+    if (bindingRefreshMs > 0) {
+      filterDecisions = CacheBuilder.newBuilder()
+          .maximumSize(authzConf.getLong(
+              HiveAuthzConf.AuthzConfVars.AUTHZ_SESSION_DECISION_CACHE_SIZE.getVar(),
+              Long.parseLong(HiveAuthzConf.AuthzConfVars.AUTHZ_SESSION_DECISION_CACHE_SIZE
+                  .getDefault())))
+          .expireAfterWrite(bindingRefreshMs, TimeUnit.MILLISECONDS)
+          .build();
+    }
   }
 
   private HiveHook hiveHook;
 
+  // closes the session bindings at the end of their refresh interval, Hive doesn't
+  // tell the authorizer when its session ends
+  private static final ScheduledExecutorService BINDING_CLOSER =
+      Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+          .setNameFormat("sentry-session-binding-closer").build());
+
+  // binding and SHOW filter decisions reused by the calls of this session,
+  // only used when bindingRefreshMs > 0
+  private long bindingRefreshMs;
+  private HiveAuthzBinding sessionBinding;
+  private long sessionBindingCreateTime;
+  private int sessionBindingUsers;
+  // <binding replaced while in use, its number of users>, closed by its last user
+  private final Map<HiveAuthzBinding, Integer> retiredBindings =
+      new IdentityHashMap<HiveAuthzBinding, Integer>();
+  private Cache<String, Boolean> filterDecisions;
+
   // all operations need to extend at DB scope
   private static final Set<HiveOperation> EX_DB_ALL = Sets.newHashSet(HiveOperation.DROPDATABASE,
       HiveOperation.CREATETABLE, HiveOperation.IMPORT, HiveOperation.DESCDATABASE,
@@ -164,7 +201,7 @@ public class DefaultSentryValidator extends SentryHiveAuthorizationValidator {
 
     HiveAuthzBinding hiveAuthzBinding = null;
     try {
-      hiveAuthzBinding = getAuthzBinding();
+      hiveAuthzBinding = acquireAuthzBinding();
       if (stmtAuthPrivileges == null) {
         // We don't handle authorizing this statement
         return;
@@ -223,9 +260,7 @@ public class DefaultSentryValidator extends SentryHiveAuthorizationValidator {
     } catch (Exception e) {
       throw new HiveAuthzPluginException(e.getClass()+ ": " + e.getMessage(), e);
     } finally {
-      if (hiveAuthzBinding != null) {
-        hiveAuthzBinding.close();
-      }
+      releaseAuthzBinding(hiveAuthzBinding);
     }
 
     if ("true".equalsIgnoreCase(SessionState.get().getConf()
@@ -241,6 +276,102 @@ public class DefaultSentryValidator extends SentryHiveAuthorizationValidator {
     return new HiveAuthzBinding(hiveHook, conf, authzConf);
   }
 
+  /**
+   * Get the binding of this session, recreating it once it is older than the refresh
+   * interval, or a new binding per call when reuse is disabled. The caller must
+   * {@link #releaseAuthzBinding(HiveAuthzBinding)} it when done.
+   */
+  private synchronized HiveAuthzBinding acquireAuthzBinding() throws Exception {
+    if (bindingRefreshMs <= 0) {
+      return getAuthzBinding();
+    }
+    long now = System.currentTimeMillis();
+    if (sessionBinding != null && now - sessionBindingCreateTime >= bindingRefreshMs) {
+      retireSessionBinding();
+    }
+    if (sessionBinding == null) {
+      sessionBinding = getAuthzBinding();
+      sessionBindingCreateTime = now;
+      scheduleClose(sessionBinding);
+    }
+    sessionBindingUsers++;
+    return sessionBinding;
+  }
+
+  private synchronized void releaseAuthzBinding(HiveAuthzBinding hiveAuthzBinding) {
+    if (hiveAuthzBinding == null) {
+      return;
+    }
+    if (bindingRefreshMs <= 0) {
+      hiveAuthzBinding.close();
+    } else if (hiveAuthzBinding == sessionBinding) {
+      sessionBindingUsers--;
+    } else {
+      Integer users = retiredBindings.remove(hiveAuthzBinding);
+      if (users != null && users > 1) {
+        retiredBindings.put(hiveAuthzBinding, users - 1);
+      } else {
+        hiveAuthzBinding.close();
+      }
+    }
+  }
+
+  /**
+   * Stop handing out the session binding. It is closed now if no call uses it, else
+   * by the release of its last user.
+   */
+  private void retireSessionBinding() {
+    if (sessionBinding == null) {
+      return;
+    }
+    if (sessionBindingUsers == 0) {
+      sessionBinding.close();
+    } else {
+      retiredBindings.put(sessionBinding, sessionBindingUsers);
+    }
+    sessionBinding = null;
+    sessionBindingUsers = 0;
+  }
+
+  /**
+   * Retire the binding at the end of its refresh interval even if the session makes no
+   * other call, so that the binding of an ended session doesn't stay open.
+   */
+  private void scheduleClose(final HiveAuthzBinding hiveAuthzBinding) {
+    BINDING_CLOSER.schedule(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (DefaultSentryValidator.this) {
+          if (hiveAuthzBinding == sessionBinding) {
+            retireSessionBinding();
+          }
+        }
+      }
+    }, bindingRefreshMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Drop the session binding and the remembered filter decisions, so that the next call
+   * sees the privileges granted or revoked by this session.
+   */
+  @Override
+  public synchronized void invalidate() {
+    retireSessionBinding();
+    if (filterDecisions != null) {
+      filterDecisions.invalidateAll();
+    }
+  }
+
+  private Boolean getFilterDecision(String key) {
+    return filterDecisions == null ? null : filterDecisions.getIfPresent(key);
+  }
+
+  private void putFilterDecision(String key, boolean allowed) {
+    if (filterDecisions != null) {
+      filterDecisions.put(key, allowed);
+    }
+  }
+
   private void addExtendHierarchy(HiveOperation hiveOp, HiveAuthzPrivileges stmtAuthPrivileges,
       List<List<DBModelAuthorizable>> inputHierarchyList,
       List<List<DBModelAuthorizable>> outputHierarchyList, String command,
@@ -362,20 +493,18 @@ public class DefaultSentryValidator extends SentryHiveAuthorizationValidator {
       try {
         switch (pType) {
           case DATABASE:
-            hiveAuthzBinding = getAuthzBinding();
+            hiveAuthzBinding = acquireAuthzBinding();
             listObjs = filterShowDatabases(listObjs, authenticator.getUserName(), hiveAuthzBinding);
             break;
           case TABLE_OR_VIEW:
-            hiveAuthzBinding = getAuthzBinding();
+            hiveAuthzBinding = acquireAuthzBinding();
             listObjs = filterShowTables(listObjs, authenticator.getUserName(), hiveAuthzBinding);
             break;
         }
       } catch (Exception e) {
         LOG.debug(e.getMessage(),e);
       } finally {
-        if (hiveAuthzBinding != null) {
-          hiveAuthzBinding.close();
-        }
+        releaseAuthzBinding(hiveAuthzBinding);
       }
     }
     return listObjs;
@@ -396,6 +525,15 @@ public class DefaultSentryValidator extends SentryHiveAuthorizationValidator {
 
     for (HivePrivilegeObject obj : listObjs) {
       // if user has privileges on table, add to filtered list, else discard
+      String decisionKey = userName + "\u0001" + obj.getDbname() + "\u0001"
+          + obj.getObjectName();
+      Boolean allowed = getFilterDecision(decisionKey);
+      if (allowed != null) {
+        if (allowed) {
+          filteredResult.add(obj);
+        }
+        continue;
+      }
       Table table = new Table(obj.getObjectName());
       Database database;
       database = new Database(obj.getDbname());
@@ -414,7 +552,9 @@ public class DefaultSentryValidator extends SentryHiveAuthorizationValidator {
         hiveAuthzBinding.authorize(HiveOperation.SHOWTABLES, tableMetaDataPrivilege, subject,
             inputHierarchy, outputHierarchy);
         filteredResult.add(obj);
+        putFilterDecision(decisionKey, true);
       } catch (AuthorizationException e) {
+        putFilterDecision(decisionKey, false);
         // squash the exception, user doesn't have privileges, so the table is
         // not added to
         // filtered list.
@@ -451,6 +591,14 @@ public class DefaultSentryValidator extends SentryHiveAuthorizationValidator {
         continue;
       }
 
+      String decisionKey = userName + "\u0001" + obj.getObjectName();
+      Boolean allowed = getFilterDecision(decisionKey);
+      if (allowed != null) {
+        if (allowed) {
+          filteredResult.add(obj);
+        }
+        continue;
+      }
       database = new Database(obj.getObjectName());
 
       List<List<DBModelAuthorizable>> inputHierarchy = new ArrayList<List<DBModelAuthorizable>>();
@@ -467,7 +615,9 @@ public class DefaultSentryValidator extends SentryHiveAuthorizationValidator {
         hiveAuthzBinding.authorize(HiveOperation.SHOWDATABASES, anyPrivilege, subject,
             inputHierarchy, outputHierarchy);
         filteredResult.add(obj);
+        putFilterDecision(decisionKey, true);
       } catch (AuthorizationException e) {
+        putFilterDecision(decisionKey, false);
         // squash the exception, user doesn't have privileges, so the table is
         // not added to
         // filtered list.
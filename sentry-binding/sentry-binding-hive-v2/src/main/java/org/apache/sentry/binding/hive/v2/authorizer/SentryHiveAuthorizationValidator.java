@@ -55,4 +55,11 @@ public abstract class SentryHiveAuthorizationValidator implements HiveAuthorizat
   @Override
   public abstract List<HivePrivilegeObject> filterListCmdObjects(
       List<HivePrivilegeObject> listObjs, HiveAuthzContext context);
+
+  /**
+   * Called after the session changed privileges, roles or its current role. Validators which
+   * reuse authorization state across calls must drop it here.
+   */
+  public void invalidate() {
+  }
 }
@@ -34,6 +34,7 @@ import org.apache.hadoop.hive.ql.security.authorization.plugin.HivePrivilegeObje
 import org.apache.hadoop.hive.ql.security.authorization.plugin.HivePrivilegeObject.HivePrivilegeObjectType;
 import org.apache.hadoop.hive.ql.security.authorization.plugin.HiveRoleGrant;
 import org.apache.sentry.binding.hive.v2.SentryHivePrivilegeObject;
+import org.apache.sentry.binding.metastore.AuthorizingObjectStoreBase;
 
 /**
  * Convenience implementation of HiveAuthorizer. You can customize the behavior by passing different
@@ -60,6 +61,7 @@ public class SentryHiveAuthorizer implements HiveAuthorizer {
       HiveAccessControlException {
     accessController.grantPrivileges(hivePrincipals, hivePrivileges, hivePrivObject,
         grantorPrincipal, grantOption);
+    invalidateDecisions();
   }
 
   @Override
@@ -69,6 +71,7 @@ public class SentryHiveAuthorizer implements HiveAuthorizer {
       HiveAccessControlException {
     accessController.revokePrivileges(hivePrincipals, hivePrivileges, hivePrivObject,
         grantorPrincipal, grantOption);
+    invalidateDecisions();
   }
 
   @Override
@@ -80,6 +83,7 @@ public class SentryHiveAuthorizer implements HiveAuthorizer {
   @Override
   public void dropRole(String roleName) throws HiveAuthzPluginException, HiveAccessControlException {
     accessController.dropRole(roleName);
+    invalidateDecisions();
   }
 
   @Override
@@ -87,6 +91,7 @@ public class SentryHiveAuthorizer implements HiveAuthorizer {
       boolean grantOption, HivePrincipal grantorPrinc) throws HiveAuthzPluginException,
       HiveAccessControlException {
     accessController.grantRole(hivePrincipals, roles, grantOption, grantorPrinc);
+    invalidateDecisions();
   }
 
   @Override
@@ -94,6 +99,7 @@ public class SentryHiveAuthorizer implements HiveAuthorizer {
       boolean grantOption, HivePrincipal grantorPrinc) throws HiveAuthzPluginException,
       HiveAccessControlException {
     accessController.revokeRole(hivePrincipals, roles, grantOption, grantorPrinc);
+    invalidateDecisions();
   }
 
   @Override
@@ -123,6 +129,7 @@ public class SentryHiveAuthorizer implements HiveAuthorizer {
   public void setCurrentRole(String roleName) throws HiveAccessControlException,
       HiveAuthzPluginException {
     accessController.setCurrentRole(roleName);
+    authValidator.invalidate();
   }
 
   @Override
@@ -153,6 +160,15 @@ public class SentryHiveAuthorizer implements HiveAuthorizer {
     return authValidator.filterListCmdObjects(listObjs, context);
   }
 
+  /**
+   * Drop the decisions made with the privileges and roles before the change, those of
+   * the session and those of a metastore embedded in this process.
+   */
+  private void invalidateDecisions() {
+    authValidator.invalidate();
+    AuthorizingObjectStoreBase.invalidateDecisions();
+  }
+
   protected static HivePrivilegeObjectType getPrivObjectType(
       SentryHivePrivilegeObjectDesc privSubjectDesc) {
     if (privSubjectDesc.getObject() == null) {
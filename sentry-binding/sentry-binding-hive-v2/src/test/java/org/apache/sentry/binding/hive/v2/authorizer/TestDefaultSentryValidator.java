@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.sentry.binding.hive.v2.authorizer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.ql.plan.HiveOperation;
+import org.apache.hadoop.hive.ql.security.authorization.plugin.HivePrincipal;
+import org.apache.hadoop.hive.ql.security.authorization.plugin.HivePrivilege;
+import org.apache.hadoop.hive.ql.security.authorization.plugin.HivePrivilegeObject;
+import org.apache.hadoop.hive.ql.security.authorization.plugin.HivePrivilegeObject.HivePrivilegeObjectType;
+import org.apache.sentry.binding.hive.authz.HiveAuthzBinding;
+import org.apache.sentry.binding.hive.authz.HiveAuthzPrivileges;
+import org.apache.sentry.binding.hive.conf.HiveAuthzConf;
+import org.apache.sentry.binding.hive.v2.DummyHiveAuthenticationProvider;
+import org.apache.sentry.core.common.Subject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+/**
+ * Test the reuse of the session binding and of the filter decisions by DefaultSentryValidator.
+ */
+public class TestDefaultSentryValidator {
+
+  private static final long REFRESH_MS = 60 * 60 * 1000L;
+
+  private final List<HiveAuthzBinding> bindings =
+      Collections.synchronizedList(new ArrayList<HiveAuthzBinding>());
+  // when set, the next authorize call waits for releaseAuthorize
+  private volatile boolean blockAuthorize = false;
+  private final CountDownLatch authorizeEntered = new CountDownLatch(1);
+  private final CountDownLatch releaseAuthorize = new CountDownLatch(1);
+  private File authzSite;
+  private DefaultSentryValidator validator;
+
+  @Before
+  public void setup() throws Exception {
+    authzSite = File.createTempFile("sentry-site", ".xml");
+    Files.write("<configuration></configuration>", authzSite, Charsets.UTF_8);
+    HiveAuthzConf authzConf = new HiveAuthzConf(authzSite.toURI().toURL());
+    authzConf.setLong(HiveAuthzConf.AuthzConfVars.AUTHZ_SESSION_BINDING_REFRESH_MS.getVar(),
+        REFRESH_MS);
+    DummyHiveAuthenticationProvider authenticator = new DummyHiveAuthenticationProvider();
+    authenticator.setUserName("user1");
+    validator = new DefaultSentryValidator(new HiveConf(), authzConf, authenticator) {
+      @Override
+      public HiveAuthzBinding getAuthzBinding() throws Exception {
+        HiveAuthzBinding binding = newBinding();
+        bindings.add(binding);
+        return binding;
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    releaseAuthorize.countDown();
+    authzSite.delete();
+  }
+
+  private HiveAuthzBinding newBinding() throws Exception {
+    HiveAuthzBinding binding = Mockito.mock(HiveAuthzBinding.class);
+    Mockito.doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        if (blockAuthorize) {
+          blockAuthorize = false;
+          authorizeEntered.countDown();
+          releaseAuthorize.await();
+        }
+        return null;
+      }
+    }).when(binding).authorize(Mockito.any(HiveOperation.class),
+        Mockito.any(HiveAuthzPrivileges.class), Mockito.any(Subject.class),
+        Mockito.anyList(), Mockito.anyList());
+    return binding;
+  }
+
+  private List<HivePrivilegeObject> showTables(String... tableNames) {
+    List<HivePrivilegeObject> tables = new ArrayList<HivePrivilegeObject>();
+    for (String tableName : tableNames) {
+      tables.add(new HivePrivilegeObject(HivePrivilegeObjectType.TABLE_OR_VIEW, "db1", tableName));
+    }
+    return validator.filterListCmdObjects(tables, null);
+  }
+
+  private static void verifyAuthorizeCalls(HiveAuthzBinding binding, int times)
+      throws Exception {
+    Mockito.verify(binding, Mockito.times(times)).authorize(Mockito.any(HiveOperation.class),
+        Mockito.any(HiveAuthzPrivileges.class), Mockito.any(Subject.class),
+        Mockito.anyList(), Mockito.anyList());
+  }
+
+  @Test
+  public void testSessionBindingReused() throws Exception {
+    Assert.assertEquals(2, showTables("t1", "t2").size());
+    Assert.assertEquals(1, showTables("t3").size());
+    Assert.assertEquals(1, bindings.size());
+    Mockito.verify(bindings.get(0), Mockito.never()).close();
+  }
+
+  /**
+   * A binding retired while a call uses it stays open until that call releases it.
+   */
+  @Test
+  public void testRetiredBindingClosedOnLastRelease() throws Exception {
+    blockAuthorize = true;
+    Thread showTables = new Thread() {
+      @Override
+      public void run() {
+        showTables("t1");
+      }
+    };
+    showTables.start();
+    authorizeEntered.await();
+    HiveAuthzBinding inUse = bindings.get(0);
+
+    validator.invalidate();
+    Mockito.verify(inUse, Mockito.never()).close();
+
+    // the next call gets a new binding
+    Assert.assertEquals(1, showTables("t2").size());
+    Assert.assertEquals(2, bindings.size());
+    Mockito.verify(inUse, Mockito.never()).close();
+
+    releaseAuthorize.countDown();
+    showTables.join(10000);
+    Assert.assertFalse(showTables.isAlive());
+    Mockito.verify(inUse).close();
+    Mockito.verify(bindings.get(1), Mockito.never()).close();
+  }
+
+  @Test
+  public void testIdleBindingClosedWhenRetired() throws Exception {
+    showTables("t1");
+    validator.invalidate();
+    Mockito.verify(bindings.get(0)).close();
+  }
+
+  @Test
+  public void testFilterDecisionsReused() throws Exception {
+    showTables("t1", "t2");
+    showTables("t1", "t2");
+    verifyAuthorizeCalls(bindings.get(0), 2);
+  }
+
+  /**
+   * GRANT, REVOKE and SET ROLE through the authorizer drop the decisions of the session.
+   */
+  @Test
+  public void testPrivilegeChangesDropFilterDecisions() throws Exception {
+    SentryHiveAccessController accessController = Mockito.mock(SentryHiveAccessController.class);
+    SentryHiveAuthorizer authorizer = new SentryHiveAuthorizer(accessController, validator);
+    List<HivePrincipal> principals = Lists.newArrayList();
+    List<HivePrivilege> privileges = Lists.newArrayList();
+    HivePrivilegeObject table =
+        new HivePrivilegeObject(HivePrivilegeObjectType.TABLE_OR_VIEW, "db1", "t1");
+
+    showTables("t1");
+    authorizer.grantPrivileges(principals, privileges, table, null, false);
+    showTables("t1");
+    authorizer.revokePrivileges(principals, privileges, table, null, false);
+    showTables("t1");
+    authorizer.setCurrentRole("role1");
+    showTables("t1");
+
+    // every change retires the binding and its decisions, each call authorizes again
+    Assert.assertEquals(4, bindings.size());
+    for (HiveAuthzBinding binding : bindings) {
+      verifyAuthorizeCalls(binding, 1);
+    }
+    for (HiveAuthzBinding binding : bindings.subList(0, 3)) {
+      Mockito.verify(binding).close();
+    }
+  }
+}
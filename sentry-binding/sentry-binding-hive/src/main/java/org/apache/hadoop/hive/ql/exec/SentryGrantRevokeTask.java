@@ -61,6 +61,7 @@ import org.apache.sentry.binding.hive.SentryOnFailureHookContextImpl;
 import org.apache.sentry.binding.hive.authz.HiveAuthzBinding;
 import org.apache.sentry.binding.hive.conf.HiveAuthzConf;
 import org.apache.sentry.binding.hive.conf.HiveAuthzConf.AuthzConfVars;
+import org.apache.sentry.binding.metastore.AuthorizingObjectStoreBase;
 import org.apache.sentry.core.common.ActiveRoleSet;
 import org.apache.sentry.core.common.Authorizable;
 import org.apache.sentry.core.common.Subject;
@@ -98,7 +99,11 @@ public class SentryGrantRevokeTask extends Task<DDLWork> implements Serializable
   private static final int terminator = Utilities.newLineCode;
   private static final long serialVersionUID = -7625118066790571999L;
 
+  // Sentry clients shared by the grant/revoke tasks of each session
+  private static final SentrySessionClients sessionClients = new SentrySessionClients();
+
   private SentryPolicyServiceClient sentryClient;
+  private SentrySessionClients.SessionClient sessionClient;
   private HiveConf conf;
   private HiveAuthzBinding hiveAuthzBinding;
   private HiveAuthzConf authzConf;
@@ -116,9 +121,10 @@ public class SentryGrantRevokeTask extends Task<DDLWork> implements Serializable
 
   @Override
   public int execute(DriverContext driverContext) {
+    boolean success = false;
     try {
       try {
-        this.sentryClient = SentryServiceClientFactory.create(authzConf);
+        this.sentryClient = getSentryClient();
       } catch (Exception e) {
         String msg = "Error creating Sentry client: " + e.getMessage();
         throw new RuntimeException(msg, e);
@@ -129,28 +135,32 @@ public class SentryGrantRevokeTask extends Task<DDLWork> implements Serializable
       server = Preconditions.checkNotNull(authzConf.get(AuthzConfVars.AUTHZ_SERVER_NAME.getVar()),
           "Config " + AuthzConfVars.AUTHZ_SERVER_NAME.getVar() + " is required");
       try {
+        int returnCode;
         if (work.getRoleDDLDesc() != null) {
-          return processRoleDDL(console, sentryClient, subject.getName(),
+          returnCode = processRoleDDL(console, sentryClient, subject.getName(),
               hiveAuthzBinding, work.getRoleDDLDesc());
-        }
-        if (work.getGrantDesc() != null) {
-          return processGrantDDL(console, sentryClient,
+        } else if (work.getGrantDesc() != null) {
+          returnCode = processGrantDDL(console, sentryClient,
               subject.getName(), server, work.getGrantDesc());
-        }
-        if (work.getRevokeDesc() != null) {
-          return processRevokeDDL(console, sentryClient,
+        } else if (work.getRevokeDesc() != null) {
+          returnCode = processRevokeDDL(console, sentryClient,
               subject.getName(), server, work.getRevokeDesc());
-        }
-        if (work.getShowGrantDesc() != null) {
-          return processShowGrantDDL(console, sentryClient, subject.getName(),
+        } else if (work.getShowGrantDesc() != null) {
+          returnCode = processShowGrantDDL(console, sentryClient, subject.getName(),
               work.getShowGrantDesc());
-        }
-        if (work.getGrantRevokeRoleDDL() != null) {
-          return processGrantRevokeRoleDDL(console, sentryClient,
+        } else if (work.getGrantRevokeRoleDDL() != null) {
+          returnCode = processGrantRevokeRoleDDL(console, sentryClient,
               subject.getName(), work.getGrantRevokeRoleDDL());
+        } else {
+          throw new AssertionError(
+              "Unknown command passed to Sentry Grant/Revoke Task");
+        }
+        if (work.getShowGrantDesc() == null) {
+          // an embedded metastore must not keep filtering with the previous privileges
+          AuthorizingObjectStoreBase.invalidateDecisions();
         }
-        throw new AssertionError(
-            "Unknown command passed to Sentry Grant/Revoke Task");
+        success = true;
+        return returnCode;
       } catch (SentryAccessDeniedException e) {
         String csHooks = authzConf.get(
             HiveAuthzConf.AuthzConfVars.AUTHZ_ONFAILURE_HOOKS.getVar(), "")
@@ -179,15 +189,39 @@ public class SentryGrantRevokeTask extends Task<DDLWork> implements Serializable
       console.printError(msg);
       return RETURN_CODE_FAILURE;
     } finally {
-      if (sentryClient != null) {
-        sentryClient.close();
-      }
+      releaseSentryClient(success);
       if (hiveAuthzBinding != null) {
         hiveAuthzBinding.close();
       }
     }
   }
 
+  /**
+   * Get the Sentry client of the task. When the session client idle time is set, the
+   * tasks of a Hive session share one client, which is closed once no task used it for
+   * that long. Otherwise every task opens its own client.
+   */
+  private SentryPolicyServiceClient getSentryClient() throws Exception {
+    long idleMs = authzConf.getLong(AuthzConfVars.AUTHZ_SESSION_CLIENT_IDLE_MS.getVar(),
+        Long.parseLong(AuthzConfVars.AUTHZ_SESSION_CLIENT_IDLE_MS.getDefault()));
+    SessionState session = SessionState.get();
+    if (idleMs <= 0 || session == null || session.getSessionId() == null) {
+      return SentryServiceClientFactory.create(authzConf);
+    }
+    sessionClient = sessionClients.acquire(session.getSessionId(), idleMs, authzConf);
+    return sessionClient.getClient();
+  }
+
+  private void releaseSentryClient(boolean success) {
+    if (sessionClient != null) {
+      // on failure the connection may be broken, the next task of the session opens a new client
+      sessionClients.release(sessionClient, !success);
+      sessionClient = null;
+    } else if (sentryClient != null) {
+      sentryClient.close();
+    }
+  }
+
   public void setAuthzConf(HiveAuthzConf authzConf) {
     Preconditions.checkState(this.authzConf == null,
         "setAuthzConf should only be called once: " + this.authzConf);
@@ -592,42 +626,39 @@ public class SentryGrantRevokeTask extends Task<DDLWork> implements Serializable
           String msg = SentryHiveConstants.GRANT_REVOKE_NOT_SUPPORTED_FOR_PRINCIPAL + princ.getType();
           throw new HiveException(msg);
         }
-        for (PrivilegeDesc privDesc : privileges) {
-          if (isGrant) {
-            if (serverName != null) {
-              sentryClient.grantServerPrivilege(subject, princ.getName(), serverName,
-                  toSentryAction(privDesc.getPrivilege().getPriv()), grantOption);
-            } else if (uriPath != null) {
-              sentryClient.grantURIPrivilege(subject, princ.getName(), server, uriPath, grantOption);
-            } else if (tableName == null) {
-              sentryClient.grantDatabasePrivilege(subject, princ.getName(), server, dbName,
-                  toDbSentryAction(privDesc.getPrivilege().getPriv()), grantOption);
-            } else if (columnNames == null) {
-              sentryClient.grantTablePrivilege(subject, princ.getName(), server, dbName,
-                  tableName, toSentryAction(privDesc.getPrivilege().getPriv()), grantOption);
-            } else {
-              sentryClient.grantColumnsPrivileges(subject, princ.getName(), server, dbName,
-                  tableName, columnNames, toSentryAction(privDesc.getPrivilege().getPriv()), grantOption);
-            }
-          } else {
-            if (serverName != null) {
-              sentryClient.revokeServerPrivilege(subject, princ.getName(), serverName,
-                toSentryAction(privDesc.getPrivilege().getPriv()), grantOption);
-            } else if (uriPath != null) {
-              sentryClient.revokeURIPrivilege(subject, princ.getName(), server, uriPath, grantOption);
-            } else if (tableName == null) {
-              sentryClient.revokeDatabasePrivilege(subject, princ.getName(), server, dbName,
-                  toDbSentryAction(privDesc.getPrivilege().getPriv()), grantOption);
-            } else if (columnNames == null) {
-              sentryClient.revokeTablePrivilege(subject, princ.getName(), server, dbName,
-                  tableName, toSentryAction(privDesc.getPrivilege().getPriv()), grantOption);
-            } else {
-              sentryClient.revokeColumnsPrivilege(subject, princ.getName(), server, dbName,
-                  tableName, columnNames, toSentryAction(privDesc.getPrivilege().getPriv()), grantOption);
-            }
+      }
+      // every privilege of the statement goes to a role in a single call
+      long createTime = System.currentTimeMillis();
+      Set<TSentryPrivilege> sentryPrivileges = new HashSet<TSentryPrivilege>();
+      for (PrivilegeDesc privDesc : privileges) {
+        PrivilegeType privilegeType = privDesc.getPrivilege().getPriv();
+        if (serverName != null) {
+          sentryPrivileges.add(toSentryPrivilege(PrivilegeScope.SERVER, serverName, null,
+              null, null, null, toSentryAction(privilegeType), grantOption, createTime));
+        } else if (uriPath != null) {
+          sentryPrivileges.add(toSentryPrivilege(PrivilegeScope.URI, server, uriPath,
+              null, null, null, AccessConstants.ALL, grantOption, createTime));
+        } else if (tableName == null) {
+          sentryPrivileges.add(toSentryPrivilege(PrivilegeScope.DATABASE, server, null,
+              dbName, null, null, toDbSentryAction(privilegeType), grantOption, createTime));
+        } else if (columnNames == null) {
+          sentryPrivileges.add(toSentryPrivilege(PrivilegeScope.TABLE, server, null,
+              dbName, tableName, null, toSentryAction(privilegeType), grantOption, createTime));
+        } else {
+          for (String columnName : columnNames) {
+            sentryPrivileges.add(toSentryPrivilege(PrivilegeScope.COLUMN, server, null,
+                dbName, tableName, columnName, toSentryAction(privilegeType), grantOption,
+                createTime));
           }
         }
       }
+      for (PrincipalDesc princ : principals) {
+        if (isGrant) {
+          sentryClient.grantPrivileges(subject, princ.getName(), sentryPrivileges);
+        } else {
+          sentryClient.revokePrivileges(subject, princ.getName(), sentryPrivileges);
+        }
+      }
       return RETURN_CODE_SUCCESS;
     } catch (HiveException e) {
       String msg = "Error in grant/revoke operation, error message " + e.getMessage();
@@ -637,6 +668,26 @@ public class SentryGrantRevokeTask extends Task<DDLWork> implements Serializable
     }
   }
 
+  private static TSentryPrivilege toSentryPrivilege(PrivilegeScope scope, String serverName,
+      String uri, String db, String table, String column, String action, Boolean grantOption,
+      long createTime) {
+    TSentryPrivilege privilege = new TSentryPrivilege();
+    privilege.setPrivilegeScope(scope.toString());
+    privilege.setServerName(serverName);
+    privilege.setURI(uri);
+    privilege.setDbName(db);
+    privilege.setTableName(table);
+    privilege.setColumnName(column);
+    privilege.setAction(action);
+    privilege.setCreateTime(createTime);
+    if (grantOption == null) {
+      privilege.setGrantOption(TSentryGrantOption.UNSET);
+    } else {
+      privilege.setGrantOption(grantOption ? TSentryGrantOption.TRUE : TSentryGrantOption.FALSE);
+    }
+    return privilege;
+  }
+
   private static String toDbSentryAction(PrivilegeType privilegeType) throws SentryUserException{
     switch(privilegeType) {
       case ALL:
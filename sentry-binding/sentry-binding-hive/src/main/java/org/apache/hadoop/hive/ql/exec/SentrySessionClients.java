@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.ql.exec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sentry.binding.hive.conf.HiveAuthzConf;
+import org.apache.sentry.provider.db.service.thrift.SentryPolicyServiceClient;
+import org.apache.sentry.service.thrift.SentryServiceClientFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Sentry clients shared by the grant/revoke tasks of each Hive session. The
+ * tasks using a client hold a reference on it, so a client is never closed while
+ * in use. A background sweep closes the clients unused for longer than the idle
+ * time given by their last task, so the client of an ended session is closed even
+ * when no other task runs. A client found broken is replaced for the next task and
+ * closed once its last user releases it.
+ */
+class SentrySessionClients {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SentrySessionClients.class);
+  private static final long MAX_SWEEP_INTERVAL_MS = 60000L;
+
+  // <Hive session id, client of the session>
+  private final Map<String, SessionClient> clients = new HashMap<String, SessionClient>();
+  private Thread sweeper;
+
+  /**
+   * Get the client of the session, opening one if needed. The caller must
+   * {@link #release(SessionClient, boolean)} it when done. The client is opened
+   * without holding the lock shared by all the sessions, when two tasks of a session
+   * open one at the same time the first one stored is used and the other is closed.
+   */
+  SessionClient acquire(String sessionId, long idleMs, HiveAuthzConf authzConf)
+      throws Exception {
+    synchronized (this) {
+      SessionClient sessionClient = clients.get(sessionId);
+      if (sessionClient != null) {
+        return use(sessionClient, idleMs);
+      }
+    }
+    SessionClient opened = new SessionClient(createClient(authzConf));
+    SessionClient sessionClient;
+    synchronized (this) {
+      sessionClient = clients.get(sessionId);
+      if (sessionClient == null) {
+        sessionClient = opened;
+        clients.put(sessionId, sessionClient);
+      }
+      use(sessionClient, idleMs);
+    }
+    if (sessionClient != opened) {
+      opened.client.close();
+    }
+    return sessionClient;
+  }
+
+  /**
+   * Take a reference on the client for a task, and start the sweep if needed. Called
+   * with the lock held.
+   */
+  private SessionClient use(SessionClient sessionClient, long idleMs) {
+    sessionClient.refCount++;
+    sessionClient.idleMs = idleMs;
+    sessionClient.lastUsed = System.currentTimeMillis();
+    if (sweeper == null) {
+      sweeper = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          sweepUntilEmpty();
+        }
+      }, SentrySessionClients.class.getSimpleName());
+      sweeper.setDaemon(true);
+      sweeper.start();
+    } else {
+      notifyAll();
+    }
+    return sessionClient;
+  }
+
+  /**
+   * Release a client acquired for a task. A broken client is removed from its
+   * session, and closed once no other task uses it.
+   */
+  void release(SessionClient sessionClient, boolean broken) {
+    synchronized (this) {
+      sessionClient.refCount--;
+      sessionClient.lastUsed = System.currentTimeMillis();
+      if (broken && !sessionClient.removed) {
+        sessionClient.removed = true;
+        clients.values().remove(sessionClient);
+      }
+      if (!sessionClient.removed || sessionClient.refCount > 0) {
+        return;
+      }
+    }
+    sessionClient.client.close();
+  }
+
+  SentryPolicyServiceClient createClient(HiveAuthzConf authzConf) throws Exception {
+    return SentryServiceClientFactory.create(authzConf);
+  }
+
+  synchronized int size() {
+    return clients.size();
+  }
+
+  /**
+   * Close the clients which no task has used since their idle time.
+   */
+  void sweep(long now) {
+    List<SessionClient> expired = new ArrayList<SessionClient>();
+    synchronized (this) {
+      for (Iterator<SessionClient> it = clients.values().iterator(); it.hasNext();) {
+        SessionClient sessionClient = it.next();
+        if (sessionClient.refCount == 0 && now - sessionClient.lastUsed >= sessionClient.idleMs) {
+          sessionClient.removed = true;
+          it.remove();
+          expired.add(sessionClient);
+        }
+      }
+    }
+    for (SessionClient sessionClient : expired) {
+      sessionClient.client.close();
+    }
+  }
+
+  private void sweepUntilEmpty() {
+    while (true) {
+      synchronized (this) {
+        if (clients.isEmpty()) {
+          sweeper = null;
+          return;
+        }
+        long interval = MAX_SWEEP_INTERVAL_MS;
+        for (SessionClient sessionClient : clients.values()) {
+          interval = Math.min(interval, Math.max(1L, sessionClient.idleMs));
+        }
+        try {
+          wait(interval);
+        } catch (InterruptedException e) {
+          LOG.warn("Interrupted, the idle Sentry clients of ended sessions won't be closed");
+          sweeper = null;
+          return;
+        }
+      }
+      sweep(System.currentTimeMillis());
+    }
+  }
+
+  static class SessionClient {
+    private final SentryPolicyServiceClient client;
+    // guarded by the SentrySessionClients
+    private int refCount = 0;
+    private long idleMs;
+    private long lastUsed;
+    private boolean removed = false;
+
+    SessionClient(SentryPolicyServiceClient client) {
+      this.client = client;
+    }
+
+    SentryPolicyServiceClient getClient() {
+      return client;
+    }
+  }
+}
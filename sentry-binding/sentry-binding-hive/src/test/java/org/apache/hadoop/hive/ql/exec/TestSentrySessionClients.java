@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hive.ql.exec;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.hadoop.hive.ql.exec.SentrySessionClients.SessionClient;
+import org.apache.sentry.binding.hive.conf.HiveAuthzConf;
+import org.apache.sentry.provider.db.service.thrift.SentryPolicyServiceClient;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestSentrySessionClients {
+
+  private static final long IDLE_MS = 60000L;
+
+  private SentrySessionClients sessionClients;
+
+  @Before
+  public void setup() {
+    sessionClients = new SentrySessionClients() {
+      @Override
+      SentryPolicyServiceClient createClient(HiveAuthzConf authzConf) {
+        return Mockito.mock(SentryPolicyServiceClient.class);
+      }
+    };
+  }
+
+  @Test
+  public void testClientPerSession() throws Exception {
+    SessionClient first = sessionClients.acquire("s1", IDLE_MS, null);
+    SessionClient second = sessionClients.acquire("s1", IDLE_MS, null);
+    SessionClient other = sessionClients.acquire("s2", IDLE_MS, null);
+    Assert.assertSame(first.getClient(), second.getClient());
+    Assert.assertNotSame(first.getClient(), other.getClient());
+    Assert.assertEquals(2, sessionClients.size());
+  }
+
+  @Test
+  public void testInUseClientNotClosedBySweep() throws Exception {
+    SessionClient inUse = sessionClients.acquire("s1", IDLE_MS, null);
+    SessionClient idle = sessionClients.acquire("s2", IDLE_MS, null);
+    sessionClients.release(idle, false);
+
+    // e.g. a task of another session cleans up long after both were acquired
+    sessionClients.sweep(System.currentTimeMillis() + 2 * IDLE_MS);
+    Mockito.verify(inUse.getClient(), Mockito.never()).close();
+    Mockito.verify(idle.getClient()).close();
+    Assert.assertEquals(1, sessionClients.size());
+
+    sessionClients.release(inUse, false);
+    sessionClients.sweep(System.currentTimeMillis() + 2 * IDLE_MS);
+    Mockito.verify(inUse.getClient()).close();
+    Assert.assertEquals(0, sessionClients.size());
+  }
+
+  @Test
+  public void testBrokenClientClosedAfterLastUser() throws Exception {
+    SessionClient failed = sessionClients.acquire("s1", IDLE_MS, null);
+    SessionClient running = sessionClients.acquire("s1", IDLE_MS, null);
+    sessionClients.release(failed, true);
+    Mockito.verify(running.getClient(), Mockito.never()).close();
+
+    SessionClient next = sessionClients.acquire("s1", IDLE_MS, null);
+    Assert.assertNotSame(running.getClient(), next.getClient());
+
+    sessionClients.release(running, false);
+    Mockito.verify(running.getClient()).close();
+    Mockito.verify(next.getClient(), Mockito.never()).close();
+  }
+
+  @Test
+  public void testIdleTimeFollowsConfig() throws Exception {
+    sessionClients.release(sessionClients.acquire("s1", IDLE_MS, null), false);
+    SessionClient sessionClient = sessionClients.acquire("s1", 10L, null);
+    sessionClients.release(sessionClient, false);
+
+    sessionClients.sweep(System.currentTimeMillis() + 100L);
+    Mockito.verify(sessionClient.getClient()).close();
+  }
+
+  @Test
+  public void testEndedSessionClosedWithoutNewTask() throws Exception {
+    SessionClient sessionClient = sessionClients.acquire("s1", 50L, null);
+    sessionClients.release(sessionClient, false);
+
+    Mockito.verify(sessionClient.getClient(), Mockito.timeout(10000)).close();
+    Assert.assertEquals(0, sessionClients.size());
+  }
+
+  /**
+   * Opens a client which waits for release() when opened by the thread "blocked".
+   */
+  private static class BlockingSessionClients extends SentrySessionClients {
+    private final CountDownLatch opening = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+    private volatile SentryPolicyServiceClient blockedClient;
+
+    @Override
+    SentryPolicyServiceClient createClient(HiveAuthzConf authzConf) throws Exception {
+      SentryPolicyServiceClient client = Mockito.mock(SentryPolicyServiceClient.class);
+      if ("blocked".equals(Thread.currentThread().getName())) {
+        blockedClient = client;
+        opening.countDown();
+        released.await();
+      }
+      return client;
+    }
+
+    Thread acquireInBackground(final String sessionId,
+        final AtomicReference<SessionClient> acquired) {
+      Thread thread = new Thread("blocked") {
+        @Override
+        public void run() {
+          try {
+            acquired.set(acquire(sessionId, IDLE_MS, null));
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+        }
+      };
+      thread.start();
+      return thread;
+    }
+  }
+
+  @Test
+  public void testOpeningClientDoesNotBlockOtherSessions() throws Exception {
+    BlockingSessionClients blockingClients = new BlockingSessionClients();
+    AtomicReference<SessionClient> acquired = new AtomicReference<SessionClient>();
+    Thread slowOpen = blockingClients.acquireInBackground("s1", acquired);
+    Assert.assertTrue(blockingClients.opening.await(10, TimeUnit.SECONDS));
+
+    // another session gets its client while s1 is still connecting
+    SessionClient other = blockingClients.acquire("s2", IDLE_MS, null);
+    Assert.assertEquals(1, blockingClients.size());
+    blockingClients.release(other, false);
+
+    blockingClients.released.countDown();
+    slowOpen.join(10000);
+    Assert.assertFalse(slowOpen.isAlive());
+    Assert.assertEquals(2, blockingClients.size());
+  }
+
+  @Test
+  public void testConcurrentlyOpenedClientClosed() throws Exception {
+    BlockingSessionClients blockingClients = new BlockingSessionClients();
+    AtomicReference<SessionClient> acquired = new AtomicReference<SessionClient>();
+    Thread slowOpen = blockingClients.acquireInBackground("s1", acquired);
+    Assert.assertTrue(blockingClients.opening.await(10, TimeUnit.SECONDS));
+
+    // a second task of the session opens and stores its client first
+    SessionClient first = blockingClients.acquire("s1", IDLE_MS, null);
+
+    blockingClients.released.countDown();
+    slowOpen.join(10000);
+    Assert.assertFalse(slowOpen.isAlive());
+    Assert.assertSame(first, acquired.get());
+    Assert.assertEquals(1, blockingClients.size());
+    Mockito.verify(blockingClients.blockedClient).close();
+    Mockito.verify(first.getClient(), Mockito.never()).close();
+
+    // both tasks share the stored client, it stays open until both release it
+    blockingClients.release(first, true);
+    Mockito.verify(first.getClient(), Mockito.never()).close();
+    blockingClients.release(acquired.get(), false);
+    Mockito.verify(first.getClient()).close();
+  }
+}
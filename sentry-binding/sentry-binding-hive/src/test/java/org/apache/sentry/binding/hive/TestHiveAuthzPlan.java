@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.binding.hive;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.hive.ql.plan.HiveOperation;
+import org.apache.sentry.binding.hive.authz.HiveAuthzPlan;
+import org.apache.sentry.binding.hive.authz.HiveAuthzPrivileges;
+import org.apache.sentry.binding.hive.authz.HiveAuthzPrivilegesMap;
+import org.apache.sentry.core.model.db.AccessURI;
+import org.apache.sentry.core.model.db.DBModelAction;
+import org.apache.sentry.core.model.db.DBModelAuthorizable;
+import org.apache.sentry.core.model.db.DBModelAuthorizable.AuthorizableType;
+import org.apache.sentry.core.model.db.Database;
+import org.apache.sentry.core.model.db.Server;
+import org.apache.sentry.core.model.db.Table;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class TestHiveAuthzPlan {
+
+  @Test
+  public void testPlanFromPrivilegesMap() {
+    HiveAuthzPrivileges privileges =
+        HiveAuthzPrivilegesMap.getHiveAuthzPrivileges(HiveOperation.CREATETABLE);
+    HiveAuthzPlan plan = privileges.getPlan();
+    Assert.assertSame(plan, HiveAuthzPrivilegesMap
+        .getHiveAuthzPrivileges(HiveOperation.CREATETABLE).getPlan());
+
+    List<HiveAuthzPlan.Requirement> input = plan.getInputRequirements();
+    Assert.assertEquals(1, input.size());
+    Assert.assertEquals(AuthorizableType.URI, input.get(0).getAuthzType());
+    Assert.assertEquals(EnumSet.of(DBModelAction.ALL), input.get(0).getActions());
+
+    // requirements follow the declaration order of the authorizable types
+    List<HiveAuthzPlan.Requirement> output = plan.getOutputRequirements();
+    Assert.assertEquals(2, output.size());
+    Assert.assertEquals(AuthorizableType.Db, output.get(0).getAuthzType());
+    Assert.assertEquals(EnumSet.of(DBModelAction.CREATE), output.get(0).getActions());
+    Assert.assertEquals(AuthorizableType.URI, output.get(1).getAuthzType());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testPlanIsImmutable() {
+    HiveAuthzPrivilegesMap.getHiveAuthzPrivileges(HiveOperation.QUERY).getPlan()
+        .getInputRequirements().get(0).getActions().add(DBModelAction.DROP);
+  }
+
+  @Test
+  public void testBind() {
+    Server server = new Server("server1");
+    List<List<DBModelAuthorizable>> hierarchyList = new ArrayList<List<DBModelAuthorizable>>();
+    hierarchyList.add(Lists.<DBModelAuthorizable>newArrayList(server, new Database("db1")));
+    hierarchyList.add(Lists.<DBModelAuthorizable>newArrayList(server, new Database("db1"),
+        new Table("t1")));
+    hierarchyList.add(Lists.<DBModelAuthorizable>newArrayList(server, new Database("db2"),
+        new Table("t2")));
+    hierarchyList.add(Lists.<DBModelAuthorizable>newArrayList(server,
+        new AccessURI("file:///tmp/path")));
+
+    Map<AuthorizableType, List<List<DBModelAuthorizable>>> bound =
+        HiveAuthzPlan.bind(hierarchyList);
+    Assert.assertEquals(3, bound.size());
+    Assert.assertEquals(1, bound.get(AuthorizableType.Db).size());
+    Assert.assertEquals(2, bound.get(AuthorizableType.Table).size());
+    Assert.assertEquals(1, bound.get(AuthorizableType.URI).size());
+    Assert.assertNull(bound.get(AuthorizableType.Column));
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.binding.hive;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.sentry.binding.hive.authz.HiveColumnPrivilegeView;
+import org.apache.sentry.core.model.db.DBModelAction;
+import org.apache.sentry.core.model.db.DBModelAuthorizable;
+import org.apache.sentry.core.model.db.Database;
+import org.apache.sentry.core.model.db.HivePrivilegeModel;
+import org.apache.sentry.core.model.db.Server;
+import org.apache.sentry.core.model.db.Table;
+import org.apache.sentry.policy.engine.common.CommonPrivilegeFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class TestHiveColumnPrivilegeView {
+
+  private static final List<DBModelAuthorizable> TABLE_HIERARCHY =
+      Lists.<DBModelAuthorizable>newArrayList(new Server("server1"), new Database("db1"),
+          new Table("t1"));
+
+  private HiveColumnPrivilegeView createView(Set<String> privileges) {
+    return new HiveColumnPrivilegeView(new CommonPrivilegeFactory(),
+        HivePrivilegeModel.getInstance(), privileges, TABLE_HIERARCHY,
+        EnumSet.of(DBModelAction.SELECT));
+  }
+
+  @Test
+  public void testTableAccess() {
+    HiveColumnPrivilegeView view = createView(Sets.newHashSet(
+        "server=server1->db=db1->table=t1->action=select"));
+    Assert.assertTrue(view.hasTableAccess());
+    Assert.assertTrue(view.hasColumnAccess("c1"));
+    Assert.assertTrue(view.hasColumnAccess("any"));
+
+    view = createView(Sets.newHashSet("server=server1->db=db1->action=all"));
+    Assert.assertTrue(view.hasTableAccess());
+
+    view = createView(Sets.newHashSet("server=server1->db=db1->table=t1->column=*->action=select"));
+    Assert.assertTrue(view.hasTableAccess());
+  }
+
+  @Test
+  public void testColumnAccess() {
+    HiveColumnPrivilegeView view = createView(Sets.newHashSet(
+        "server=server1->db=db1->table=t1->column=c1->action=select",
+        "server=server1->db=db1->table=t1->column=c2->action=insert",
+        "server=server1->db=db1->table=t1->action=insert"));
+    Assert.assertFalse(view.hasTableAccess());
+    Assert.assertTrue(view.hasColumnAccess("c1"));
+    Assert.assertTrue(view.hasColumnAccess("C1"));
+    Assert.assertFalse(view.hasColumnAccess("c2"));
+    Assert.assertFalse(view.hasColumnAccess("c3"));
+  }
+
+  @Test
+  public void testOtherObjects() {
+    HiveColumnPrivilegeView view = createView(Sets.newHashSet(
+        "server=server1->db=db2->action=all",
+        "server=server2->db=db1->table=t1->action=all",
+        "server=server1->db=db1->table=t2->column=c1->action=select",
+        "server=server1->uri=hdfs://namenode:8020/path"));
+    Assert.assertFalse(view.hasTableAccess());
+    Assert.assertFalse(view.hasColumnAccess("c1"));
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.binding.hive;
+
+import org.apache.sentry.binding.hive.authz.HiveMetadataPrivilegeIndex;
+import org.apache.sentry.core.model.db.Server;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class TestHiveMetadataPrivilegeIndex {
+
+  private static final Server SERVER = new Server("server1");
+
+  @Test
+  public void testTablePrivileges() {
+    HiveMetadataPrivilegeIndex index = new HiveMetadataPrivilegeIndex(SERVER, Sets.newHashSet(
+        "server=server1->db=db1->table=t1->action=select",
+        "server=server1->db=db1->table=t2->column=c1->action=insert",
+        "server=server1->db=db1->table=t3->action=create"));
+
+    Assert.assertTrue(index.canSeeDatabase("db1"));
+    Assert.assertTrue(index.canSeeDatabase("DB1"));
+    Assert.assertFalse(index.canSeeDatabase("db2"));
+
+    Assert.assertTrue(index.canSeeTable("db1", "t1"));
+    Assert.assertTrue(index.canSeeTable("db1", "T1"));
+    Assert.assertTrue(index.canSeeTable("db1", "t2"));
+    // create does not imply metadata access
+    Assert.assertFalse(index.canSeeTable("db1", "t3"));
+    Assert.assertFalse(index.canSeeTable("db1", "t4"));
+    Assert.assertFalse(index.canSeeTable("db2", "t1"));
+
+    Assert.assertTrue(index.canSeeColumn("db1", "t1", "c9"));
+    Assert.assertTrue(index.canSeeColumn("db1", "t2", "c1"));
+    Assert.assertFalse(index.canSeeColumn("db1", "t2", "c2"));
+  }
+
+  @Test
+  public void testDatabaseAndWildcardPrivileges() {
+    HiveMetadataPrivilegeIndex index = new HiveMetadataPrivilegeIndex(SERVER, Sets.newHashSet(
+        "server=server1->db=db1->action=all",
+        "server=server1->db=*->table=shared->action=select"));
+
+    Assert.assertTrue(index.canSeeDatabase("db1"));
+    Assert.assertTrue(index.canSeeTable("db1", "any"));
+    Assert.assertTrue(index.canSeeColumn("db1", "any", "c1"));
+    Assert.assertTrue(index.canSeeDatabase("db2"));
+    Assert.assertTrue(index.canSeeTable("db2", "shared"));
+    Assert.assertFalse(index.canSeeTable("db2", "other"));
+  }
+
+  @Test
+  public void testServerPrivileges() {
+    HiveMetadataPrivilegeIndex index = new HiveMetadataPrivilegeIndex(SERVER,
+        Sets.newHashSet("server=server1->action=all"));
+    Assert.assertTrue(index.canSeeDatabase("db1"));
+    Assert.assertTrue(index.canSeeTable("db1", "t1"));
+
+    index = new HiveMetadataPrivilegeIndex(SERVER,
+        Sets.newHashSet("server=server2->action=all", "server=server1->uri=hdfs:///tmp"));
+    Assert.assertFalse(index.canSeeDatabase("db1"));
+    Assert.assertFalse(index.canSeeTable("db1", "t1"));
+
+    index = new HiveMetadataPrivilegeIndex(SERVER, Sets.<String>newHashSet());
+    Assert.assertFalse(index.canSeeDatabase("db1"));
+  }
+}
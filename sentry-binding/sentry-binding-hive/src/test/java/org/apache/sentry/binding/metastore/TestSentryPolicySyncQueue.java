@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.binding.metastore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.sentry.binding.hive.conf.HiveAuthzConf;
+import org.apache.sentry.binding.hive.conf.HiveAuthzConf.AuthzConfVars;
+import org.apache.sentry.core.common.Authorizable;
+import org.apache.sentry.core.model.db.Database;
+import org.apache.sentry.core.model.db.Server;
+import org.apache.sentry.core.model.db.Table;
+import org.apache.sentry.provider.db.service.thrift.SentryPolicyServiceClient;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.Resources;
+
+public class TestSentryPolicySyncQueue {
+
+  private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+  private final CountDownLatch dropStarted = new CountDownLatch(1);
+  private final CountDownLatch releaseDrop = new CountDownLatch(1);
+  private HiveAuthzConf authzConf;
+  private SentryPolicyServiceClient client;
+  private SentryPolicySyncQueue queue;
+
+  @Before
+  public void setup() throws Exception {
+    client = Mockito.mock(SentryPolicyServiceClient.class);
+    // the first drop is slow, as if the Sentry service was busy
+    Mockito.doAnswer(new Answer<Void>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        if (dropStarted.getCount() > 0) {
+          dropStarted.countDown();
+          releaseDrop.await();
+        }
+        List<?> authorizables = (List<?>) invocation.getArguments()[1];
+        events.add("drop " + SentryPolicySyncQueue.SyncOperation.toKey(
+            (List<? extends Authorizable>) authorizables));
+        return null;
+      }
+    }).when(client).dropPrivileges(Mockito.anyString(), Mockito.anyList());
+    authzConf = new HiveAuthzConf(Resources.getResource("sentry-site.xml"));
+    queue = newQueue();
+  }
+
+  private SentryPolicySyncQueue newQueue() {
+    return new SentryPolicySyncQueue(authzConf) {
+      @Override
+      SentryPolicyServiceClient createClient() {
+        return client;
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    releaseDrop.countDown();
+    queue.stop();
+  }
+
+  private static List<Authorizable> table(String dbName, String tableName) {
+    return Lists.<Authorizable>newArrayList(new Server("server1"), new Database(dbName),
+        new Table(tableName));
+  }
+
+  private static List<Authorizable> db(String dbName) {
+    return Lists.<Authorizable>newArrayList(new Server("server1"), new Database(dbName));
+  }
+
+  /**
+   * DROP TABLE t1, CREATE TABLE t1 and GRANT on t1: the create waits for the
+   * queued drop, so that flushing the queue doesn't remove the grant.
+   */
+  @Test
+  public void testCreateGrantThenFlush() throws Exception {
+    Assert.assertTrue(queue.dropPrivileges("hive", table("db1", "t1")));
+    dropStarted.await();
+
+    Thread create = new Thread() {
+      @Override
+      public void run() {
+        try {
+          queue.awaitRelated(table("db1", "T1"));
+          events.add("create");
+          events.add("grant");
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    create.start();
+    create.join(500);
+    Assert.assertTrue("create must wait for the queued drop", create.isAlive());
+
+    // an unrelated create doesn't wait
+    queue.awaitRelated(table("db1", "t2"));
+
+    releaseDrop.countDown();
+    create.join(10000);
+    Assert.assertFalse(create.isAlive());
+
+    queue.stop();
+    Assert.assertEquals(Lists.newArrayList("drop Server=server1/Db=db1/Table=t1/",
+        "create", "grant"), events);
+  }
+
+  @Test
+  public void testCreateTableWaitsForQueuedDbDrop() throws Exception {
+    Assert.assertTrue(queue.dropPrivileges("hive", db("db1")));
+    dropStarted.await();
+
+    Thread create = new Thread() {
+      @Override
+      public void run() {
+        try {
+          queue.awaitRelated(table("db1", "t1"));
+          events.add("create");
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    create.start();
+    create.join(500);
+    Assert.assertTrue(create.isAlive());
+
+    releaseDrop.countDown();
+    create.join(10000);
+    Assert.assertEquals(Lists.newArrayList("drop Server=server1/Db=db1/", "create"), events);
+  }
+
+  /**
+   * A create doesn't wait longer than the await timeout for a stuck drop.
+   */
+  @Test
+  public void testAwaitTimesOut() throws Exception {
+    queue.stop();
+    authzConf.setLong(AuthzConfVars.AUTHZ_SYNC_ASYNC_AWAIT_TIMEOUT_MS.getVar(), 200L);
+    queue = newQueue();
+    Assert.assertTrue(queue.dropPrivileges("hive", table("db1", "t1")));
+    dropStarted.await();
+
+    long start = System.currentTimeMillis();
+    Assert.assertFalse(queue.awaitRelated(table("db1", "t1")));
+    Assert.assertTrue(System.currentTimeMillis() - start < 10000L);
+    Assert.assertTrue(queue.awaitRelated(table("db1", "t2")));
+  }
+
+  /**
+   * The listeners of a process share one queue, which is only stopped once.
+   */
+  @Test
+  public void testProcessQueueIsShared() throws Exception {
+    SentryPolicySyncQueue shared = SentryPolicySyncQueue.getInstance(authzConf);
+    try {
+      Assert.assertSame(shared, SentryPolicySyncQueue.getInstance(authzConf));
+    } finally {
+      SentryPolicySyncQueue.stopInstance();
+    }
+    // stopped, it no longer accepts operations
+    Assert.assertFalse(shared.dropPrivileges("hive", table("db1", "t1")));
+    SentryPolicySyncQueue.stopInstance();
+    SentryPolicySyncQueue next = SentryPolicySyncQueue.getInstance(authzConf);
+    try {
+      Assert.assertNotSame(shared, next);
+    } finally {
+      SentryPolicySyncQueue.stopInstance();
+    }
+  }
+
+  @Test
+  public void testStopSendsPendingDrops() throws Exception {
+    Assert.assertTrue(queue.dropPrivileges("hive", table("db1", "t1")));
+    dropStarted.await();
+    Assert.assertTrue(queue.dropPrivileges("hive", table("db1", "t2")));
+    Assert.assertTrue(queue.dropPrivileges("hive", table("db1", "t3")));
+    Assert.assertEquals(2, queue.getPendingCount());
+
+    releaseDrop.countDown();
+    queue.stop();
+    Assert.assertEquals(0, queue.getPendingCount());
+    Assert.assertEquals(3, events.size());
+
+    // the caller drops the privileges itself once the queue is stopped
+    Assert.assertFalse(queue.dropPrivileges("hive", table("db1", "t4")));
+  }
+}
@@ -19,10 +19,14 @@ package org.apache.sentry.kafka.binding;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import kafka.security.auth.Acl;
 import kafka.security.auth.Allow;
@@ -31,7 +35,12 @@ import kafka.security.auth.Operation$;
 import kafka.security.auth.ResourceType$;
 import org.apache.hadoop.conf.Configuration;
 
+import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import kafka.network.RequestChannel;
 import kafka.security.auth.Operation;
 import kafka.security.auth.Resource;
@@ -53,6 +62,7 @@ import org.apache.sentry.kafka.conf.KafkaAuthConf.AuthzConfVars;
 import org.apache.sentry.policy.common.PolicyEngine;
 import org.apache.sentry.core.common.utils.AuthorizationComponent;
 import org.apache.sentry.provider.common.AuthorizationProvider;
+import org.apache.sentry.provider.common.CacheProvider;
 import org.apache.sentry.provider.common.ProviderBackend;
 import org.apache.sentry.provider.common.ProviderBackendContext;
 import org.apache.sentry.provider.db.generic.SentryGenericProviderBackend;
@@ -60,12 +70,12 @@ import org.apache.sentry.provider.db.generic.service.thrift.SentryGenericService
 import org.apache.sentry.provider.db.generic.service.thrift.SentryGenericServiceClientFactory;
 import org.apache.sentry.provider.db.generic.service.thrift.TAuthorizable;
 import org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege;
+import org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilegeMap;
 import org.apache.sentry.provider.db.generic.service.thrift.TSentryRole;
 import org.apache.sentry.provider.db.generic.tools.KafkaTSentryPrivilegeConverter;
 import org.apache.sentry.service.thrift.ServiceConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import scala.Option;
 import scala.Predef;
 import scala.Tuple2;
 import scala.collection.Iterator;
@@ -79,6 +89,8 @@ public class KafkaAuthBinding {
   private static final Logger LOG = LoggerFactory.getLogger(KafkaAuthBinding.class);
   private static final String COMPONENT_TYPE = AuthorizationComponent.KAFKA;
   private static final String COMPONENT_NAME = COMPONENT_TYPE;
+  // message of the error of the servers which don't list the privileges of the whole service
+  private static final String INVALID_KEY_VALUE_MESSAGE = "Invalid key value";
 
   private static Boolean kerberosInit;
 
@@ -90,6 +102,8 @@ public class KafkaAuthBinding {
   private String instanceName;
   private String requestorName;
   private java.util.Map<String, ?> kafkaConfigs;
+  private final Cache<DecisionKey, Decision> decisionCache;
+  private volatile Object decisionSnapshot;
 
 
   public KafkaAuthBinding(String instanceName, String requestorName, Configuration authConf, java.util.Map<String, ?> kafkaConfigs) throws Exception {
@@ -98,6 +112,89 @@ public class KafkaAuthBinding {
     this.authConf = authConf;
     this.kafkaConfigs = kafkaConfigs;
     this.authProvider = createAuthProvider();
+    this.decisionCache = createDecisionCache();
+  }
+
+  /**
+   * The request an authorization decision was made for. The principal is the one of
+   * the session, the host is part of the key as privileges may be granted per host.
+   */
+  private static final class DecisionKey {
+    private final String principal;
+    private final String host;
+    private final String operation;
+    private final String resourceType;
+    private final String resourceName;
+    private final int hashCode;
+
+    DecisionKey(String principal, String host, String operation, String resourceType,
+        String resourceName) {
+      this.principal = principal;
+      this.host = host;
+      this.operation = operation;
+      this.resourceType = resourceType;
+      this.resourceName = resourceName;
+      this.hashCode = Objects.hashCode(principal, host, operation, resourceType, resourceName);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof DecisionKey)) {
+        return false;
+      }
+      DecisionKey other = (DecisionKey) obj;
+      return hashCode == other.hashCode && principal.equals(other.principal)
+          && host.equals(other.host) && operation.equals(other.operation)
+          && resourceType.equals(other.resourceType)
+          && resourceName.equals(other.resourceName);
+    }
+  }
+
+  /**
+   * An authorization decision and the policy cache of the provider backend it was
+   * made with.
+   */
+  private static final class Decision {
+    private final boolean allowed;
+    private final Object snapshot;
+
+    Decision(boolean allowed, Object snapshot) {
+      this.allowed = allowed;
+      this.snapshot = snapshot;
+    }
+  }
+
+  private Cache<DecisionKey, Decision> createDecisionCache() {
+    int size = authConf.getInt(AuthzConfVars.AUTHZ_CACHE_SIZE.getVar(),
+        Integer.parseInt(AuthzConfVars.AUTHZ_CACHE_SIZE.getDefault()));
+    if (size <= 0) {
+      return null;
+    }
+    long ttlMs = authConf.getLong(AuthzConfVars.AUTHZ_CACHE_TTL_MS.getVar(),
+        Long.parseLong(AuthzConfVars.AUTHZ_CACHE_TTL_MS.getDefault()));
+    LOG.info("Caching up to " + size + " authorization decisions for " + ttlMs + " ms");
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().maximumSize(size);
+    if (ttlMs > 0) {
+      builder.expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Get the current policy cache of the provider backend, which a caching backend
+   * replaces whenever it reloads the policy, or null for a backend without cache.
+   */
+  private Object getPolicySnapshot() {
+    return providerBackend instanceof CacheProvider
+        ? ((CacheProvider) providerBackend).getCacheSnapshot() : null;
   }
 
   /**
@@ -197,7 +294,56 @@ public class KafkaAuthBinding {
   /**
    * Authorize access to a Kafka privilege
    */
-  public boolean authorize(RequestChannel.Session session, Operation operation, Resource resource) {
+  public boolean authorize(final RequestChannel.Session session, final Operation operation,
+      final Resource resource) {
+    if (decisionCache == null) {
+      return hasAccess(session, operation, resource);
+    }
+    final Object snapshot = getPolicySnapshot();
+    if (snapshot != decisionSnapshot) {
+      // the policy was reloaded, none of the decisions made so far can be used again
+      decisionSnapshot = snapshot;
+      decisionCache.invalidateAll();
+    }
+    DecisionKey key = new DecisionKey(session.principal().getName(),
+        session.clientAddress().getHostAddress(), operation.name(),
+        resource.resourceType().name(), resource.name());
+    try {
+      Decision decision = decisionCache.getIfPresent(key);
+      if (decision == null || decision.snapshot != snapshot) {
+        if (decision != null) {
+          decisionCache.asMap().remove(key, decision);
+        }
+        // concurrent requests of a key wait for the one evaluation in progress
+        decision = decisionCache.get(key, new Callable<Decision>() {
+          @Override
+          public Decision call() {
+            return new Decision(hasAccess(session, operation, resource), snapshot);
+          }
+        });
+      }
+      return decision.allowed;
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    } catch (UncheckedExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  /**
+   * Drop the cached authorization decisions, e.g. after privileges were changed.
+   */
+  public void invalidateDecisions() {
+    if (decisionCache != null) {
+      decisionCache.invalidateAll();
+    }
+  }
+
+  long getCachedDecisionCount() {
+    return decisionCache == null ? 0 : decisionCache.size();
+  }
+
+  private boolean hasAccess(RequestChannel.Session session, Operation operation, Resource resource) {
       List<Authorizable> authorizables = ConvertUtil.convertResourceToAuthorizable(session.clientAddress().getHostAddress(), resource);
       Set<KafkaAction> actions = Sets.newHashSet(actionFactory.getActionByName(operation.name()));
       return authProvider.hasAccess(new Subject(getName(session)), authorizables, actions, ActiveRoleSet.ALL);
@@ -207,47 +353,33 @@ public class KafkaAuthBinding {
     verifyAcls(acls);
     LOG.info("Adding Acl: acl->" + acls + " resource->" + resource);
 
-    final Iterator<Acl> iterator = acls.iterator();
-    while (iterator.hasNext()) {
-      final Acl acl = iterator.next();
-      final String role = getRole(acl);
-      if (!roleExists(role)) {
+    final java.util.Map<String, Set<TSentryPrivilege>> rolePrivileges = toRolePrivileges(acls, resource);
+    final List<String> roles = getAllRoles();
+    for (String role : rolePrivileges.keySet()) {
+      if (!roles.contains(role)) {
         throw new KafkaException("Can not add Acl for non-existent Role: " + role);
       }
+    }
+    try {
+      // the privileges of a role are granted in one request, all of them or none
       execute(new Command<Void>() {
         @Override
         public Void run(SentryGenericServiceClient client) throws Exception {
-          client.grantPrivilege(
-              requestorName, role, COMPONENT_NAME, toTSentryPrivilege(acl, resource));
+          for (java.util.Map.Entry<String, Set<TSentryPrivilege>> entry : rolePrivileges.entrySet()) {
+            client.grantPrivileges(requestorName, entry.getKey(), COMPONENT_NAME, entry.getValue());
+          }
           return null;
         }
       });
+    } finally {
+      invalidateDecisions();
     }
   }
 
   public boolean removeAcls(scala.collection.immutable.Set<Acl> acls, final Resource resource) {
     verifyAcls(acls);
     LOG.info("Removing Acl: acl->" + acls + " resource->" + resource);
-    final Iterator<Acl> iterator = acls.iterator();
-    while (iterator.hasNext()) {
-      final Acl acl = iterator.next();
-      final String role = getRole(acl);
-      try {
-        execute(new Command<Void>() {
-          @Override
-          public Void run(SentryGenericServiceClient client) throws Exception {
-            client.dropPrivilege(
-                    requestorName, role, toTSentryPrivilege(acl, resource));
-            return null;
-          }
-        });
-      } catch (KafkaException kex) {
-        LOG.error("Failed to remove acls.", kex);
-        return false;
-      }
-    }
-
-    return true;
+    return revokePrivileges(toRolePrivileges(acls, resource));
   }
 
   public void addRole(final String role) {
@@ -274,6 +406,7 @@ public class KafkaAuthBinding {
         return null;
       }
     });
+    invalidateDecisions();
   }
 
   public void dropAllRoles() {
@@ -287,21 +420,7 @@ public class KafkaAuthBinding {
         return null;
       }
     });
-  }
-
-  private List<String> getRolesforGroup(final String groupName) {
-    final List<String> roles = new ArrayList<>();
-    execute(new Command<Void>() {
-      @Override
-      public Void run(SentryGenericServiceClient client) throws Exception {
-        for (TSentryRole tSentryRole : client.listRolesByGroupName(requestorName, groupName, COMPONENT_NAME)) {
-          roles.add(tSentryRole.getRoleName());
-        }
-        return null;
-      }
-    });
-
-    return roles;
+    invalidateDecisions();
   }
 
   private SentryGenericServiceClient getClient() throws Exception {
@@ -310,40 +429,31 @@ public class KafkaAuthBinding {
 
   public boolean removeAcls(final Resource resource) {
     LOG.info("Removing Acls for Resource: resource->" + resource);
-    List<String> roles = getAllRoles();
-    final List<TSentryPrivilege> tSentryPrivileges = getAllPrivileges(roles);
-    try {
-      execute(new Command<Void>() {
-        @Override
-        public Void run(SentryGenericServiceClient client) throws Exception {
-          for (TSentryPrivilege tSentryPrivilege : tSentryPrivileges) {
-            if (isPrivilegeForResource(tSentryPrivilege, resource)) {
-              client.dropPrivilege(
-                        requestorName, COMPONENT_NAME, tSentryPrivilege);
-            }
-          }
-          return null;
+    final java.util.Map<String, Set<TSentryPrivilege>> rolePrivileges = new HashMap<>();
+    for (java.util.Map.Entry<String, Set<TSentryPrivilege>> entry : getRoleToPrivileges(null).entrySet()) {
+      Set<TSentryPrivilege> tSentryPrivileges = new HashSet<>();
+      for (TSentryPrivilege tSentryPrivilege : entry.getValue()) {
+        if (isPrivilegeForResource(tSentryPrivilege, resource)) {
+          tSentryPrivileges.add(tSentryPrivilege);
         }
-      });
-    } catch (KafkaException kex) {
-      LOG.error("Failed to remove acls.", kex);
-      return false;
+      }
+      if (!tSentryPrivileges.isEmpty()) {
+        rolePrivileges.put(entry.getKey(), tSentryPrivileges);
+      }
     }
-
-    return true;
+    return revokePrivileges(rolePrivileges);
   }
 
   public scala.collection.immutable.Set<Acl> getAcls(final Resource resource) {
-    final Option<scala.collection.immutable.Set<Acl>> acls = getAcls().get(resource);
-    if (acls.nonEmpty())
-      return acls.get();
+    final Set<Acl> acls = rolePrivilegesToResourceAcls(getRoleToPrivileges(null)).get(resource);
+    if (acls != null)
+      return toScalaAcls(acls);
     return new scala.collection.immutable.HashSet<Acl>();
   }
 
   public Map<Resource, scala.collection.immutable.Set<Acl>> getAcls(KafkaPrincipal principal) {
     if (principal.getPrincipalType().toLowerCase().equals("group")) {
-      List<String> roles = getRolesforGroup(principal.getName());
-      return getAclsForRoles(roles);
+      return toScalaResourceAcls(rolePrivilegesToResourceAcls(getRoleToPrivileges(principal.getName())));
     } else {
       LOG.info("Did not recognize Principal type: " + principal.getPrincipalType() + ". Returning Acls for all principals.");
       return getAcls();
@@ -351,8 +461,7 @@ public class KafkaAuthBinding {
   }
 
   public Map<Resource, scala.collection.immutable.Set<Acl>> getAcls() {
-    final List<String> roles = getAllRoles();
-    return getAclsForRoles(roles);
+    return toScalaResourceAcls(rolePrivilegesToResourceAcls(getRoleToPrivileges(null)));
   }
 
   /**
@@ -394,6 +503,45 @@ public class KafkaAuthBinding {
     return tSentryPrivilege;
   }
 
+  /**
+   * Revoke the privileges of each role in one request per role.
+   */
+  private boolean revokePrivileges(final java.util.Map<String, Set<TSentryPrivilege>> rolePrivileges) {
+    try {
+      execute(new Command<Void>() {
+        @Override
+        public Void run(SentryGenericServiceClient client) throws Exception {
+          for (java.util.Map.Entry<String, Set<TSentryPrivilege>> entry : rolePrivileges.entrySet()) {
+            client.revokePrivileges(requestorName, entry.getKey(), COMPONENT_NAME, entry.getValue());
+          }
+          return null;
+        }
+      });
+    } catch (KafkaException kex) {
+      LOG.error("Failed to remove acls.", kex);
+      return false;
+    } finally {
+      invalidateDecisions();
+    }
+    return true;
+  }
+
+  private java.util.Map<String, Set<TSentryPrivilege>> toRolePrivileges(
+      scala.collection.immutable.Set<Acl> acls, Resource resource) {
+    final java.util.Map<String, Set<TSentryPrivilege>> rolePrivileges = new HashMap<>();
+    final Iterator<Acl> iterator = acls.iterator();
+    while (iterator.hasNext()) {
+      final Acl acl = iterator.next();
+      Set<TSentryPrivilege> tSentryPrivileges = rolePrivileges.get(getRole(acl));
+      if (tSentryPrivileges == null) {
+        tSentryPrivileges = new HashSet<>();
+        rolePrivileges.put(getRole(acl), tSentryPrivileges);
+      }
+      tSentryPrivileges.add(toTSentryPrivilege(acl, resource));
+    }
+    return rolePrivileges;
+  }
+
   private String getRole(Acl acl) {
     return acl.principal().getName();
   }
@@ -409,22 +557,6 @@ public class KafkaAuthBinding {
     return false;
   }
 
-  private List<TSentryPrivilege> getAllPrivileges(final List<String> roles) {
-    final List<TSentryPrivilege> tSentryPrivileges = new ArrayList<>();
-    execute(new Command<Void>() {
-      @Override
-      public Void run(SentryGenericServiceClient client) throws Exception {
-        for (String role : roles) {
-          tSentryPrivileges.addAll(client.listPrivilegesByRoleName(
-                requestorName, role, COMPONENT_NAME, instanceName));
-        }
-        return null;
-      }
-    });
-
-    return tSentryPrivileges;
-  }
-
   private List<String> getAllRoles() {
     final List<String> roles = new ArrayList<>();
     execute(new Command<Void>() {
@@ -440,19 +572,24 @@ public class KafkaAuthBinding {
     return roles;
   }
 
-  private Map<Resource, scala.collection.immutable.Set<Acl>> getAclsForRoles(final List<String> roles) {
-    return scala.collection.JavaConverters.mapAsScalaMapConverter(
-              rolePrivilegesToResourceAcls(getRoleToPrivileges(roles)))
+  private Map<Resource, scala.collection.immutable.Set<Acl>> toScalaResourceAcls(java.util.Map<Resource, Set<Acl>> resourceAcls) {
+    final java.util.Map<Resource, scala.collection.immutable.Set<Acl>> resourceAclsScala = new HashMap<>();
+    for (java.util.Map.Entry<Resource, Set<Acl>> entry : resourceAcls.entrySet()) {
+      resourceAclsScala.put(entry.getKey(), toScalaAcls(entry.getValue()));
+    }
+    return scala.collection.JavaConverters.mapAsScalaMapConverter(resourceAclsScala)
               .asScala().toMap(Predef.<Tuple2<Resource, scala.collection.immutable.Set<Acl>>>conforms());
   }
 
-  private java.util.Map<Resource, scala.collection.immutable.Set<Acl>> rolePrivilegesToResourceAcls(java.util.Map<String, scala.collection.immutable.Set<TSentryPrivilege>> rolePrivilegesMap) {
-    final java.util.Map<Resource, scala.collection.immutable.Set<Acl>> resourceAclsMap = new HashMap<>();
-    for (String role : rolePrivilegesMap.keySet()) {
-      scala.collection.immutable.Set<TSentryPrivilege> privileges = rolePrivilegesMap.get(role);
-      final Iterator<TSentryPrivilege> iterator = privileges.iterator();
-      while (iterator.hasNext()) {
-        TSentryPrivilege privilege = iterator.next();
+  private scala.collection.immutable.Set<Acl> toScalaAcls(Set<Acl> acls) {
+    return JavaConversions.asScalaSet(acls).<Acl>toSet();
+  }
+
+  private java.util.Map<Resource, Set<Acl>> rolePrivilegesToResourceAcls(java.util.Map<String, Set<TSentryPrivilege>> rolePrivilegesMap) {
+    final java.util.Map<Resource, Set<Acl>> resourceAclsMap = new HashMap<>();
+    for (java.util.Map.Entry<String, Set<TSentryPrivilege>> entry : rolePrivilegesMap.entrySet()) {
+      final String role = entry.getKey();
+      for (TSentryPrivilege privilege : entry.getValue()) {
         final List<TAuthorizable> authorizables = privilege.getAuthorizables();
         String host = null;
         String operation = privilege.getAction();
@@ -465,11 +602,12 @@ public class KafkaAuthBinding {
               operation = "All";
             }
             Acl acl = new Acl(new KafkaPrincipal("role", role), Allow$.MODULE$, host, Operation$.MODULE$.fromString(operation));
-            Set<Acl> newAclsJava = new HashSet<Acl>();
-            newAclsJava.add(acl);
-            addExistingAclsForResource(resourceAclsMap, resource, newAclsJava);
-            final scala.collection.mutable.Set<Acl> aclScala = JavaConversions.asScalaSet(newAclsJava);
-            resourceAclsMap.put(resource, aclScala.<Acl>toSet());
+            Set<Acl> acls = resourceAclsMap.get(resource);
+            if (acls == null) {
+              acls = new HashSet<Acl>();
+              resourceAclsMap.put(resource, acls);
+            }
+            acls.add(acl);
           }
         }
       }
@@ -478,34 +616,68 @@ public class KafkaAuthBinding {
     return resourceAclsMap;
   }
 
-  private java.util.Map<String, scala.collection.immutable.Set<TSentryPrivilege>> getRoleToPrivileges(final List<String> roles) {
-    final java.util.Map<String, scala.collection.immutable.Set<TSentryPrivilege>> rolePrivilegesMap = new HashMap<>();
-    execute(new Command<Void>() {
+  /**
+   * Get the privileges of the roles of the given group, or of all the roles if the
+   * group is null. The privileges of all the roles are listed by one request for all
+   * the privileges of the service, servers which don't support it are asked for the
+   * privileges of each role.
+   */
+  private java.util.Map<String, Set<TSentryPrivilege>> getRoleToPrivileges(final String groupName) {
+    return execute(new Command<java.util.Map<String, Set<TSentryPrivilege>>>() {
       @Override
-      public Void run(SentryGenericServiceClient client) throws Exception {
-        for (String role : roles) {
-          final Set<TSentryPrivilege> rolePrivileges = client.listPrivilegesByRoleName(
-              requestorName, role, COMPONENT_NAME, instanceName);
-          final scala.collection.immutable.Set<TSentryPrivilege> rolePrivilegesScala =
-              scala.collection.JavaConverters.asScalaSetConverter(rolePrivileges).asScala().toSet();
-          rolePrivilegesMap.put(role, rolePrivilegesScala);
+      public java.util.Map<String, Set<TSentryPrivilege>> run(SentryGenericServiceClient client) throws Exception {
+        Set<String> roles = null;
+        if (groupName != null) {
+          roles = new HashSet<>();
+          for (TSentryRole tSentryRole : client.listRolesByGroupName(requestorName, groupName, COMPONENT_NAME)) {
+            roles.add(tSentryRole.getRoleName());
+          }
         }
-        return null;
+
+        final java.util.Map<String, Set<TSentryPrivilege>> rolePrivilegesMap = new HashMap<>();
+        try {
+          final TSentryPrivilegeMap privilegeMap = client.listPrivilegsbyAuthorizable(COMPONENT_NAME,
+              instanceName, requestorName, Collections.singleton(""), null, null).get("");
+          if (privilegeMap != null && privilegeMap.getPrivilegeMap() != null) {
+            rolePrivilegesMap.putAll(privilegeMap.getPrivilegeMap());
+          }
+        } catch (RuntimeException ex) {
+          if (!isUnsupportedServiceListing(ex)) {
+            throw ex;
+          }
+          LOG.info("The Sentry server does not list all the privileges of the service, "
+              + "listing them by role: " + ex.getMessage());
+          if (roles == null) {
+            roles = new HashSet<>();
+            for (TSentryRole tSentryRole : client.listAllRoles(requestorName, COMPONENT_NAME)) {
+              roles.add(tSentryRole.getRoleName());
+            }
+          }
+          for (String role : roles) {
+            rolePrivilegesMap.put(role, client.listPrivilegesByRoleName(
+                requestorName, role, COMPONENT_NAME, instanceName));
+          }
+        }
+        if (roles != null) {
+          rolePrivilegesMap.keySet().retainAll(roles);
+        }
+        return rolePrivilegesMap;
       }
     });
-
-    return rolePrivilegesMap;
   }
 
-  private void addExistingAclsForResource(java.util.Map<Resource, scala.collection.immutable.Set<Acl>> resourceAclsMap, Resource resource, java.util.Set<Acl> newAclsJava) {
-    final scala.collection.immutable.Set<Acl> existingAcls = resourceAclsMap.get(resource);
-    if (existingAcls != null) {
-      final Iterator<Acl> aclsIter = existingAcls.iterator();
-      while (aclsIter.hasNext()) {
-        Acl curAcl = aclsIter.next();
-        newAclsJava.add(curAcl);
+  /**
+   * Older servers parse the empty authorizable as a key value pair, they fail the request
+   * with a runtime error about the invalid key value. A pooled client proxy wraps that
+   * error, so its causes are checked too.
+   */
+  private static boolean isUnsupportedServiceListing(RuntimeException ex) {
+    for (Throwable cause : Throwables.getCausalChain(ex)) {
+      if (cause.getMessage() != null && cause.getMessage().contains(INVALID_KEY_VALUE_MESSAGE)) {
+        return true;
       }
     }
+    return false;
   }
 
   private boolean roleExists(String role) {
@@ -33,6 +33,8 @@ public class KafkaAuthConf extends Configuration {
   public static final String KAFKA_PRINCIPAL_HOSTNAME = "sentry.kafka.principal.hostname";
   public static final String KAFKA_PRINCIPAL_NAME = "sentry.kafka.kerberos.principal";
   public static final String KAFKA_KEYTAB_FILE_NAME = "sentry.kafka.keytab.file";
+  public static final String KAFKA_AUTHZ_CACHE_SIZE = "sentry.kafka.authz.cache.size";
+  public static final String KAFKA_AUTHZ_CACHE_TTL_MS = "sentry.kafka.authz.cache.ttl.ms";
 
   /**
    * Config setting definitions
@@ -46,7 +48,9 @@ public class KafkaAuthConf extends Configuration {
     AUTHZ_SERVICE_USER_NAME(KAFKA_SERVICE_USER_NAME, "kafka"),
     AUTHZ_PRINCIPAL_HOSTNAME(KAFKA_PRINCIPAL_HOSTNAME, null),
     AUTHZ_PRINCIPAL_NAME(KAFKA_PRINCIPAL_NAME, null),
-    AUTHZ_KEYTAB_FILE_NAME(KAFKA_KEYTAB_FILE_NAME, null);
+    AUTHZ_KEYTAB_FILE_NAME(KAFKA_KEYTAB_FILE_NAME, null),
+    AUTHZ_CACHE_SIZE(KAFKA_AUTHZ_CACHE_SIZE, "0"),
+    AUTHZ_CACHE_TTL_MS(KAFKA_AUTHZ_CACHE_TTL_MS, "60000");
 
     private final String varName;
     private final String defaultVal;
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.kafka.binding;
+
+import kafka.network.RequestChannel;
+import kafka.security.auth.Operation$;
+import kafka.security.auth.Resource;
+import kafka.security.auth.ResourceType$;
+import org.apache.kafka.common.security.auth.KafkaPrincipal;
+import org.apache.sentry.kafka.conf.KafkaAuthConf;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.URL;
+
+public class KafkaAuthBindingTest {
+
+  private KafkaAuthBinding createBinding(int cacheSize) throws Exception {
+    URL sentrySite = KafkaAuthBindingTest.class.getClassLoader().getResource(KafkaAuthConf.AUTHZ_SITE_FILE);
+    KafkaAuthConf authConf = new KafkaAuthConf(sentrySite);
+    authConf.setInt(KafkaAuthConf.KAFKA_AUTHZ_CACHE_SIZE, cacheSize);
+    return new KafkaAuthBinding("kafka", "kafka", authConf, null);
+  }
+
+  @Test
+  public void testCachedDecisions() throws Exception {
+    KafkaAuthBinding binding = createBinding(100);
+    KafkaAuthBinding uncachedBinding = createBinding(0);
+    Resource topic1Resource = new Resource(ResourceType$.MODULE$.fromString("topic"), "t1");
+    KafkaPrincipal subadmin = new KafkaPrincipal(KafkaPrincipal.USER_TYPE, "subadmin");
+    RequestChannel.Session host1Session = new RequestChannel.Session(subadmin,
+        InetAddress.getByAddress("host1", new byte[] {1, 2, 3, 4}));
+    RequestChannel.Session host2Session = new RequestChannel.Session(subadmin,
+        InetAddress.getByAddress("host2", new byte[] {2, 3, 4, 5}));
+
+    for (int i = 0; i < 2; i++) {
+      for (String operation : new String[] {"Read", "Write", "Describe"}) {
+        Assert.assertTrue("Test failed.", binding.authorize(host1Session, Operation$.MODULE$.fromString(operation), topic1Resource));
+        Assert.assertFalse("Test failed.", binding.authorize(host2Session, Operation$.MODULE$.fromString(operation), topic1Resource));
+        Assert.assertTrue("Test failed.", uncachedBinding.authorize(host1Session, Operation$.MODULE$.fromString(operation), topic1Resource));
+        Assert.assertFalse("Test failed.", uncachedBinding.authorize(host2Session, Operation$.MODULE$.fromString(operation), topic1Resource));
+      }
+      Assert.assertEquals(6, binding.getCachedDecisionCount());
+    }
+    Assert.assertEquals(0, uncachedBinding.getCachedDecisionCount());
+
+    binding.invalidateDecisions();
+    Assert.assertEquals(0, binding.getCachedDecisionCount());
+    Assert.assertTrue("Test failed.", binding.authorize(host1Session, Operation$.MODULE$.fromString("Read"), topic1Resource));
+    Assert.assertEquals(1, binding.getCachedDecisionCount());
+  }
+}
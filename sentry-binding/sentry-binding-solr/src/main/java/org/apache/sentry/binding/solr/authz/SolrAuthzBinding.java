@@ -27,6 +27,8 @@ import java.lang.reflect.Constructor;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -44,6 +46,7 @@ import org.apache.sentry.core.model.search.SearchPrivilegeModel;
 import org.apache.sentry.policy.common.PolicyEngine;
 import org.apache.sentry.core.common.utils.AuthorizationComponent;
 import org.apache.sentry.provider.common.AuthorizationProvider;
+import org.apache.sentry.provider.common.CacheProvider;
 import org.apache.sentry.core.common.service.GroupMappingService;
 import org.apache.sentry.provider.common.HadoopGroupResourceAuthorizationProvider;
 import org.apache.sentry.provider.common.ProviderBackend;
@@ -60,7 +63,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 public class SolrAuthzBinding {
   private static final Logger LOG = LoggerFactory
@@ -81,6 +89,11 @@ public class SolrAuthzBinding {
   private final GroupMappingService groupMapping;
   private ProviderBackend providerBackend;
   private Subject bindingSubject;
+  // <user, roles>, null when the role cache is disabled
+  private final LoadingCache<String, CachedRoles> roleCache;
+  // the cache snapshot of the provider backend the cached roles were resolved from
+  private Object backendSnapshot;
+  private long backendVersion;
 
   public SolrAuthzBinding (SolrAuthzConf authzConf) throws Exception {
     this.authzConf = addHdfsPropsToConf(authzConf);
@@ -91,6 +104,56 @@ public class SolrAuthzBinding {
      */
     this.bindingSubject = new Subject(UserGroupInformation.getCurrentUser()
         .getShortUserName());
+    this.roleCache = createRoleCache();
+  }
+
+  /**
+   * The roles of a user and the version of the backend policy they were resolved from.
+   */
+  private static class CachedRoles {
+    private final Set<String> roles;
+    private final long version;
+
+    CachedRoles(Set<String> roles, long version) {
+      this.roles = roles;
+      this.version = version;
+    }
+  }
+
+  private LoadingCache<String, CachedRoles> createRoleCache() {
+    long ttlMs = authzConf.getLong(AuthzConfVars.AUTHZ_ROLE_CACHE_TTL_MS.getVar(),
+        Long.parseLong(AuthzConfVars.AUTHZ_ROLE_CACHE_TTL_MS.getDefault()));
+    if (ttlMs <= 0) {
+      return null;
+    }
+    int size = authzConf.getInt(AuthzConfVars.AUTHZ_ROLE_CACHE_SIZE.getVar(),
+        Integer.parseInt(AuthzConfVars.AUTHZ_ROLE_CACHE_SIZE.getDefault()));
+    // concurrent requests of a user wait for the one lookup of the roles in progress
+    return CacheBuilder.newBuilder()
+        .maximumSize(size)
+        .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+        .build(new CacheLoader<String, CachedRoles>() {
+          @Override
+          public CachedRoles load(String user) {
+            long version = getBackendVersion();
+            return new CachedRoles(resolveRoles(user), version);
+          }
+        });
+  }
+
+  /**
+   * Get the version of the policy of the provider backend, which changes whenever
+   * a caching backend reloads its cache. Backends without cache stay at one version
+   * and their roles are only refreshed by the TTL.
+   */
+  private synchronized long getBackendVersion() {
+    Object snapshot = providerBackend instanceof CacheProvider
+        ? ((CacheProvider) providerBackend).getCacheSnapshot() : null;
+    if (snapshot != backendSnapshot) {
+      backendSnapshot = snapshot;
+      backendVersion++;
+    }
+    return backendVersion;
   }
 
   // Instantiate the configured authz provider
@@ -214,6 +277,38 @@ public class SolrAuthzBinding {
    * @return The roles associated with the user
    */
   public Set<String> getRoles(String user) {
+    if (roleCache == null) {
+      return resolveRoles(user);
+    }
+    try {
+      CachedRoles cached = roleCache.get(user);
+      if (cached.version != getBackendVersion()) {
+        // resolved from an older policy, one of the waiting requests reloads it
+        roleCache.asMap().remove(user, cached);
+        cached = roleCache.get(user);
+      }
+      if (cached.roles.isEmpty()) {
+        // may come from a failed lookup, which must not lock the user out for the TTL
+        roleCache.asMap().remove(user, cached);
+      }
+      return cached.roles;
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    } catch (UncheckedExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  /**
+   * Drop the cached roles of all users, e.g. after their roles were changed.
+   */
+  public void invalidateRoles() {
+    if (roleCache != null) {
+      roleCache.invalidateAll();
+    }
+  }
+
+  private Set<String> resolveRoles(String user) {
     return providerBackend.getRoles(getGroups(user), ActiveRoleSet.ALL);
   }
 
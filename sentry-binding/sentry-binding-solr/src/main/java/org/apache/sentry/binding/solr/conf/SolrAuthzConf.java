@@ -33,7 +33,10 @@ public class SolrAuthzConf extends Configuration {
       "org.apache.sentry.provider.common.HadoopGroupResourceAuthorizationProvider"),
     AUTHZ_PROVIDER_RESOURCE("sentry.solr.provider.resource", ""),
     AUTHZ_PROVIDER_BACKEND("sentry.solr.provider.backend", "org.apache.sentry.provider.file.SimpleFileProviderBackend"),
-    AUTHZ_POLICY_ENGINE("sentry.solr.policy.engine", "org.apache.sentry.policy.engine.common.CommonPolicyEngine");
+    AUTHZ_POLICY_ENGINE("sentry.solr.policy.engine", "org.apache.sentry.policy.engine.common.CommonPolicyEngine"),
+    // how long the roles resolved for a user are reused, 0 disables the cache
+    AUTHZ_ROLE_CACHE_TTL_MS("sentry.solr.role.cache.ttl.ms", "0"),
+    AUTHZ_ROLE_CACHE_SIZE("sentry.solr.role.cache.size", "10000");
 
     private final String varName;
     private final String defaultVal;
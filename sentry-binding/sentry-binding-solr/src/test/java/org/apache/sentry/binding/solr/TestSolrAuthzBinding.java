@@ -262,6 +262,39 @@ public class TestSolrAuthzBinding {
     assertEquals(binding.getRoles("overlappingUser"), Sets.newHashSet("corporal_role", "sergeant_role", "general_role"));
   }
 
+  /**
+   * Test role mapping with the role cache enabled
+   */
+  @Test
+  public void testGetRolesCached() throws Exception {
+    SolrAuthzConf solrAuthzConf =
+      new SolrAuthzConf(Resources.getResource("sentry-site.xml"));
+    setUsableAuthzConf(solrAuthzConf);
+    solrAuthzConf.set(AuthzConfVars.AUTHZ_ROLE_CACHE_TTL_MS.getVar(), "60000");
+    SolrAuthzBinding binding = new SolrAuthzBinding(solrAuthzConf);
+    Set<String> emptySet = Collections.emptySet();
+
+    assertEquals(binding.getRoles("undefinedRoleUser"), emptySet);
+    // the exceptions of the lookup are not wrapped by the cache
+    for (int i = 0; i < 2; i++) {
+      try {
+        binding.getRoles("corporal_role");
+        Assert.fail("Expected SentryGroupNotFoundException");
+      } catch (SentryGroupNotFoundException e) {
+      }
+    }
+
+    Set<String> roles = binding.getRoles("sergeant1");
+    assertEquals(roles, Sets.newHashSet("corporal_role", "sergeant_role"));
+    // served from the cache
+    Assert.assertSame(roles, binding.getRoles("sergeant1"));
+    binding.invalidateRoles();
+    Set<String> reloaded = binding.getRoles("sergeant1");
+    Assert.assertNotSame(roles, reloaded);
+    assertEquals(roles, reloaded);
+    assertEquals(binding.getRoles("general1"), Sets.newHashSet("corporal_role", "sergeant_role", "general_role"));
+  }
+
   /**
    * Test that a full sentry-site definition works.
    */
@@ -17,6 +17,7 @@
 package org.apache.sentry.sqoop.authz;
 
 import java.util.List;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
 import org.apache.sentry.core.common.Subject;
@@ -33,6 +34,9 @@ import org.apache.sqoop.model.MRole;
 import org.apache.sqoop.security.AuthorizationAccessController;
 import org.apache.sqoop.security.SecurityError;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
 public class SentryAccessController extends AuthorizationAccessController {
   private static final Logger LOG = Logger.getLogger(SentryAccessController.class);
   private final SqoopAuthBinding binding;
@@ -100,6 +104,7 @@ public class SentryAccessController extends AuthorizationAccessController {
   @Override
   public void grantPrivileges(List<MPrincipal> principals, List<MPrivilege> privileges)
       throws SqoopException {
+    List<String> roles = Lists.newArrayList();
     for (MPrincipal principal : principals) {
       PrincipalDesc principalDesc = PrincipalDesc.fromStr(principal.getName(), principal.getType());
       if (principalDesc.getType() != PrincipalType.ROLE) {
@@ -107,20 +112,19 @@ public class SentryAccessController extends AuthorizationAccessController {
             SentrySqoopError.GRANT_REVOKE_PRIVILEGE_NOT_SUPPORT_FOR_PRINCIPAL
                 + principalDesc.getType().name());
       }
-
-      for (MPrivilege privilege : privileges) {
-        if (LOG.isDebugEnabled()) {
-          LOG.debug("Going to grant privilege : " + privilege +
-              " to principal: " + principal);
-        }
-        binding.grantPrivilege(getSubject(), principal.getName(), privilege);
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Going to grant privileges : " + privileges +
+            " to principal: " + principal);
       }
+      roles.add(principal.getName());
     }
+    binding.grantPrivileges(getSubject(), roles, privileges);
   }
 
   @Override
   public void grantRole(List<MPrincipal> principals, List<MRole> roles)
       throws SqoopException {
+    Set<String> groups = Sets.newHashSet();
     for (MPrincipal principal : principals) {
       PrincipalDesc principalDesc = PrincipalDesc.fromStr(principal.getName(), principal.getType());
       if (principalDesc.getType() != PrincipalType.GROUP) {
@@ -128,14 +132,13 @@ public class SentryAccessController extends AuthorizationAccessController {
             SentrySqoopError.GRANT_REVOKE_ROLE_NOT_SUPPORT_FOR_PRINCIPAL
                 + principalDesc.getType().name());
       }
-      for (MRole role : roles) {
-        if (LOG.isDebugEnabled()) {
-          LOG.debug("Going to grant role : " + role.getName() +
-              " to principal: " + principal);
-        }
-        binding.grantGroupToRole(getSubject(), principal.getName(), role);
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Going to grant roles : " + roles +
+            " to principal: " + principal);
       }
+      groups.add(principal.getName());
     }
+    binding.grantGroupsToRoles(getSubject(), groups, roles);
   }
 
   @Override
@@ -146,6 +149,7 @@ public class SentryAccessController extends AuthorizationAccessController {
   @Override
   public void revokePrivileges(List<MPrincipal> principals, List<MPrivilege> privileges)
       throws SqoopException {
+    List<String> roles = Lists.newArrayList();
     for (MPrincipal principal : principals) {
       PrincipalDesc principalDesc = PrincipalDesc.fromStr(principal.getName(), principal.getType());
       if (principalDesc.getType() != PrincipalType.ROLE) {
@@ -153,20 +157,19 @@ public class SentryAccessController extends AuthorizationAccessController {
             SentrySqoopError.GRANT_REVOKE_PRIVILEGE_NOT_SUPPORT_FOR_PRINCIPAL
                 + principalDesc.getType().name());
       }
-
-      for (MPrivilege privilege : privileges) {
-        if (LOG.isDebugEnabled()) {
-          LOG.debug("Going to revoke privilege : " + privilege +
-              " from principal: " + principal);
-        }
-        binding.revokePrivilege(getSubject(), principal.getName(), privilege);
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Going to revoke privileges : " + privileges +
+            " from principal: " + principal);
       }
+      roles.add(principal.getName());
     }
+    binding.revokePrivileges(getSubject(), roles, privileges);
   }
 
   @Override
   public void revokeRole(List<MPrincipal> principals, List<MRole> roles)
       throws SqoopException {
+    Set<String> groups = Sets.newHashSet();
     for (MPrincipal principal : principals) {
       PrincipalDesc principalDesc = PrincipalDesc.fromStr(principal.getName(), principal.getType());
       if (principalDesc.getType() != PrincipalType.GROUP) {
@@ -174,14 +177,13 @@ public class SentryAccessController extends AuthorizationAccessController {
             SentrySqoopError.GRANT_REVOKE_ROLE_NOT_SUPPORT_FOR_PRINCIPAL
                 + principalDesc.getType().name());
       }
-      for (MRole role : roles) {
-        if (LOG.isDebugEnabled()) {
-          LOG.debug("Going to revoke role : " + role.getName() +
-              " from principal: " + principal);
-        }
-        binding.revokeGroupfromRole(getSubject(), principal.getName(), role);
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Going to revoke roles : " + roles +
+            " from principal: " + principal);
       }
+      groups.add(principal.getName());
     }
+    binding.revokeGroupsFromRoles(getSubject(), groups, roles);
   }
 
   @Override
@@ -49,15 +49,14 @@ public class SentryAuthorizationValidator extends AuthorizationValidator {
     if (principalDesc.getType() != PrincipalType.USER) {
       throw new SqoopException(SecurityError.AUTH_0014,SentrySqoopError.AUTHORIZE_CHECK_NOT_SUPPORT_FOR_PRINCIPAL);
     }
-    for (MPrivilege privilege : privileges) {
-      if (LOG.isDebugEnabled()) {
-        LOG.debug("Going to authorize check on privilege : " + privilege +
-            " for principal: " + principal);
-      }
-      if (!binding.authorize(new Subject(principalDesc.getName()), privilege)) {
-        throw new SqoopException(SecurityError.AUTH_0014, "User " + principalDesc.getName() +
-            " does not have privileges for : " + privilege.toString());
-      }
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Going to authorize check on privileges : " + privileges +
+          " for principal: " + principal);
+    }
+    MPrivilege privilege = binding.getFirstUnauthorized(new Subject(principalDesc.getName()), privileges);
+    if (privilege != null) {
+      throw new SqoopException(SecurityError.AUTH_0014, "User " + principalDesc.getName() +
+          " does not have privileges for : " + privilege.toString());
     }
   }
 }
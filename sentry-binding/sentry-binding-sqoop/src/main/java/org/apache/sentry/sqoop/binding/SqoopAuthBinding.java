@@ -16,7 +16,12 @@
  */
 package org.apache.sentry.sqoop.binding;
 
+import static org.apache.sentry.core.common.utils.SentryConstants.AUTHORIZABLE_JOINER;
+import static org.apache.sentry.core.common.utils.SentryConstants.KV_JOINER;
+import static org.apache.sentry.core.common.utils.SentryConstants.PRIVILEGE_NAME;
+
 import java.lang.reflect.Constructor;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -32,6 +37,8 @@ import org.apache.sentry.core.model.sqoop.SqoopActionConstant;
 import org.apache.sentry.core.model.sqoop.SqoopActionFactory;
 import org.apache.sentry.core.model.sqoop.SqoopPrivilegeModel;
 import org.apache.sentry.policy.common.PolicyEngine;
+import org.apache.sentry.policy.common.Privilege;
+import org.apache.sentry.policy.common.PrivilegeFactory;
 import org.apache.sentry.core.common.utils.AuthorizationComponent;
 import org.apache.sentry.provider.common.AuthorizationProvider;
 import org.apache.sentry.provider.common.ProviderBackend;
@@ -52,6 +59,7 @@ import org.apache.sqoop.security.SecurityError;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
@@ -159,6 +167,60 @@ public class SqoopAuthBinding {
         Sets.newHashSet(actionFactory.getActionByName(privilege.getAction())), ActiveRoleSet.ALL);
   }
 
+  /**
+   * Authorize access to a list of Sqoop privileges with one lookup of the privileges
+   * of the subject instead of one per privilege. A privilege which isn't implied by
+   * them is checked again through the provider, which records the failed privileges.
+   * @param subject
+   * @param privileges
+   * @return the first privilege the subject doesn't have, or null
+   */
+  public MPrivilege getFirstUnauthorized(Subject subject, List<MPrivilege> privileges) {
+    PolicyEngine policyEngine = authProvider.getPolicyEngine();
+    if (policyEngine == null) {
+      for (MPrivilege privilege : privileges) {
+        if (!authorize(subject, privilege)) {
+          return privilege;
+        }
+      }
+      return null;
+    }
+    PrivilegeFactory privilegeFactory = policyEngine.getPrivilegeFactory();
+    Set<String> groups = authProvider.getGroupMapping().getGroups(subject.getName());
+    List<Privilege> permissions = Lists.newArrayList();
+    for (String permission : policyEngine.getPrivileges(groups,
+        Sets.newHashSet(subject.getName()), ActiveRoleSet.ALL, (Authorizable[]) null)) {
+      permissions.add(privilegeFactory.createPrivilege(permission));
+    }
+    for (MPrivilege privilege : privileges) {
+      if (!implies(privilegeFactory, permissions, privilege) && !authorize(subject, privilege)) {
+        return privilege;
+      }
+    }
+    return null;
+  }
+
+  private boolean implies(PrivilegeFactory privilegeFactory, List<Privilege> permissions,
+      MPrivilege privilege) {
+    List<Authorizable> authorizables = toAuthorizable(privilege.getResource());
+    if (!hasServerInclude(authorizables)) {
+      authorizables.add(0, sqoopServer);
+    }
+    List<String> hierarchy = Lists.newArrayList();
+    for (Authorizable authorizable : authorizables) {
+      hierarchy.add(KV_JOINER.join(authorizable.getTypeName(), authorizable.getName()));
+    }
+    hierarchy.add(KV_JOINER.join(PRIVILEGE_NAME,
+        actionFactory.getActionByName(privilege.getAction()).getValue()));
+    Privilege requestPrivilege = privilegeFactory.createPrivilege(AUTHORIZABLE_JOINER.join(hierarchy));
+    for (Privilege permission : permissions) {
+      if (permission.implies(requestPrivilege, SqoopPrivilegeModel.getInstance())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public boolean hasServerInclude(List<Authorizable> authorizables) {
     for (Authorizable authorizable : authorizables) {
       if (authorizable.getTypeName().equalsIgnoreCase(sqoopServer.getTypeName())) {
@@ -172,7 +234,8 @@ public class SqoopAuthBinding {
    *  The Sentry-296(generate client for connection pooling) has already finished development and reviewed by now. When it
    *  was committed to master, the getClient method was needed to refactor using the connection pool
    */
-  private SentryGenericServiceClient getClient() throws Exception {
+  @VisibleForTesting
+  SentryGenericServiceClient getClient() throws Exception {
     return SentryGenericServiceClientFactory.create(authConf);
   }
 
@@ -250,41 +313,117 @@ public class SqoopAuthBinding {
     return privileges;
   }
 
-  public void grantPrivilege(final Subject subject, final String role, final MPrivilege privilege) throws SqoopException {
+  /**
+   * @deprecated use {@link #grantPrivileges(Subject, List, List)}
+   */
+  @Deprecated
+  public void grantPrivilege(final Subject subject, final String role, final MPrivilege privilege)
+      throws SqoopException {
+    grantPrivileges(subject, Collections.singletonList(role), Collections.singletonList(privilege));
+  }
+
+  /**
+   * @deprecated use {@link #revokePrivileges(Subject, List, List)}
+   */
+  @Deprecated
+  public void revokePrivilege(final Subject subject, final String role, final MPrivilege privilege)
+      throws SqoopException {
+    revokePrivileges(subject, Collections.singletonList(role), Collections.singletonList(privilege));
+  }
+
+  /**
+   * @deprecated use {@link #grantGroupsToRoles(Subject, Set, List)}
+   */
+  @Deprecated
+  public void grantGroupToRole(final Subject subject, final String group, final MRole role)
+      throws SqoopException {
+    grantGroupsToRoles(subject, Sets.newHashSet(group), Collections.singletonList(role));
+  }
+
+  /**
+   * @deprecated use {@link #revokeGroupsFromRoles(Subject, Set, List)}
+   */
+  @Deprecated
+  public void revokeGroupfromRole(final Subject subject, final String group, final MRole role)
+      throws SqoopException {
+    revokeGroupsFromRoles(subject, Sets.newHashSet(group), Collections.singletonList(role));
+  }
+
+  /**
+   * Grant the privileges to each role, with one request per role over one connection.
+   * The privileges of a role are granted all or none.
+   */
+  public void grantPrivileges(final Subject subject, final List<String> roles,
+      final List<MPrivilege> privileges) throws SqoopException {
+    if (roles.isEmpty() || privileges.isEmpty()) {
+      return;
+    }
     execute(new Command<Void>() {
       @Override
       public Void run(SentryGenericServiceClient client) throws Exception {
-        client.grantPrivilege(subject.getName(), role, COMPONENT_TYPE, toTSentryPrivilege(privilege));
+        Set<TSentryPrivilege> tSentryPrivileges = toTSentryPrivileges(privileges);
+        for (String role : roles) {
+          client.grantPrivileges(subject.getName(), role, COMPONENT_TYPE, tSentryPrivileges);
+        }
         return null;
       }
     });
   }
 
-  public void revokePrivilege(final Subject subject, final String role, final MPrivilege privilege) throws SqoopException {
+  /**
+   * Revoke the privileges from each role, with one request per role over one connection.
+   * The privileges of a role are revoked all or none.
+   */
+  public void revokePrivileges(final Subject subject, final List<String> roles,
+      final List<MPrivilege> privileges) throws SqoopException {
+    if (roles.isEmpty() || privileges.isEmpty()) {
+      return;
+    }
     execute(new Command<Void>() {
       @Override
       public Void run(SentryGenericServiceClient client) throws Exception {
-        client.revokePrivilege(subject.getName(), role, COMPONENT_TYPE, toTSentryPrivilege(privilege));
+        Set<TSentryPrivilege> tSentryPrivileges = toTSentryPrivileges(privileges);
+        for (String role : roles) {
+          client.revokePrivileges(subject.getName(), role, COMPONENT_TYPE, tSentryPrivileges);
+        }
         return null;
       }
     });
   }
 
-  public void grantGroupToRole(final Subject subject, final String group, final MRole role) throws SqoopException {
+  /**
+   * Grant each role to the groups, with one request per role over one connection.
+   */
+  public void grantGroupsToRoles(final Subject subject, final Set<String> groups,
+      final List<MRole> roles) throws SqoopException {
+    if (groups.isEmpty() || roles.isEmpty()) {
+      return;
+    }
     execute(new Command<Void>() {
       @Override
       public Void run(SentryGenericServiceClient client) throws Exception {
-        client.addRoleToGroups(subject.getName(), role.getName(), COMPONENT_TYPE, Sets.newHashSet(group));
+        for (MRole role : roles) {
+          client.addRoleToGroups(subject.getName(), role.getName(), COMPONENT_TYPE, groups);
+        }
         return null;
       }
     });
   }
 
-  public void revokeGroupfromRole(final Subject subject, final String group, final MRole role) throws SqoopException {
+  /**
+   * Revoke each role from the groups, with one request per role over one connection.
+   */
+  public void revokeGroupsFromRoles(final Subject subject, final Set<String> groups,
+      final List<MRole> roles) throws SqoopException {
+    if (groups.isEmpty() || roles.isEmpty()) {
+      return;
+    }
     execute(new Command<Void>() {
       @Override
       public Void run(SentryGenericServiceClient client) throws Exception {
-        client.deleteRoleToGroups(subject.getName(), role.getName(), COMPONENT_TYPE, Sets.newHashSet(group));
+        for (MRole role : roles) {
+          client.deleteRoleToGroups(subject.getName(), role.getName(), COMPONENT_TYPE, groups);
+        }
         return null;
       }
     });
@@ -361,6 +500,14 @@ public class SqoopAuthBinding {
   }
 
 
+  private Set<TSentryPrivilege> toTSentryPrivileges(List<MPrivilege> privileges) {
+    Set<TSentryPrivilege> tSentryPrivileges = Sets.newLinkedHashSet();
+    for (MPrivilege privilege : privileges) {
+      tSentryPrivileges.add(toTSentryPrivilege(privilege));
+    }
+    return tSentryPrivileges;
+  }
+
   private List<TAuthorizable> toTSentryAuthorizable(MResource resource) {
     List<TAuthorizable> tAuthorizables = Lists.newArrayList();
     /**
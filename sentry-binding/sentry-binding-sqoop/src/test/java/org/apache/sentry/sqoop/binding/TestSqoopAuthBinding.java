@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.sqoop.binding;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.sentry.core.common.Subject;
+import org.apache.sentry.core.common.exception.SentryUserException;
+import org.apache.sentry.core.common.utils.PolicyFiles;
+import org.apache.sentry.provider.db.generic.service.thrift.SentryGenericServiceClient;
+import org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege;
+import org.apache.sentry.sqoop.conf.SqoopAuthConf;
+import org.apache.sentry.sqoop.conf.SqoopAuthConf.AuthzConfVars;
+import org.apache.sqoop.common.SqoopException;
+import org.apache.sqoop.model.MPrivilege;
+import org.apache.sqoop.model.MResource;
+import org.apache.sqoop.model.MRole;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mockito;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+
+public class TestSqoopAuthBinding {
+  private static final String RESOURCE_PATH = "test-authz-provider.ini";
+  private static final String COMPONENT = "sqoop";
+  private static final Subject ADMIN = new Subject("admin");
+
+  private final List<MPrivilege> privileges = Lists.newArrayList(
+      new MPrivilege(new MResource("1", MResource.TYPE.CONNECTOR), "read", false),
+      new MPrivilege(new MResource("2", MResource.TYPE.LINK), "write", false));
+  private File baseDir;
+  private SentryGenericServiceClient client;
+  private SqoopAuthBinding binding;
+
+  @Before
+  public void setup() throws Exception {
+    baseDir = Files.createTempDir();
+    PolicyFiles.copyToDir(baseDir, RESOURCE_PATH);
+    SqoopAuthConf authzConf = new SqoopAuthConf(Resources.getResource("sentry-site.xml"));
+    authzConf.set(AuthzConfVars.AUTHZ_PROVIDER_RESOURCE.getVar(), new File(baseDir, RESOURCE_PATH).getPath());
+    client = Mockito.mock(SentryGenericServiceClient.class);
+    binding = new SqoopAuthBinding(authzConf, "server1") {
+      @Override
+      SentryGenericServiceClient getClient() {
+        return client;
+      }
+    };
+  }
+
+  @After
+  public void teardown() {
+    if (baseDir != null) {
+      FileUtils.deleteQuietly(baseDir);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Set<TSentryPrivilege> anyPrivileges() {
+    return Mockito.anySet();
+  }
+
+  /**
+   * All the privileges of a role are sent in one request, over one connection.
+   */
+  @Test
+  public void testGrantRevokePrivileges() throws Exception {
+    binding.grantPrivileges(ADMIN, Lists.newArrayList("role1", "role2"), privileges);
+    Mockito.verify(client).grantPrivileges(Mockito.eq("admin"), Mockito.eq("role1"),
+        Mockito.eq(COMPONENT), Mockito.argThat(new HasSize(2)));
+    Mockito.verify(client).grantPrivileges(Mockito.eq("admin"), Mockito.eq("role2"),
+        Mockito.eq(COMPONENT), Mockito.argThat(new HasSize(2)));
+    Mockito.verify(client, Mockito.times(1)).close();
+
+    binding.revokePrivileges(ADMIN, Lists.newArrayList("role1"), privileges);
+    Mockito.verify(client).revokePrivileges(Mockito.eq("admin"), Mockito.eq("role1"),
+        Mockito.eq(COMPONENT), Mockito.argThat(new HasSize(2)));
+    Mockito.verify(client, Mockito.times(2)).close();
+
+    Mockito.verify(client, Mockito.never()).grantPrivilege(Mockito.anyString(), Mockito.anyString(),
+        Mockito.anyString(), Mockito.any(TSentryPrivilege.class));
+    Mockito.verify(client, Mockito.never()).revokePrivilege(Mockito.anyString(), Mockito.anyString(),
+        Mockito.anyString(), Mockito.any(TSentryPrivilege.class));
+  }
+
+  @Test
+  public void testDeprecatedSingleCalls() throws Exception {
+    binding.grantPrivilege(ADMIN, "role1", privileges.get(0));
+    Mockito.verify(client).grantPrivileges(Mockito.eq("admin"), Mockito.eq("role1"),
+        Mockito.eq(COMPONENT), Mockito.argThat(new HasSize(1)));
+    binding.revokePrivilege(ADMIN, "role1", privileges.get(0));
+    Mockito.verify(client).revokePrivileges(Mockito.eq("admin"), Mockito.eq("role1"),
+        Mockito.eq(COMPONENT), Mockito.argThat(new HasSize(1)));
+
+    binding.grantGroupToRole(ADMIN, "group1", new MRole("role1"));
+    Mockito.verify(client).addRoleToGroups("admin", "role1", COMPONENT, Sets.newHashSet("group1"));
+    binding.revokeGroupfromRole(ADMIN, "group1", new MRole("role1"));
+    Mockito.verify(client).deleteRoleToGroups("admin", "role1", COMPONENT, Sets.newHashSet("group1"));
+  }
+
+  @Test
+  public void testNoFallbackOnOtherErrors() throws Exception {
+    Mockito.doThrow(new SentryUserException("Access denied to admin")).when(client).grantPrivileges(
+        Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), anyPrivileges());
+    try {
+      binding.grantPrivileges(ADMIN, Lists.newArrayList("role1"), privileges);
+      Assert.fail("SqoopException should have been thrown");
+    } catch (SqoopException ex) {
+      // expected
+    }
+    Mockito.verify(client, Mockito.never()).grantPrivilege(Mockito.anyString(), Mockito.anyString(),
+        Mockito.anyString(), Mockito.any(TSentryPrivilege.class));
+    Mockito.verify(client).close();
+  }
+
+  private static class HasSize extends ArgumentMatcher<Set<TSentryPrivilege>> {
+    private final int size;
+
+    HasSize(int size) {
+      this.size = size;
+    }
+
+    @Override
+    public boolean matches(Object argument) {
+      return argument instanceof Set && ((Set<?>) argument).size() == size;
+    }
+  }
+}
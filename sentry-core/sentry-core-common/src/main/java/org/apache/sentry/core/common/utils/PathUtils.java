@@ -57,57 +57,77 @@ public class PathUtils {
    * Therefore the test is "/a/b".startsWith("/a");
    */
   private static boolean _impliesURI(String privilege, String request) {
-
-    URI privilegeURI;
-    URI requestURI;
+    URIKey privilegeKey;
+    URIKey requestKey;
     try {
-      // build privilege URI, add default scheme and/or authority if missing
-      privilegeURI = makeFullQualifiedURI(privilege);
-      if (privilegeURI == null) {
-        LOGGER.warn("Privilege URI " + privilege + " is not valid. Path is not absolute.");
+      privilegeKey = getURIKey(privilege, false);
+      if (privilegeKey == null) {
         return false;
       }
-
-      // build request URI, add default scheme and/or authority if missing
-      requestURI = makeFullQualifiedURI(request);
-      if (requestURI == null) {
-        LOGGER.warn("Request URI " + request + " is not valid. Path is not absolute.");
+      requestKey = getURIKey(request, true);
+      if (requestKey == null) {
         return false;
       }
     } catch (IOException e) {
       LOGGER.warn("Unable to get the configured filesystem implementation", e);
       return false;
     }
+    return privilegeKey.implies(requestKey);
+  }
 
-    // scheme and path must be present in privilege URI
-    if (privilegeURI.getScheme() == null || privilegeURI.getPath() == null) {
-      LOGGER.warn("Privilege URI " + request + " is not valid. Missing scheme or path.");
-      return false;
+  /**
+   * The fully qualified form in which a URI is compared by impliesURI: the scheme and
+   * authority, which must be equal, and the path ending with a separator, which the
+   * request path must start with.
+   */
+  static final class URIKey {
+    private final String schemeAuthority;
+    private final String path;
+
+    private URIKey(String schemeAuthority, String path) {
+      this.schemeAuthority = schemeAuthority;
+      this.path = path;
     }
 
-    // scheme and path must be present in request URI
-    if (requestURI.getScheme() == null || requestURI.getPath() == null) {
-      LOGGER.warn("Request URI " + request + " is not valid. Missing scheme or path.");
-      return false;
+    String getSchemeAuthority() {
+      return schemeAuthority;
     }
 
-    // schemes in privilege and request URIs must be equal
-    if (privilegeURI.getScheme() != null && !privilegeURI.getScheme().equals(requestURI.getScheme())) {
-      return false;
+    String getPath() {
+      return path;
     }
 
-    // request path does not contain relative parts /a/../b &&
-    // request path starts with privilege path &&
-    // authorities (nullable) are equal
-    String requestPath = ensureEndsWithSeparator(requestURI.getPath()).replace("//", "/");
-    String privilegePath = ensureEndsWithSeparator(privilegeURI.getPath()).replace("//", "/");
-    if (requestURI.getPath().equals(requestURI.normalize().getPath())
-        && requestPath.startsWith(privilegePath)
-        && Strings.nullToEmpty(privilegeURI.getAuthority()).equals(
-            Strings.nullToEmpty(requestURI.getAuthority()))) {
-          return true;
+    boolean implies(URIKey request) {
+      return schemeAuthority.equals(request.schemeAuthority) && request.path.startsWith(path);
     }
-    return false;
+  }
+
+  /**
+   * Get the key impliesURI compares the URI with, or null if the URI can neither imply
+   * nor be implied. A request URI also must not contain relative parts like /a/../b.
+   */
+  static URIKey getURIKey(String uriName, boolean request) throws IOException {
+    String kind = request ? "Request" : "Privilege";
+    // build the URI, add default scheme and/or authority if missing
+    URI uri = makeFullQualifiedURI(uriName);
+    if (uri == null) {
+      LOGGER.warn(kind + " URI " + uriName + " is not valid. Path is not absolute.");
+      return null;
+    }
+
+    // scheme and path must be present
+    if (uri.getScheme() == null || uri.getPath() == null) {
+      LOGGER.warn(kind + " URI " + uriName + " is not valid. Missing scheme or path.");
+      return null;
+    }
+
+    if (request && !uri.getPath().equals(uri.normalize().getPath())) {
+      return null;
+    }
+
+    // authorities (nullable) are compared as strings
+    return new URIKey(uri.getScheme() + AUTHORITY_PREFIX + Strings.nullToEmpty(uri.getAuthority()),
+        ensureEndsWithSeparator(uri.getPath()).replace("//", "/"));
   }
 
   /**
@@ -142,7 +162,14 @@ public class PathUtils {
   }
 
   public static boolean impliesURI(String privilege, String request) {
-    return _impliesURI(new StrSubstitutor(System.getProperties()).replace(privilege), request);
+    return _impliesURI(substituteProperties(privilege), request);
+  }
+
+  /**
+   * Replace the ${property} references in a privilege URI by the system properties.
+   */
+  static String substituteProperties(String privilege) {
+    return new StrSubstitutor(System.getProperties()).replace(privilege);
   }
 
   /**
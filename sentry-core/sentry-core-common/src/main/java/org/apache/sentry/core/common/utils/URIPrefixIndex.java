@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.core.common.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of values, such as privileges, by the URI they grant. Each URI is qualified
+ * once when it is added and kept by scheme and authority under its path, so finding
+ * the values whose URI implies a request URI takes one lookup per directory level of
+ * the request instead of one PathUtils.impliesURI call per value. The implication
+ * is the one of PathUtils.impliesURI(String, String). The index must not be
+ * modified while it is read.
+ */
+public class URIPrefixIndex<T> {
+
+  // <scheme://authority, <privilege path ending with a separator, values>>
+  private final Map<String, Map<String, List<T>>> prefixes =
+      new HashMap<String, Map<String, List<T>>>();
+
+  /**
+   * Add a value granted on the given privilege URI.
+   * @return false if the URI can't be qualified, the value is not added then and the
+   *         caller has to compare it by itself
+   */
+  public boolean add(String privilegeURI, T value) {
+    PathUtils.URIKey key;
+    try {
+      key = PathUtils.getURIKey(PathUtils.substituteProperties(privilegeURI), false);
+    } catch (IOException e) {
+      key = null;
+    } catch (IllegalArgumentException e) {
+      key = null;
+    }
+    if (key == null) {
+      return false;
+    }
+    Map<String, List<T>> paths = prefixes.get(key.getSchemeAuthority());
+    if (paths == null) {
+      paths = new HashMap<String, List<T>>();
+      prefixes.put(key.getSchemeAuthority(), paths);
+    }
+    getList(paths, key.getPath()).add(value);
+    return true;
+  }
+
+  /**
+   * Get the values whose URI implies the request URI, the values of the longest
+   * privilege path first.
+   */
+  public Set<T> getImplying(String requestURI) {
+    Set<T> values = new LinkedHashSet<T>();
+    PathUtils.URIKey key;
+    try {
+      key = PathUtils.getURIKey(requestURI, true);
+    } catch (IOException e) {
+      key = null;
+    }
+    if (key == null) {
+      return values;
+    }
+    Map<String, List<T>> paths = prefixes.get(key.getSchemeAuthority());
+    if (paths == null) {
+      return values;
+    }
+    // the privilege path ends with a separator, so it can only be a prefix of the
+    // request path which ends at one of the separators of the request path
+    String path = key.getPath();
+    for (int end = path.length(); end > 0;
+        end = path.lastIndexOf(File.separatorChar, end - 2) + 1) {
+      addAll(values, paths.get(path.substring(0, end)));
+    }
+    return values;
+  }
+
+  public boolean isEmpty() {
+    return prefixes.isEmpty();
+  }
+
+  private static <T> List<T> getList(Map<String, List<T>> map, String key) {
+    List<T> list = map.get(key);
+    if (list == null) {
+      list = new ArrayList<T>();
+      map.put(key, list);
+    }
+    return list;
+  }
+
+  private static <T> void addAll(Set<T> values, List<T> list) {
+    if (list != null) {
+      values.addAll(list);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.core.common.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestURIPrefixIndex {
+
+  private static final List<String> PRIVILEGES = Arrays.asList(
+      "/tmp",
+      "file:/tmp/a",
+      "file://testauth/tmp",
+      "hdfs://namenode:8020/user/hive",
+      "hdfs://namenode:8020/user/hive/warehouse/db1.db",
+      "hdfs://namenode:8020/user//alice",
+      "https:/tmp",
+      "file://testauth/tmp/x/..");
+
+  private static final List<String> REQUESTS = Arrays.asList(
+      "/tmp/a",
+      "/tmp",
+      "/tmpdata",
+      "file:/tmp/a/b",
+      "file://testauth/tmp/a",
+      "file://testauth/tmp/x/../x",
+      "https:/tmp/a",
+      "hdfs://namenode:8020/user/hive/warehouse/db1.db/t1",
+      "hdfs://namenode:8020/user/hive",
+      "hdfs://namenode:8020/user/hivedata",
+      "hdfs://namenode:8020/user/alice/x",
+      "hdfs://othernode:8020/user/hive/x",
+      "/");
+
+  @Test
+  public void testSameAsImpliesURI() {
+    URIPrefixIndex<String> index = new URIPrefixIndex<String>();
+    for (String privilege : PRIVILEGES) {
+      index.add(privilege, privilege);
+    }
+    for (String request : REQUESTS) {
+      Set<String> implying = index.getImplying(request);
+      for (String privilege : PRIVILEGES) {
+        assertEquals(privilege + " implies " + request,
+            PathUtils.impliesURI(privilege, request), implying.contains(privilege));
+      }
+    }
+  }
+
+  @Test
+  public void testLongestPrefixFirst() {
+    URIPrefixIndex<String> index = new URIPrefixIndex<String>();
+    index.add("hdfs://namenode:8020/user", "user");
+    index.add("hdfs://namenode:8020/user/hive/warehouse", "warehouse");
+    index.add("hdfs://namenode:8020/user/hive", "hive");
+    assertEquals(Arrays.asList("warehouse", "hive", "user"), Arrays.asList(index.getImplying(
+        "hdfs://namenode:8020/user/hive/warehouse/t1").toArray()));
+  }
+
+  @Test
+  public void testNotIndexed() {
+    URIPrefixIndex<String> index = new URIPrefixIndex<String>();
+    assertTrue(index.isEmpty());
+    assertFalse(index.add("tmp/relative", "relative"));
+    assertFalse(index.add("file:///tmp/x/../y", "relative"));
+    assertTrue(index.isEmpty());
+    assertTrue(index.getImplying("file:///tmp/x").isEmpty());
+  }
+
+  @Test
+  public void testPropertySubstitution() {
+    System.setProperty("sentry.test.uri.root", "/tmp/root");
+    try {
+      URIPrefixIndex<String> index = new URIPrefixIndex<String>();
+      assertTrue(index.add("file://${sentry.test.uri.root}/a", "a"));
+      assertTrue(index.getImplying("file:///tmp/root/a/b").contains("a"));
+      assertTrue(PathUtils.impliesURI("file://${sentry.test.uri.root}/a", "file:///tmp/root/a/b"));
+    } finally {
+      System.clearProperty("sentry.test.uri.root");
+    }
+  }
+}
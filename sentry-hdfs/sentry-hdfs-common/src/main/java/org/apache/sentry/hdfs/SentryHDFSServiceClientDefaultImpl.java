@@ -41,6 +41,7 @@ import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TCompactProtocol;
 import org.apache.thrift.protocol.TMultiplexedProtocol;
 import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TFramedTransport;
 import org.apache.thrift.transport.TSaslClientTransport;
 import org.apache.thrift.transport.TSocket;
 import org.apache.thrift.transport.TTransport;
@@ -126,6 +127,8 @@ public class SentryHDFSServiceClientDefaultImpl implements SentryHDFSServiceClie
                                          ClientConfig.SERVER_RPC_CONN_TIMEOUT_DEFAULT);
     kerberos = ClientConfig.SECURITY_MODE_KERBEROS.equalsIgnoreCase(
         conf.get(ClientConfig.SECURITY_MODE, ClientConfig.SECURITY_MODE_KERBEROS).trim());
+    long maxMessageSize = conf.getLong(ServiceConstants.ClientConfig.SENTRY_HDFS_THRIFT_MAX_MESSAGE_SIZE,
+        ServiceConstants.ClientConfig.SENTRY_HDFS_THRIFT_MAX_MESSAGE_SIZE_DEFAULT);
     transport = new TSocket(serverAddress.getHostName(),
         serverAddress.getPort(), connectionTimeout);
     if (kerberos) {
@@ -146,6 +149,11 @@ public class SentryHDFSServiceClientDefaultImpl implements SentryHDFSServiceClie
           ClientConfig.SASL_PROPERTIES, null, transport, wrapUgi);
     } else {
       serverPrincipalParts = null;
+      if (conf.getBoolean(ClientConfig.SERVER_RPC_FRAMED_TRANSPORT,
+          ClientConfig.SERVER_RPC_FRAMED_TRANSPORT_DEFAULT)) {
+        transport = new TFramedTransport(transport,
+            (int) Math.min(maxMessageSize, Integer.MAX_VALUE));
+      }
     }
     try {
       transport.open();
@@ -154,8 +162,6 @@ public class SentryHDFSServiceClientDefaultImpl implements SentryHDFSServiceClie
     }
     LOGGER.info("Successfully opened transport: " + transport + " to " + serverAddress);
     TProtocol tProtocol = null;
-    long maxMessageSize = conf.getLong(ServiceConstants.ClientConfig.SENTRY_HDFS_THRIFT_MAX_MESSAGE_SIZE,
-        ServiceConstants.ClientConfig.SENTRY_HDFS_THRIFT_MAX_MESSAGE_SIZE_DEFAULT);
     if (conf.getBoolean(ClientConfig.USE_COMPACT_TRANSPORT,
         ClientConfig.USE_COMPACT_TRANSPORT_DEFAULT)) {
       tProtocol = new TCompactProtocol(transport, maxMessageSize, maxMessageSize);
@@ -22,13 +22,17 @@ import static org.apache.sentry.core.common.utils.SentryConstants.KV_JOINER;
 import static org.apache.sentry.core.common.utils.SentryConstants.PRIVILEGE_NAME;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import org.apache.sentry.core.common.Action;
 import org.apache.sentry.core.common.ActiveRoleSet;
 import org.apache.sentry.core.common.Authorizable;
+import org.apache.sentry.core.common.ImplyMethodType;
 import org.apache.sentry.core.common.Model;
 import org.apache.sentry.core.common.exception.SentryConfigurationException;
 import org.apache.sentry.core.common.Subject;
@@ -41,10 +45,14 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 public abstract class ResourceAuthorizationProvider implements AuthorizationProvider {
   private static final Logger LOGGER = LoggerFactory
@@ -57,10 +65,16 @@ public abstract class ResourceAuthorizationProvider implements AuthorizationProv
         }
       };
 
+  // number of subjects whose URI privilege index is kept
+  private static final int URI_INDEX_CACHE_SIZE = 64;
+
   private final GroupMappingService groupService;
   private final PolicyEngine policy;
   private final PrivilegeFactory privilegeFactory;
   private final Model model;
+  // <[uri position, uri type, privileges], index of the privileges>
+  private final Cache<List<Object>, URIPrivilegeIndex> uriIndexes = CacheBuilder.newBuilder()
+      .maximumSize(URI_INDEX_CACHE_SIZE).build();
 
   public ResourceAuthorizationProvider(PolicyEngine policy,
       GroupMappingService groupService, Model model) {
@@ -105,8 +119,19 @@ public abstract class ResourceAuthorizationProvider implements AuthorizationProv
       hierarchy.add(KV_JOINER.join(authorizable.getTypeName(), authorizable.getName()));
     }
     List<String> requestPrivileges = buildPermissions(authorizables, actions);
-    Iterable<Privilege> privileges = getPrivileges(groups, users, roleSet,
-        authorizables.toArray(new Authorizable[0]));
+    Authorizable[] authorizableArray = authorizables.toArray(new Authorizable[0]);
+    ImmutableSet<String> privilegeStrs = appendDefaultDBPriv(
+        policy.getPrivileges(groups, users, roleSet, authorizableArray), authorizableArray);
+    Iterable<Privilege> privileges;
+    int uriPosition = getURIPosition(authorizables);
+    if (uriPosition >= 0) {
+      // only the privileges on a prefix of the URI need to be compared
+      Authorizable uri = authorizables.get(uriPosition);
+      privileges = getURIPrivilegeIndex(privilegeStrs, uriPosition, uri.getTypeName())
+          .getCandidates(uri.getName());
+    } else {
+      privileges = toPrivileges(privilegeStrs);
+    }
     lastFailedPrivileges.get().clear();
 
     for (String requestPrivilege : requestPrivileges) {
@@ -130,10 +155,44 @@ public abstract class ResourceAuthorizationProvider implements AuthorizationProv
     return false;
   }
 
-  private Iterable<Privilege> getPrivileges(Set<String> groups, Set<String> users,
-      ActiveRoleSet roleSet, Authorizable[] authorizables) {
-    ImmutableSet<String> privileges = policy.getPrivileges(groups, users, roleSet, authorizables);
-    return Iterables.transform(appendDefaultDBPriv(privileges, authorizables),
+  /**
+   * Get the position of the authorizable compared as a URI by the model, or -1 if the
+   * request has none or is on all URIs.
+   */
+  private int getURIPosition(List<? extends Authorizable> authorizables) {
+    if (model == null || model.getImplyMethodMap() == null) {
+      return -1;
+    }
+    for (int i = 0; i < authorizables.size(); i++) {
+      Authorizable authorizable = authorizables.get(i);
+      if (ImplyMethodType.URL == model.getImplyMethodMap().get(
+          authorizable.getTypeName().toLowerCase())) {
+        return URIPrivilegeIndex.isWildcard(authorizable.getName()) ? -1 : i;
+      }
+    }
+    return -1;
+  }
+
+  private URIPrivilegeIndex getURIPrivilegeIndex(final ImmutableSet<String> privilegeStrs,
+      final int uriPosition, final String uriTypeName) {
+    List<Object> key = Arrays.<Object>asList(uriPosition, uriTypeName.toLowerCase(),
+        privilegeStrs);
+    try {
+      return uriIndexes.get(key, new Callable<URIPrivilegeIndex>() {
+        @Override
+        public URIPrivilegeIndex call() {
+          return new URIPrivilegeIndex(toPrivileges(privilegeStrs), uriPosition, uriTypeName);
+        }
+      });
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    } catch (UncheckedExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  private Iterable<Privilege> toPrivileges(Set<String> privileges) {
+    return Iterables.transform(privileges,
         new Function<String, Privilege>() {
       @Override
       public Privilege apply(String privilege) {
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.provider.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.sentry.core.common.utils.KeyValue;
+import org.apache.sentry.core.common.utils.SentryConstants;
+import org.apache.sentry.core.common.utils.URIPrefixIndex;
+import org.apache.sentry.policy.common.CommonPrivilege;
+import org.apache.sentry.policy.common.Privilege;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * The privileges of a subject arranged for requests on a URI authorizable at a given
+ * position of the hierarchy. Privileges naming a URI at that position are indexed by
+ * their URI, privileges naming another authorizable type there can never imply the
+ * request and are left out, the rest is kept as is. The candidates for a request are
+ * still checked with Privilege.implies.
+ */
+class URIPrivilegeIndex {
+
+  private final URIPrefixIndex<Privilege> uriPrivileges = new URIPrefixIndex<Privilege>();
+  private final List<Privilege> otherPrivileges = new ArrayList<Privilege>();
+
+  URIPrivilegeIndex(Iterable<Privilege> privileges, int uriPosition, String uriTypeName) {
+    for (Privilege privilege : privileges) {
+      if (!(privilege instanceof CommonPrivilege)) {
+        otherPrivileges.add(privilege);
+        continue;
+      }
+      List<KeyValue> parts = ((CommonPrivilege) privilege).getParts();
+      if (!isAligned(parts, uriPosition)) {
+        otherPrivileges.add(privilege);
+        continue;
+      }
+      KeyValue part = parts.get(uriPosition);
+      if (SentryConstants.PRIVILEGE_NAME.equalsIgnoreCase(part.getKey())) {
+        otherPrivileges.add(privilege);
+      } else if (part.getKey().equalsIgnoreCase(uriTypeName)) {
+        if (isWildcard(part.getValue()) || !uriPrivileges.add(part.getValue(), privilege)) {
+          otherPrivileges.add(privilege);
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the privileges which may imply a request on the given URI.
+   */
+  Iterable<Privilege> getCandidates(String requestURI) {
+    return Iterables.concat(uriPrivileges.getImplying(requestURI), otherPrivileges);
+  }
+
+  static boolean isWildcard(String value) {
+    return SentryConstants.RESOURCE_WILDCARD_VALUE.equals(value)
+        || SentryConstants.RESOURCE_WILDCARD_VALUE_ALL.equalsIgnoreCase(value)
+        || SentryConstants.RESOURCE_WILDCARD_VALUE_SOME.equals(value);
+  }
+
+  /**
+   * Check whether the part at the URI position is compared with the URI of the
+   * request, which holds unless an action part comes before it.
+   */
+  private static boolean isAligned(List<KeyValue> parts, int uriPosition) {
+    if (parts.size() <= uriPosition) {
+      return false;
+    }
+    for (int i = 0; i < uriPosition; i++) {
+      if (SentryConstants.PRIVILEGE_NAME.equalsIgnoreCase(parts.get(i).getKey())) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,388 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.provider.common;
+
+import static org.apache.sentry.core.common.utils.SentryConstants.AUTHORIZABLE_JOINER;
+import static org.apache.sentry.core.common.utils.SentryConstants.KV_JOINER;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.sentry.core.common.Action;
+import org.apache.sentry.core.common.ActiveRoleSet;
+import org.apache.sentry.core.common.Authorizable;
+import org.apache.sentry.core.common.BitFieldAction;
+import org.apache.sentry.core.common.BitFieldActionFactory;
+import org.apache.sentry.core.common.ImplyMethodType;
+import org.apache.sentry.core.common.Model;
+import org.apache.sentry.core.common.Subject;
+import org.apache.sentry.core.common.service.GroupMappingService;
+import org.apache.sentry.core.common.utils.KeyValue;
+import org.apache.sentry.policy.common.CommonPrivilege;
+import org.apache.sentry.policy.common.PolicyEngine;
+import org.apache.sentry.policy.common.Privilege;
+import org.apache.sentry.policy.common.PrivilegeFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Tests the URI privilege index, and that ResourceAuthorizationProvider decides the
+ * same with it as when every privilege of the subject is checked.
+ */
+public class TestURIPrivilegeIndex {
+
+  private static final Model MODEL = new TestModel();
+  private static final Subject SUBJECT = new Subject("user1");
+
+  private static final List<String> PRIVILEGES = Arrays.asList(
+      "server=server1",
+      "server=server2->action=all",
+      "server=server1->uri=hdfs://nn/data/a->action=select",
+      "server=server1->uri=hdfs://nn/data/b->action=all",
+      "server=server1->uri=hdfs://nn/data/f/->action=insert",
+      "server=server1->uri=file:///tmp/x->action=*",
+      "server=server1->uri=*->action=insert",
+      "server=server1->uri=all->action=select",
+      "server=server1->db=db1->action=all",
+      "server=server1->action=insert",
+      "uri=hdfs://nn/data/c->action=all",
+      "action=all->server=server1->uri=hdfs://nn/data/e",
+      "URI=hdfs://nn/data/g");
+
+  private static final List<String> REQUEST_URIS = Arrays.asList(
+      "hdfs://nn/data/a", "hdfs://nn/data/a/sub", "hdfs://nn/data/ab", "hdfs://nn/data/b/x",
+      "hdfs://nn/data/c", "hdfs://nn/data/e/x", "hdfs://nn/data/f", "hdfs://nn/data/f/y",
+      "hdfs://nn/data/g/z", "hdfs://nn/other", "file:///tmp/x/y", "file:///tmp/xy", "*");
+
+  private static final List<Set<TestAction>> REQUEST_ACTIONS = Arrays.asList(
+      Collections.singleton(TestAction.SELECT), Collections.singleton(TestAction.INSERT),
+      Collections.singleton(TestAction.ALL),
+      (Set<TestAction>) Sets.newHashSet(TestAction.SELECT, TestAction.INSERT));
+
+  private TestPolicyEngine policy;
+  private ResourceAuthorizationProvider provider;
+
+  @Before
+  public void setup() {
+    policy = new TestPolicyEngine();
+    provider = new ResourceAuthorizationProvider(policy, new GroupMappingService() {
+      @Override
+      public Set<String> getGroups(String user) {
+        return Collections.emptySet();
+      }
+    }, MODEL) {
+    };
+  }
+
+  @Test
+  public void testCandidates() {
+    Privilege other = new Privilege() {
+      @Override
+      public boolean implies(Privilege p, Model model) {
+        return false;
+      }
+
+      @Override
+      public List<KeyValue> getAuthorizable() {
+        return Collections.emptyList();
+      }
+    };
+    List<Privilege> privileges = Lists.newArrayList(toPrivileges(PRIVILEGES));
+    privileges.add(other);
+    URIPrivilegeIndex index = new URIPrivilegeIndex(privileges, 1, "uri");
+
+    Set<Privilege> candidates = Sets.newHashSet(index.getCandidates("hdfs://nn/data/a/sub"));
+    Set<Privilege> expected = Sets.newHashSet(toPrivileges(Arrays.asList(
+        // too short to hold a URI
+        "server=server1",
+        "URI=hdfs://nn/data/g",
+        // an action at the URI position is inherited by the URI
+        "server=server2->action=all",
+        "server=server1->action=insert",
+        // indexed and on a prefix of the request
+        "server=server1->uri=hdfs://nn/data/a->action=select",
+        // wildcards imply every URI
+        "server=server1->uri=*->action=insert",
+        "server=server1->uri=all->action=select",
+        // not compared at the URI position
+        "uri=hdfs://nn/data/c->action=all",
+        "action=all->server=server1->uri=hdfs://nn/data/e")));
+    expected.add(other);
+    // the other URIs, and the db which is never compared with a URI, are left out
+    Assert.assertEquals(expected, candidates);
+
+    Assert.assertFalse(Sets.newHashSet(index.getCandidates("hdfs://nn/data/ab")).contains(
+        new CommonPrivilege("server=server1->uri=hdfs://nn/data/a->action=select")));
+
+    // at the first position, the type of the URI part is compared ignoring the case
+    URIPrivilegeIndex firstIndex = new URIPrivilegeIndex(privileges, 0, "uri");
+    Set<Privilege> firstCandidates = Sets.newHashSet(
+        firstIndex.getCandidates("hdfs://nn/data/g/z"));
+    Assert.assertTrue(firstCandidates.contains(new CommonPrivilege("URI=hdfs://nn/data/g")));
+    Assert.assertFalse(firstCandidates.contains(new CommonPrivilege("server=server1")));
+    Assert.assertFalse(firstCandidates.contains(
+        new CommonPrivilege("uri=hdfs://nn/data/c->action=all")));
+    Assert.assertTrue(firstCandidates.contains(
+        new CommonPrivilege("action=all->server=server1->uri=hdfs://nn/data/e")));
+  }
+
+  @Test
+  public void testWildcard() {
+    Assert.assertTrue(URIPrivilegeIndex.isWildcard("*"));
+    Assert.assertTrue(URIPrivilegeIndex.isWildcard("ALL"));
+    Assert.assertTrue(URIPrivilegeIndex.isWildcard("+"));
+    Assert.assertFalse(URIPrivilegeIndex.isWildcard("hdfs://nn/data"));
+  }
+
+  /**
+   * Every request on a URI is decided as by checking all the privileges, for each
+   * privilege alone and for all of them together.
+   */
+  @Test
+  public void testHasAccessMatchesAllPrivileges() {
+    int allowed = 0;
+    int denied = 0;
+    List<List<String>> privilegeSets = new ArrayList<List<String>>();
+    for (String privilege : PRIVILEGES) {
+      privilegeSets.add(Collections.singletonList(privilege));
+    }
+    privilegeSets.add(PRIVILEGES);
+
+    for (List<String> privileges : privilegeSets) {
+      policy.privileges = ImmutableSet.copyOf(privileges);
+      for (String uri : REQUEST_URIS) {
+        for (List<Authorizable> request : requests(uri)) {
+          for (Set<TestAction> actions : REQUEST_ACTIONS) {
+            boolean expected = impliedByAny(privileges, request, actions);
+            Assert.assertEquals(privileges + " " + request + " " + actions, expected,
+                provider.hasAccess(SUBJECT, request, actions, ActiveRoleSet.ALL));
+            if (expected) {
+              allowed++;
+            } else {
+              denied++;
+            }
+          }
+        }
+      }
+    }
+    Assert.assertTrue(allowed > 0);
+    Assert.assertTrue(denied > 0);
+  }
+
+  /**
+   * The index is cached for the privileges of the subject, a change of the privileges
+   * must not reuse the index built for the previous ones.
+   */
+  @Test
+  public void testIndexFollowsPrivilegeChanges() {
+    List<Authorizable> request = Arrays.asList(
+        new TestAuthorizable("server", "server1"), new TestAuthorizable("uri", "hdfs://nn/data/a/x"));
+    Set<TestAction> select = Collections.singleton(TestAction.SELECT);
+
+    policy.privileges = ImmutableSet.of("server=server1->uri=hdfs://nn/data/a->action=select");
+    Assert.assertTrue(provider.hasAccess(SUBJECT, request, select, ActiveRoleSet.ALL));
+    policy.privileges = ImmutableSet.of("server=server1->uri=hdfs://nn/data/b->action=select");
+    Assert.assertFalse(provider.hasAccess(SUBJECT, request, select, ActiveRoleSet.ALL));
+    policy.privileges = ImmutableSet.of("server=server1->uri=hdfs://nn/data/a->action=select");
+    Assert.assertTrue(provider.hasAccess(SUBJECT, request, select, ActiveRoleSet.ALL));
+
+    // same privileges, but the URI at another position of the request
+    List<Authorizable> uriOnly = Collections.<Authorizable>singletonList(
+        new TestAuthorizable("uri", "hdfs://nn/data/a/x"));
+    Assert.assertFalse(provider.hasAccess(SUBJECT, uriOnly, select, ActiveRoleSet.ALL));
+    policy.privileges = ImmutableSet.of("uri=hdfs://nn/data/a->action=select");
+    Assert.assertTrue(provider.hasAccess(SUBJECT, uriOnly, select, ActiveRoleSet.ALL));
+    Assert.assertFalse(provider.hasAccess(SUBJECT, request, select, ActiveRoleSet.ALL));
+  }
+
+  private static List<List<Authorizable>> requests(String uri) {
+    List<List<Authorizable>> requests = new ArrayList<List<Authorizable>>();
+    requests.add(Arrays.<Authorizable>asList(
+        new TestAuthorizable("server", "server1"), new TestAuthorizable("uri", uri)));
+    requests.add(Arrays.<Authorizable>asList(
+        new TestAuthorizable("server", "server2"), new TestAuthorizable("uri", uri)));
+    requests.add(Arrays.<Authorizable>asList(
+        new TestAuthorizable("Server", "server1"), new TestAuthorizable("URI", uri)));
+    requests.add(Collections.<Authorizable>singletonList(new TestAuthorizable("uri", uri)));
+    return requests;
+  }
+
+  /**
+   * The decision without the index, every privilege is checked.
+   */
+  private static boolean impliedByAny(List<String> privileges, List<Authorizable> request,
+      Set<TestAction> actions) {
+    List<String> hierarchy = new ArrayList<String>();
+    for (Authorizable authorizable : request) {
+      hierarchy.add(KV_JOINER.join(authorizable.getTypeName(), authorizable.getName()));
+    }
+    for (TestAction action : actions) {
+      Privilege requestPrivilege = new CommonPrivilege(
+          AUTHORIZABLE_JOINER.join(hierarchy) + "->action=" + action.getValue());
+      for (Privilege privilege : toPrivileges(privileges)) {
+        if (privilege.implies(requestPrivilege, MODEL)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static List<Privilege> toPrivileges(List<String> privileges) {
+    List<Privilege> result = new ArrayList<Privilege>();
+    for (String privilege : privileges) {
+      result.add(new CommonPrivilege(privilege));
+    }
+    return result;
+  }
+
+  private static class TestPolicyEngine implements PolicyEngine {
+    private volatile ImmutableSet<String> privileges = ImmutableSet.of();
+
+    @Override
+    public PrivilegeFactory getPrivilegeFactory() {
+      return new PrivilegeFactory() {
+        @Override
+        public Privilege createPrivilege(String permission) {
+          return new CommonPrivilege(permission);
+        }
+      };
+    }
+
+    @Override
+    public ImmutableSet<String> getAllPrivileges(Set<String> groups, ActiveRoleSet roleSet) {
+      return privileges;
+    }
+
+    @Override
+    public ImmutableSet<String> getAllPrivileges(Set<String> groups, Set<String> users,
+        ActiveRoleSet roleSet) {
+      return privileges;
+    }
+
+    @Override
+    public ImmutableSet<String> getPrivileges(Set<String> groups, ActiveRoleSet roleSet,
+        Authorizable... authorizableHierarchy) {
+      return privileges;
+    }
+
+    @Override
+    public ImmutableSet<String> getPrivileges(Set<String> groups, Set<String> users,
+        ActiveRoleSet roleSet, Authorizable... authorizableHierarchy) {
+      return privileges;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void validatePolicy(boolean strictValidation) {
+    }
+  }
+
+  private static class TestAuthorizable implements Authorizable {
+    private final String typeName;
+    private final String name;
+
+    TestAuthorizable(String typeName, String name) {
+      this.typeName = typeName;
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public String getTypeName() {
+      return typeName;
+    }
+
+    @Override
+    public String toString() {
+      return typeName + "=" + name;
+    }
+  }
+
+  private enum TestAction implements Action {
+    SELECT("select", 1),
+    INSERT("insert", 2),
+    ALL("all", 3),
+    ALL_STAR("*", 3);
+
+    private final String name;
+    private final int code;
+
+    TestAction(String name, int code) {
+      this.name = name;
+      this.code = code;
+    }
+
+    @Override
+    public String getValue() {
+      return name;
+    }
+  }
+
+  private static class TestModel implements Model {
+    private final Map<String, ImplyMethodType> implyMethodMap =
+        new HashMap<String, ImplyMethodType>();
+
+    TestModel() {
+      implyMethodMap.put("server", ImplyMethodType.STRING);
+      implyMethodMap.put("db", ImplyMethodType.STRING);
+      implyMethodMap.put("uri", ImplyMethodType.URL);
+    }
+
+    @Override
+    public Map<String, ImplyMethodType> getImplyMethodMap() {
+      return implyMethodMap;
+    }
+
+    @Override
+    public BitFieldActionFactory getBitFieldActionFactory() {
+      return new BitFieldActionFactory() {
+        @Override
+        public List<? extends BitFieldAction> getActionsByCode(int actionCode) {
+          return null;
+        }
+
+        @Override
+        public BitFieldAction getActionByName(String name) {
+          for (TestAction action : TestAction.values()) {
+            if (action.name.equalsIgnoreCase(name)) {
+              return new BitFieldAction(action.name, action.code);
+            }
+          }
+          return null;
+        }
+      };
+    }
+  }
+}
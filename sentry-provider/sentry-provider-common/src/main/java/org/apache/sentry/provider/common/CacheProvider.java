@@ -31,6 +31,15 @@ public class CacheProvider {
     this.initialized = true;
   }
 
+  /**
+   * Get the current contents of the cache, or null if the provider is not initialized.
+   * A reload of the cache replaces the snapshot, so comparing snapshots by identity
+   * tells whether something derived from the cache is still current.
+   */
+  public Object getCacheSnapshot() {
+    return initialized ? cache.getCache() : null;
+  }
+
   public ImmutableSet<String> getPrivileges(Set<String> groups, ActiveRoleSet roleSet,
                                             Authorizable... authorizableHierarchy) {
     if (!initialized) {
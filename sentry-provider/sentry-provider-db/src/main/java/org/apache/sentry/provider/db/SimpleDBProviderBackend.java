@@ -40,6 +40,9 @@ public class SimpleDBProviderBackend implements ProviderBackend {
   private Configuration conf;
   private int retryCount;
   private int retryIntervalSec;
+  // a fixed pool client keeps its connections open across calls and is shared
+  private final boolean sharedClient;
+  private SentryPolicyServiceClient policyServiceClient;
 
   public SimpleDBProviderBackend(Configuration conf, String resourcePath) throws Exception { //NOPMD
     // DB Provider doesn't use policy file path
@@ -50,6 +53,20 @@ public class SimpleDBProviderBackend implements ProviderBackend {
     this.conf = conf;
     this.retryCount = conf.getInt(ServiceConstants.ClientConfig.RETRY_COUNT_CONF, ServiceConstants.ClientConfig.RETRY_COUNT_DEFAULT);
     this.retryIntervalSec = conf.getInt(ServiceConstants.ClientConfig.RETRY_INTERVAL_SEC_CONF, ServiceConstants.ClientConfig.RETRY_INTERVAL_SEC_DEFAULT);
+    this.sharedClient = conf.getBoolean(ServiceConstants.ClientConfig.SENTRY_FIXED_POOL_ENABLED,
+        ServiceConstants.ClientConfig.SENTRY_FIXED_POOL_ENABLED_DEFAULT);
+  }
+
+  private SentryPolicyServiceClient getClient() throws Exception {
+    if (!sharedClient) {
+      return SentryServiceClientFactory.create(conf);
+    }
+    synchronized (this) {
+      if (policyServiceClient == null) {
+        policyServiceClient = SentryServiceClientFactory.create(conf);
+      }
+      return policyServiceClient;
+    }
   }
   /**
    * {@inheritDoc}
@@ -77,10 +94,10 @@ public class SimpleDBProviderBackend implements ProviderBackend {
     int retries = Math.max(retryCount + 1, 1); // if customer configs retryCount as Integer.MAX_VALUE, try only once
     while (retries > 0) {
       retries--;
-      SentryPolicyServiceClient policyServiceClient = null;
+      SentryPolicyServiceClient client = null;
       try {
-        policyServiceClient = SentryServiceClientFactory.create(conf);
-        return ImmutableSet.copyOf(policyServiceClient.listPrivilegesForProvider(groups, users,
+        client = getClient();
+        return ImmutableSet.copyOf(client.listPrivilegesForProvider(groups, users,
             roleSet, authorizableHierarchy));
       } catch (Exception e) {
         //TODO: differentiate transient errors and permanent errors
@@ -98,8 +115,8 @@ public class SimpleDBProviderBackend implements ProviderBackend {
           }
         }
       } finally {
-        if(policyServiceClient != null) {
-          policyServiceClient.close();
+        if(client != null && !sharedClient) {
+          client.close();
         }
       }
     }
@@ -116,8 +133,11 @@ public class SimpleDBProviderBackend implements ProviderBackend {
   }
 
   @Override
-  public void close() {
-    //Noop
+  public synchronized void close() {
+    if (policyServiceClient != null) {
+      policyServiceClient.close();
+      policyServiceClient = null;
+    }
   }
 
   /**
@@ -97,6 +97,30 @@ public interface SentryGenericServiceClient {
   void revokePrivilege(String requestorUserName, String roleName,
       String component, TSentryPrivilege privilege) throws SentryUserException;
 
+  /**
+   * grant privileges to a role in one request, none of them is granted if one fails.
+   * Servers which don't support it are sent one request per privilege instead.
+   * @param requestorUserName: user on whose behalf the request is issued
+   * @param roleName: Name of the role
+   * @param component: The request is issued to which component
+   * @param privileges
+   * @throws SentryUserException
+   */
+  void grantPrivileges(String requestorUserName, String roleName,
+      String component, Set<TSentryPrivilege> privileges) throws SentryUserException;
+
+  /**
+   * revoke privileges from a role in one request, none of them is revoked if one fails.
+   * Servers which don't support it are sent one request per privilege instead.
+   * @param requestorUserName: user on whose behalf the request is issued
+   * @param roleName: Name of the role
+   * @param component: The request is issued to which component
+   * @param privileges
+   * @throws SentryUserException
+   */
+  void revokePrivileges(String requestorUserName, String roleName,
+      String component, Set<TSentryPrivilege> privileges) throws SentryUserException;
+
   /**
    * drop privilege
    * @param requestorUserName: user on whose behalf the request is issued
@@ -182,6 +206,7 @@ public interface SentryGenericServiceClient {
    * @param requestorUserName: The requestor user name.
    * @param authorizablesSet: The set of authorize objects. One authorize object is represented
    *     as a string. e.g resourceType1=resourceName1->resourceType2=resourceName2->resourceType3=resourceName3.
+   *     The empty string stands for the service, it gets all the privileges of the service.
    * @param groups: The requested groups.
    * @param roleSet: The active roles set.
    *
@@ -40,9 +40,11 @@ import org.apache.sentry.service.thrift.ServiceConstants.ClientConfig;
 import org.apache.sentry.service.thrift.ServiceConstants.ServerConfig;
 import org.apache.sentry.service.thrift.Status;
 import org.apache.sentry.service.thrift.sentry_common_serviceConstants;
+import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TMultiplexedProtocol;
+import org.apache.thrift.transport.TFramedTransport;
 import org.apache.thrift.transport.TSaslClientTransport;
 import org.apache.thrift.transport.TSocket;
 import org.apache.thrift.transport.TTransport;
@@ -128,6 +130,8 @@ public class SentryGenericServiceClientDefaultImpl implements SentryGenericServi
                                          ClientConfig.SERVER_RPC_CONN_TIMEOUT_DEFAULT);
     kerberos = ServerConfig.SECURITY_MODE_KERBEROS.equalsIgnoreCase(
         conf.get(ServerConfig.SECURITY_MODE, ServerConfig.SECURITY_MODE_KERBEROS).trim());
+    long maxMessageSize = conf.getLong(ServiceConstants.ClientConfig.SENTRY_POLICY_CLIENT_THRIFT_MAX_MESSAGE_SIZE,
+        ServiceConstants.ClientConfig.SENTRY_POLICY_CLIENT_THRIFT_MAX_MESSAGE_SIZE_DEFAULT);
     transport = new TSocket(serverAddress.getHostName(),
         serverAddress.getPort(), connectionTimeout);
     if (kerberos) {
@@ -150,6 +154,11 @@ public class SentryGenericServiceClientDefaultImpl implements SentryGenericServi
           ClientConfig.SASL_PROPERTIES, null, transport, wrapUgi, conf);
     } else {
       serverPrincipalParts = null;
+      if (conf.getBoolean(ClientConfig.SERVER_RPC_FRAMED_TRANSPORT,
+          ClientConfig.SERVER_RPC_FRAMED_TRANSPORT_DEFAULT)) {
+        transport = new TFramedTransport(transport,
+            (int) Math.min(maxMessageSize, Integer.MAX_VALUE));
+      }
     }
     try {
       transport.open();
@@ -157,8 +166,6 @@ public class SentryGenericServiceClientDefaultImpl implements SentryGenericServi
       throw new IOException("Transport exception while opening transport: " + e.getMessage(), e);
     }
     LOGGER.debug("Successfully opened transport: " + transport + " to " + serverAddress);
-    long maxMessageSize = conf.getLong(ServiceConstants.ClientConfig.SENTRY_POLICY_CLIENT_THRIFT_MAX_MESSAGE_SIZE,
-        ServiceConstants.ClientConfig.SENTRY_POLICY_CLIENT_THRIFT_MAX_MESSAGE_SIZE_DEFAULT);
     TMultiplexedProtocol protocol = new TMultiplexedProtocol(
         new TBinaryProtocol(transport, maxMessageSize, maxMessageSize, true, true),
         ServiceConstants.SENTRY_GENERIC_SERVICE_NAME);
@@ -347,6 +354,70 @@ public class SentryGenericServiceClientDefaultImpl implements SentryGenericServi
     }
   }
 
+  /**
+   * grant privileges to a role in one request, or one request per privilege when
+   * the server doesn't support it
+   * @param requestorUserName: user on whose behalf the request is issued
+   * @param roleName: Name of the role
+   * @param component: The request is issued to which component
+   * @param privileges
+   * @throws SentryUserException
+   */
+  public void grantPrivileges(String requestorUserName, String roleName,
+      String component, Set<TSentryPrivilege> privileges) throws SentryUserException {
+    TAlterSentryRoleGrantPrivilegeRequest request = new TAlterSentryRoleGrantPrivilegeRequest();
+    request.setProtocol_version(sentry_common_serviceConstants.TSENTRY_SERVICE_V2);
+    request.setComponent(component);
+    request.setRoleName(roleName);
+    request.setRequestorUserName(requestorUserName);
+    request.setPrivileges(privileges);
+
+    try {
+      TAlterSentryRoleGrantPrivilegeResponse response = client.alter_sentry_role_grant_privilege(request);
+      Status.throwIfNotOk(response.getStatus());
+    } catch (TApplicationException e) {
+      // older servers require the single privilege of the request, they fail the
+      // validation of a batch request with a protocol error before changing anything
+      LOGGER.debug("Unable to grant the privileges at once, granting them one by one", e);
+      for (TSentryPrivilege privilege : privileges) {
+        grantPrivilege(requestorUserName, roleName, component, privilege);
+      }
+    } catch (TException e) {
+      throw new SentryUserException(THRIFT_EXCEPTION_MESSAGE, e);
+    }
+  }
+
+  /**
+   * revoke privileges from a role in one request, or one request per privilege when
+   * the server doesn't support it
+   * @param requestorUserName: user on whose behalf the request is issued
+   * @param roleName: Name of the role
+   * @param component: The request is issued to which component
+   * @param privileges
+   * @throws SentryUserException
+   */
+  public void revokePrivileges(String requestorUserName, String roleName,
+      String component, Set<TSentryPrivilege> privileges) throws SentryUserException {
+    TAlterSentryRoleRevokePrivilegeRequest request = new TAlterSentryRoleRevokePrivilegeRequest();
+    request.setProtocol_version(sentry_common_serviceConstants.TSENTRY_SERVICE_V2);
+    request.setComponent(component);
+    request.setRequestorUserName(requestorUserName);
+    request.setRoleName(roleName);
+    request.setPrivileges(privileges);
+
+    try {
+      TAlterSentryRoleRevokePrivilegeResponse response = client.alter_sentry_role_revoke_privilege(request);
+      Status.throwIfNotOk(response.getStatus());
+    } catch (TApplicationException e) {
+      LOGGER.debug("Unable to revoke the privileges at once, revoking them one by one", e);
+      for (TSentryPrivilege privilege : privileges) {
+        revokePrivilege(requestorUserName, roleName, component, privilege);
+      }
+    } catch (TException e) {
+      throw new SentryUserException(THRIFT_EXCEPTION_MESSAGE, e);
+    }
+  }
+
   /**
    * drop privilege
    * @param requestorUserName: user on whose behalf the request is issued
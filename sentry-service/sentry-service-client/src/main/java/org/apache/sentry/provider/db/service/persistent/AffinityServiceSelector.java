@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.provider.db.service.persistent;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.curator.x.discovery.ServiceInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/***
+ * AffinityServiceSelector picks the Sentry server for a routing key, such as the
+ * requestor of an RPC, so that the requests of a key keep going to the same server.
+ * Servers are ranked per key by rendezvous hashing: when a server joins or leaves,
+ * only the keys ranked first on that server move. A server takes at most loadFactor
+ * times its even share of the keys seen by this selector, further keys go to their
+ * next ranked server. The most recent maxKeys assignments are remembered.
+ */
+public class AffinityServiceSelector {
+  private static final Logger LOGGER = LoggerFactory
+      .getLogger(AffinityServiceSelector.class);
+
+  private final float loadFactor;
+  private final int maxKeys;
+  private final Map<String, String> assignments;
+  private final Map<String, Integer> loads = new HashMap<String, Integer>();
+  private Set<String> members = new HashSet<String>();
+
+  public AffinityServiceSelector(float loadFactor, final int maxKeys) {
+    this.loadFactor = Math.max(1.0f, loadFactor);
+    this.maxKeys = Math.max(1, maxKeys);
+    assignments = new LinkedHashMap<String, String>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+        if (size() > AffinityServiceSelector.this.maxKeys) {
+          decrementLoad(eldest.getValue());
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Select the server for the key among the given live servers, or null if there
+   * is none.
+   */
+  public synchronized ServiceInstance<Void> select(String key,
+      Collection<ServiceInstance<Void>> instances) {
+    if (instances == null || instances.isEmpty()) {
+      return null;
+    }
+    Map<String, ServiceInstance<Void>> byId = new HashMap<String, ServiceInstance<Void>>();
+    for (ServiceInstance<Void> instance : instances) {
+      byId.put(instance.getId(), instance);
+    }
+    if (!byId.keySet().equals(members)) {
+      // the assignments are recomputed, rendezvous hashing keeps most keys in place
+      LOGGER.info("Sentry servers changed from " + members + " to " + byId.keySet());
+      members = new HashSet<String>(byId.keySet());
+      assignments.clear();
+      loads.clear();
+    }
+
+    String id = assignments.get(key);
+    if (id == null) {
+      id = assign(key);
+    }
+    return byId.get(id);
+  }
+
+  private String assign(String key) {
+    int capacity = (int) Math.ceil(loadFactor * (assignments.size() + 1) / members.size());
+    String best = null;
+    long bestScore = 0;
+    String bestWithCapacity = null;
+    long bestWithCapacityScore = 0;
+    for (String member : members) {
+      long score = score(key, member);
+      if (best == null || score > bestScore) {
+        best = member;
+        bestScore = score;
+      }
+      if (getLoad(member) < capacity
+          && (bestWithCapacity == null || score > bestWithCapacityScore)) {
+        bestWithCapacity = member;
+        bestWithCapacityScore = score;
+      }
+    }
+    String chosen = bestWithCapacity != null ? bestWithCapacity : best;
+    assignments.put(key, chosen);
+    loads.put(chosen, getLoad(chosen) + 1);
+    return chosen;
+  }
+
+  private int getLoad(String member) {
+    Integer load = loads.get(member);
+    return load == null ? 0 : load;
+  }
+
+  private void decrementLoad(String member) {
+    int load = getLoad(member);
+    if (load > 1) {
+      loads.put(member, load - 1);
+    } else {
+      loads.remove(member);
+    }
+  }
+
+  // 64 bit mix of the key and the server, see the finalizer of MurmurHash3
+  private static long score(String key, String member) {
+    long h = key.hashCode() * 0x9E3779B97F4A7C15L + member.hashCode();
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  synchronized int getAssignedKeys() {
+    return assignments.size();
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.sentry.provider.db.service.persistent;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.Collection;
 
 import org.apache.curator.x.discovery.ServiceDiscovery;
 import org.apache.curator.x.discovery.ServiceDiscoveryBuilder;
@@ -77,6 +78,18 @@ public class ServiceManager {
     }
   }
 
+  /**
+   * Get all the registered instances which are not currently marked down
+   * because of reported errors.
+   */
+  public Collection<ServiceInstance<Void>> getAllServiceInstances() throws IOException {
+    try {
+      return serviceProvider.getAllInstances();
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+  }
+
   public void reportError(ServiceInstance<Void> instance) {
     serviceProvider.noteError(instance);
   }
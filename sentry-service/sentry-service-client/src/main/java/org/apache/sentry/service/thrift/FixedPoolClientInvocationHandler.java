@@ -0,0 +1,295 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.service.thrift;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.sentry.core.common.exception.SentryUserException;
+import org.apache.sentry.provider.db.service.thrift.SentryPolicyServiceClient;
+import org.apache.sentry.service.thrift.ServiceConstants.ClientConfig;
+import org.apache.sentry.service.thrift.ServiceConstants.ServerConfig;
+import org.apache.thrift.transport.TTransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The FixedPoolClientInvocationHandler spreads the calls of many threads over a small,
+ * fixed pool of persistent connections, one call at a time per connection. Unlike the
+ * PoolClientInvocationHandler there is no borrow/return per call: a caller takes the first
+ * idle connection, starting from a round-robin slot, and only waits on a connection when
+ * all of them are busy. Each connection is opened on first use and reopened after a
+ * transport failure.
+ *
+ * The connections are shared by all the clients created for the same server, security
+ * settings and user, see {@link #acquire(Configuration)}. Closing a client only releases
+ * its reference; the last client removes the handler and closes its connections.
+ * {@link #closeAll()} closes the connections of all the clients at once, e.g. on shutdown.
+ */
+public class FixedPoolClientInvocationHandler extends SentryClientInvocationHandler {
+
+  private static final Logger LOGGER = LoggerFactory
+      .getLogger(FixedPoolClientInvocationHandler.class);
+
+  // the configuration keys which decide where and how the connections are opened
+  private static final String[] SHARING_KEYS = {
+      ClientConfig.SERVER_RPC_ADDRESS, ClientConfig.SERVER_RPC_PORT,
+      ClientConfig.SERVER_HA_ENABLED, ClientConfig.SENTRY_HA_ZOOKEEPER_QUORUM,
+      ServerConfig.SECURITY_MODE, ServerConfig.PRINCIPAL,
+      ClientConfig.SENTRY_FIXED_POOL_CONNECTIONS };
+
+  // guarded by itself, along with the refCount of its handlers
+  private static final Map<String, FixedPoolClientInvocationHandler> SHARED_HANDLERS =
+      new HashMap<String, FixedPoolClientInvocationHandler>();
+
+  private final String sharingKey;
+  private int refCount = 0;
+
+  private final SentryServiceClientPoolFactory clientFactory;
+  private final ReentrantLock[] locks;
+  private final SentryPolicyServiceClient[] clients;
+  private final AtomicInteger nextSlot = new AtomicInteger();
+  private final int connectionRetryTotal;
+  private volatile boolean closed = false;
+
+  /**
+   * Get a handler for one client, backed by the connections shared with the other
+   * clients of the same configuration. close() on the handler releases the reference.
+   */
+  public static SentryClientInvocationHandler acquire(Configuration conf) throws IOException {
+    String key = getSharingKey(conf);
+    FixedPoolClientInvocationHandler handler;
+    synchronized (SHARED_HANDLERS) {
+      handler = SHARED_HANDLERS.get(key);
+      if (handler == null) {
+        handler = new FixedPoolClientInvocationHandler(conf, key);
+        SHARED_HANDLERS.put(key, handler);
+      }
+      handler.refCount++;
+    }
+    return new Reference(handler);
+  }
+
+  private static String getSharingKey(Configuration conf) throws IOException {
+    StringBuilder key = new StringBuilder(UserGroupInformation.getCurrentUser().getUserName());
+    for (String name : SHARING_KEYS) {
+      key.append('|').append(conf.get(name, ""));
+    }
+    return key.toString();
+  }
+
+  private static void release(FixedPoolClientInvocationHandler handler) {
+    synchronized (SHARED_HANDLERS) {
+      if (--handler.refCount > 0) {
+        return;
+      }
+      // closeAll() may already have replaced it
+      if (SHARED_HANDLERS.get(handler.sharingKey) == handler) {
+        SHARED_HANDLERS.remove(handler.sharingKey);
+      }
+    }
+    handler.close();
+  }
+
+  /**
+   * Close the connections of all the shared handlers and forget them. The clients
+   * still holding a reference fail with "Client is closed", the clients created
+   * afterwards open new connections.
+   */
+  public static void closeAll() {
+    List<FixedPoolClientInvocationHandler> handlers;
+    synchronized (SHARED_HANDLERS) {
+      handlers = new ArrayList<FixedPoolClientInvocationHandler>(SHARED_HANDLERS.values());
+      SHARED_HANDLERS.clear();
+    }
+    for (FixedPoolClientInvocationHandler handler : handlers) {
+      handler.close();
+    }
+  }
+
+  /**
+   * Number of shared handlers with at least one client, for tests.
+   */
+  public static int getSharedHandlerCount() {
+    synchronized (SHARED_HANDLERS) {
+      return SHARED_HANDLERS.size();
+    }
+  }
+
+  public FixedPoolClientInvocationHandler(Configuration conf) {
+    this(conf, null);
+  }
+
+  private FixedPoolClientInvocationHandler(Configuration conf, String sharingKey) {
+    this.sharingKey = sharingKey;
+    int connections = Math.max(1, conf.getInt(ClientConfig.SENTRY_FIXED_POOL_CONNECTIONS,
+        ClientConfig.SENTRY_FIXED_POOL_CONNECTIONS_DEFAULT));
+    connectionRetryTotal = Math.max(1, conf.getInt(ClientConfig.SENTRY_POOL_RETRY_TOTAL,
+        ClientConfig.SENTRY_POOL_RETRY_TOTAL_DEFAULT));
+    clientFactory = new SentryServiceClientPoolFactory(conf);
+    locks = new ReentrantLock[connections];
+    clients = new SentryPolicyServiceClient[connections];
+    for (int i = 0; i < connections; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  @Override
+  public Object invokeImpl(Object proxy, Method method, Object[] args) throws Exception {
+    int retryCount = 0;
+    while (true) {
+      int slot = lockSlot();
+      try {
+        return invokeOnSlot(slot, method, args);
+      } catch (TTransportException e) {
+        // the connection is already dropped, the next attempt reopens it
+        retryCount++;
+        if (retryCount >= connectionRetryTotal) {
+          throw new SentryUserException(e.getMessage(), e);
+        }
+      } finally {
+        locks[slot].unlock();
+      }
+    }
+  }
+
+  /**
+   * Lock the first idle connection from the next round-robin slot, or wait on
+   * that slot if every connection is busy.
+   */
+  private int lockSlot() {
+    int start = (nextSlot.getAndIncrement() & Integer.MAX_VALUE) % locks.length;
+    for (int i = 0; i < locks.length; i++) {
+      int slot = (start + i) % locks.length;
+      if (locks[slot].tryLock()) {
+        return slot;
+      }
+    }
+    locks[start].lock();
+    return start;
+  }
+
+  private Object invokeOnSlot(int slot, Method method, Object[] args) throws Exception {
+    if (closed) {
+      throw new SentryUserException("Client is closed");
+    }
+    SentryPolicyServiceClient client = clients[slot];
+    if (client == null) {
+      try {
+        client = clientFactory.create();
+      } catch (Exception e) {
+        throw new TTransportException(e);
+      }
+      clients[slot] = client;
+    }
+    try {
+      return method.invoke(client, args);
+    } catch (InvocationTargetException e) {
+      Throwable targetException = e.getCause();
+      if (targetException instanceof SentryUserException) {
+        // A TTransportException cause means the connection is broken, e.g. after the
+        // service restarted. Drop it so that the retry opens a new one.
+        if (targetException.getCause() instanceof TTransportException) {
+          LOGGER.debug("Dropping broken connection " + slot, targetException);
+          clients[slot] = null;
+          client.close();
+          throw (TTransportException) targetException.getCause();
+        }
+        throw (SentryUserException) targetException;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Number of connections currently open, for tests and monitoring.
+   */
+  public int getOpenConnectionCount() {
+    int count = 0;
+    for (int i = 0; i < locks.length; i++) {
+      locks[i].lock();
+      try {
+        if (clients[i] != null) {
+          count++;
+        }
+      } finally {
+        locks[i].unlock();
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    for (int i = 0; i < locks.length; i++) {
+      locks[i].lock();
+      try {
+        if (clients[i] != null) {
+          clients[i].close();
+          clients[i] = null;
+        }
+      } finally {
+        locks[i].unlock();
+      }
+    }
+  }
+
+  /**
+   * The handler of one client. Calls go to the shared handler until the client is
+   * closed, closing it more than once releases a single reference.
+   */
+  public static class Reference extends SentryClientInvocationHandler {
+    private final FixedPoolClientInvocationHandler handler;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    Reference(FixedPoolClientInvocationHandler handler) {
+      this.handler = handler;
+    }
+
+    public FixedPoolClientInvocationHandler getHandler() {
+      return handler;
+    }
+
+    @Override
+    public Object invokeImpl(Object proxy, Method method, Object[] args) throws Exception {
+      if (released.get()) {
+        throw new SentryUserException("Client is closed");
+      }
+      return handler.invokeImpl(proxy, method, args);
+    }
+
+    @Override
+    public void close() {
+      if (released.compareAndSet(false, true)) {
+        release(handler);
+      }
+    }
+  }
+}
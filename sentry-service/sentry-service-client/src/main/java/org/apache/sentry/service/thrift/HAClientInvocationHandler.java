@@ -21,19 +21,29 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.security.SecurityUtil;
 import org.apache.curator.x.discovery.ServiceInstance;
 import org.apache.sentry.core.common.exception.SentryUserException;
+import org.apache.sentry.provider.db.service.persistent.AffinityServiceSelector;
 import org.apache.sentry.provider.db.service.persistent.HAContext;
 import org.apache.sentry.provider.db.service.persistent.ServiceManager;
 import org.apache.sentry.provider.db.service.thrift.SentryPolicyServiceClient;
 import org.apache.sentry.provider.db.service.thrift.SentryPolicyServiceClientDefaultImpl;
+import org.apache.sentry.service.thrift.ServiceConstants.ClientConfig;
 import org.apache.sentry.service.thrift.ServiceConstants.ServerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 
 public class HAClientInvocationHandler extends SentryClientInvocationHandler {
@@ -45,12 +55,33 @@ public class HAClientInvocationHandler extends SentryClientInvocationHandler {
   private ServiceInstance<Void> currentServiceInstance;
   private SentryPolicyServiceClient client = null;
 
+  // affinity mode: the list RPCs are routed by requestor or group set. A client
+  // carries one call at a time, so each server has a pool of idle clients, and
+  // the calls only hold the lock of the handler to pick a server and a client.
+  private final boolean affinityEnabled;
+  private AffinityServiceSelector affinitySelector;
+  private ServiceManager affinityManager;
+  // <server instance id, idle clients of the server>
+  private final Map<String, Deque<SentryPolicyServiceClient>> idleAffinityClients =
+      new HashMap<String, Deque<SentryPolicyServiceClient>>();
+  // incremented by close(), the clients in use during a close are closed on release
+  private int affinityGeneration = 0;
+
   private static final String THRIFT_EXCEPTION_MESSAGE = "Thrift exception occured ";
   public static final String SENTRY_HA_ERROR_MESSAGE = "No Sentry server available. Please ensure that at least one Sentry server is online";
 
   public HAClientInvocationHandler(Configuration conf) throws Exception {
     this.conf = conf;
     checkClientConf();
+    affinityEnabled = conf.getBoolean(ClientConfig.SENTRY_HA_AFFINITY_ENABLED,
+        ClientConfig.SENTRY_HA_AFFINITY_ENABLED_DEFAULT);
+    if (affinityEnabled) {
+      affinitySelector = new AffinityServiceSelector(
+          conf.getFloat(ClientConfig.SENTRY_HA_AFFINITY_LOAD_FACTOR,
+              ClientConfig.SENTRY_HA_AFFINITY_LOAD_FACTOR_DEFAULT),
+          conf.getInt(ClientConfig.SENTRY_HA_AFFINITY_MAX_KEYS,
+              ClientConfig.SENTRY_HA_AFFINITY_MAX_KEYS_DEFAULT));
+    }
   }
 
   @Override
@@ -61,6 +92,12 @@ public class HAClientInvocationHandler extends SentryClientInvocationHandler {
       if (!method.isAccessible()) {
         method.setAccessible(true);
       }
+      if (affinityEnabled) {
+        String affinityKey = getAffinityKey(method, args);
+        if (affinityKey != null) {
+          return invokeWithAffinity(affinityKey, method, args);
+        }
+      }
       // The client is initialized in the first call instead of constructor.
       // This way we can propagate the connection exception to caller cleanly
       if (client == null) {
@@ -120,6 +157,107 @@ public class HAClientInvocationHandler extends SentryClientInvocationHandler {
     }
   }
 
+  /**
+   * Get the routing key of a read RPC: its requestor, or its group set for the
+   * provider calls. Other RPCs are not routed.
+   */
+  private static String getAffinityKey(Method method, Object[] args) {
+    if (!method.getName().startsWith("list") || args == null || args.length == 0) {
+      return null;
+    }
+    if (args[0] instanceof String) {
+      return (String) args[0];
+    }
+    if (args[0] instanceof Set) {
+      Set<String> sorted = new TreeSet<String>();
+      for (Object element : (Set<?>) args[0]) {
+        sorted.add(String.valueOf(element));
+      }
+      return Joiner.on(',').join(sorted);
+    }
+    return null;
+  }
+
+  private Object invokeWithAffinity(String affinityKey, Method method, Object[] args)
+      throws IOException, IllegalAccessException, SentryUserException {
+    while (true) {
+      ServiceInstance<Void> instance;
+      SentryPolicyServiceClient affinityClient;
+      int generation;
+      synchronized (this) {
+        if (affinityManager == null) {
+          try {
+            affinityManager = new ServiceManager(HAContext.getHAContext(conf));
+          } catch (Exception e) {
+            throw new IOException("Failed to extract Sentry node info from zookeeper", e);
+          }
+        }
+        Collection<ServiceInstance<Void>> instances = affinityManager.getAllServiceInstances();
+        instance = affinitySelector.select(affinityKey, instances);
+        if (instance == null) {
+          throw new IOException(SENTRY_HA_ERROR_MESSAGE);
+        }
+        Deque<SentryPolicyServiceClient> idleClients = idleAffinityClients.get(instance.getId());
+        affinityClient = idleClients == null ? null : idleClients.poll();
+        generation = affinityGeneration;
+      }
+      if (affinityClient == null) {
+        InetSocketAddress serverAddress = ServiceManager.convertServiceInstance(instance);
+        Configuration clientConf = new Configuration(conf);
+        clientConf.set(ServiceConstants.ClientConfig.SERVER_RPC_ADDRESS, serverAddress.getHostName());
+        clientConf.setInt(ServiceConstants.ClientConfig.SERVER_RPC_PORT, serverAddress.getPort());
+        try {
+          affinityClient = new SentryPolicyServiceClientDefaultImpl(clientConf);
+        } catch (IOException e) {
+          // the server is skipped until the error expires, its keys move to other servers
+          reportAffinityError(instance);
+          LOGGER.info("Transport exception while opening transport:", e, e.getMessage());
+          continue;
+        }
+      }
+      boolean reusable = false;
+      try {
+        Object result = method.invoke(affinityClient, args);
+        reusable = true;
+        return result;
+      } catch (InvocationTargetException e) {
+        if (e.getTargetException() instanceof SentryUserException) {
+          reusable = true;
+          throw (SentryUserException) e.getTargetException();
+        }
+        LOGGER.warn(THRIFT_EXCEPTION_MESSAGE + ": Error in connect current" +
+            " service, will retry other service.", e);
+        reportAffinityError(instance);
+      } finally {
+        if (reusable) {
+          releaseAffinityClient(instance, affinityClient, generation);
+        } else {
+          affinityClient.close();
+        }
+      }
+    }
+  }
+
+  private synchronized void releaseAffinityClient(ServiceInstance<Void> instance,
+      SentryPolicyServiceClient affinityClient, int generation) {
+    if (generation != affinityGeneration) {
+      affinityClient.close();
+      return;
+    }
+    Deque<SentryPolicyServiceClient> idleClients = idleAffinityClients.get(instance.getId());
+    if (idleClients == null) {
+      idleClients = new ArrayDeque<SentryPolicyServiceClient>();
+      idleAffinityClients.put(instance.getId(), idleClients);
+    }
+    idleClients.push(affinityClient);
+  }
+
+  private synchronized void reportAffinityError(ServiceInstance<Void> instance) {
+    if (affinityManager != null) {
+      affinityManager.reportError(instance);
+    }
+  }
+
   private void checkClientConf() {
     if (conf.getBoolean(ServerConfig.SENTRY_HA_ZOOKEEPER_SECURITY,
         ServerConfig.SENTRY_HA_ZOOKEEPER_SECURITY_DEFAULT)) {
@@ -131,9 +269,20 @@ public class HAClientInvocationHandler extends SentryClientInvocationHandler {
   }
 
   @Override
-  public void close() {
+  public synchronized void close() {
     if (client != null) {
       client.close();
     }
+    for (Deque<SentryPolicyServiceClient> idleClients : idleAffinityClients.values()) {
+      for (SentryPolicyServiceClient affinityClient : idleClients) {
+        affinityClient.close();
+      }
+    }
+    idleAffinityClients.clear();
+    affinityGeneration++;
+    if (affinityManager != null) {
+      affinityManager.close();
+      affinityManager = null;
+    }
   }
 }
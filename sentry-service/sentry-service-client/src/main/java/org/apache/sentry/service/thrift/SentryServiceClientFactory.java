@@ -34,7 +34,14 @@ public final class SentryServiceClientFactory {
   public static SentryPolicyServiceClient create(Configuration conf) throws Exception {
     boolean haEnabled = conf.getBoolean(ClientConfig.SERVER_HA_ENABLED, false);
     boolean pooled = conf.getBoolean(ClientConfig.SENTRY_POOL_ENABLED, false);
-    if (pooled) {
+    boolean fixedPool = conf.getBoolean(ClientConfig.SENTRY_FIXED_POOL_ENABLED,
+        ClientConfig.SENTRY_FIXED_POOL_ENABLED_DEFAULT);
+    if (fixedPool) {
+      return (SentryPolicyServiceClient) Proxy
+          .newProxyInstance(SentryPolicyServiceClientDefaultImpl.class.getClassLoader(),
+              SentryPolicyServiceClientDefaultImpl.class.getInterfaces(),
+              FixedPoolClientInvocationHandler.acquire(conf));
+    } else if (pooled) {
       return (SentryPolicyServiceClient) Proxy
           .newProxyInstance(SentryPolicyServiceClientDefaultImpl.class.getClassLoader(),
               SentryPolicyServiceClientDefaultImpl.class.getInterfaces(),
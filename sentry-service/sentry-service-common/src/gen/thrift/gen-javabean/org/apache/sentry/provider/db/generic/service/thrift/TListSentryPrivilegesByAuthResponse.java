@@ -453,16 +453,16 @@ public class TListSentryPrivilegesByAuthResponse implements org.apache.thrift.TB
           case 2: // PRIVILEGES_MAP_BY_AUTH
             if (schemeField.type == org.apache.thrift.protocol.TType.MAP) {
               {
-                org.apache.thrift.protocol.TMap _map138 = iprot.readMapBegin();
-                struct.privilegesMapByAuth = new HashMap<String,TSentryPrivilegeMap>(2*_map138.size);
-                String _key139;
-                TSentryPrivilegeMap _val140;
-                for (int _i141 = 0; _i141 < _map138.size; ++_i141)
+                org.apache.thrift.protocol.TMap _map154 = iprot.readMapBegin();
+                struct.privilegesMapByAuth = new HashMap<String,TSentryPrivilegeMap>(2*_map154.size);
+                String _key155;
+                TSentryPrivilegeMap _val156;
+                for (int _i157 = 0; _i157 < _map154.size; ++_i157)
                 {
-                  _key139 = iprot.readString();
-                  _val140 = new TSentryPrivilegeMap();
-                  _val140.read(iprot);
-                  struct.privilegesMapByAuth.put(_key139, _val140);
+                  _key155 = iprot.readString();
+                  _val156 = new TSentryPrivilegeMap();
+                  _val156.read(iprot);
+                  struct.privilegesMapByAuth.put(_key155, _val156);
                 }
                 iprot.readMapEnd();
               }
@@ -494,10 +494,10 @@ public class TListSentryPrivilegesByAuthResponse implements org.apache.thrift.TB
           oprot.writeFieldBegin(PRIVILEGES_MAP_BY_AUTH_FIELD_DESC);
           {
             oprot.writeMapBegin(new org.apache.thrift.protocol.TMap(org.apache.thrift.protocol.TType.STRING, org.apache.thrift.protocol.TType.STRUCT, struct.privilegesMapByAuth.size()));
-            for (Map.Entry<String, TSentryPrivilegeMap> _iter142 : struct.privilegesMapByAuth.entrySet())
+            for (Map.Entry<String, TSentryPrivilegeMap> _iter158 : struct.privilegesMapByAuth.entrySet())
             {
-              oprot.writeString(_iter142.getKey());
-              _iter142.getValue().write(oprot);
+              oprot.writeString(_iter158.getKey());
+              _iter158.getValue().write(oprot);
             }
             oprot.writeMapEnd();
           }
@@ -530,10 +530,10 @@ public class TListSentryPrivilegesByAuthResponse implements org.apache.thrift.TB
       if (struct.isSetPrivilegesMapByAuth()) {
         {
           oprot.writeI32(struct.privilegesMapByAuth.size());
-          for (Map.Entry<String, TSentryPrivilegeMap> _iter143 : struct.privilegesMapByAuth.entrySet())
+          for (Map.Entry<String, TSentryPrivilegeMap> _iter159 : struct.privilegesMapByAuth.entrySet())
           {
-            oprot.writeString(_iter143.getKey());
-            _iter143.getValue().write(oprot);
+            oprot.writeString(_iter159.getKey());
+            _iter159.getValue().write(oprot);
           }
         }
       }
@@ -548,16 +548,16 @@ public class TListSentryPrivilegesByAuthResponse implements org.apache.thrift.TB
       BitSet incoming = iprot.readBitSet(1);
       if (incoming.get(0)) {
         {
-          org.apache.thrift.protocol.TMap _map144 = new org.apache.thrift.protocol.TMap(org.apache.thrift.protocol.TType.STRING, org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
-          struct.privilegesMapByAuth = new HashMap<String,TSentryPrivilegeMap>(2*_map144.size);
-          String _key145;
-          TSentryPrivilegeMap _val146;
-          for (int _i147 = 0; _i147 < _map144.size; ++_i147)
+          org.apache.thrift.protocol.TMap _map160 = new org.apache.thrift.protocol.TMap(org.apache.thrift.protocol.TType.STRING, org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
+          struct.privilegesMapByAuth = new HashMap<String,TSentryPrivilegeMap>(2*_map160.size);
+          String _key161;
+          TSentryPrivilegeMap _val162;
+          for (int _i163 = 0; _i163 < _map160.size; ++_i163)
           {
-            _key145 = iprot.readString();
-            _val146 = new TSentryPrivilegeMap();
-            _val146.read(iprot);
-            struct.privilegesMapByAuth.put(_key145, _val146);
+            _key161 = iprot.readString();
+            _val162 = new TSentryPrivilegeMap();
+            _val162.read(iprot);
+            struct.privilegesMapByAuth.put(_key161, _val162);
           }
         }
         struct.setPrivilegesMapByAuthIsSet(true);
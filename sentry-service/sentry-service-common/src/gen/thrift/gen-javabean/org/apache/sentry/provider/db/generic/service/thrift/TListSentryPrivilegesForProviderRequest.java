@@ -822,13 +822,13 @@ public class TListSentryPrivilegesForProviderRequest implements org.apache.thrif
           case 4: // GROUPS
             if (schemeField.type == org.apache.thrift.protocol.TType.SET) {
               {
-                org.apache.thrift.protocol.TSet _set80 = iprot.readSetBegin();
-                struct.groups = new HashSet<String>(2*_set80.size);
-                String _elem81;
-                for (int _i82 = 0; _i82 < _set80.size; ++_i82)
+                org.apache.thrift.protocol.TSet _set96 = iprot.readSetBegin();
+                struct.groups = new HashSet<String>(2*_set96.size);
+                String _elem97;
+                for (int _i98 = 0; _i98 < _set96.size; ++_i98)
                 {
-                  _elem81 = iprot.readString();
-                  struct.groups.add(_elem81);
+                  _elem97 = iprot.readString();
+                  struct.groups.add(_elem97);
                 }
                 iprot.readSetEnd();
               }
@@ -849,14 +849,14 @@ public class TListSentryPrivilegesForProviderRequest implements org.apache.thrif
           case 6: // AUTHORIZABLES
             if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
               {
-                org.apache.thrift.protocol.TList _list83 = iprot.readListBegin();
-                struct.authorizables = new ArrayList<TAuthorizable>(_list83.size);
-                TAuthorizable _elem84;
-                for (int _i85 = 0; _i85 < _list83.size; ++_i85)
+                org.apache.thrift.protocol.TList _list99 = iprot.readListBegin();
+                struct.authorizables = new ArrayList<TAuthorizable>(_list99.size);
+                TAuthorizable _elem100;
+                for (int _i101 = 0; _i101 < _list99.size; ++_i101)
                 {
-                  _elem84 = new TAuthorizable();
-                  _elem84.read(iprot);
-                  struct.authorizables.add(_elem84);
+                  _elem100 = new TAuthorizable();
+                  _elem100.read(iprot);
+                  struct.authorizables.add(_elem100);
                 }
                 iprot.readListEnd();
               }
@@ -895,9 +895,9 @@ public class TListSentryPrivilegesForProviderRequest implements org.apache.thrif
         oprot.writeFieldBegin(GROUPS_FIELD_DESC);
         {
           oprot.writeSetBegin(new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRING, struct.groups.size()));
-          for (String _iter86 : struct.groups)
+          for (String _iter102 : struct.groups)
           {
-            oprot.writeString(_iter86);
+            oprot.writeString(_iter102);
           }
           oprot.writeSetEnd();
         }
@@ -913,9 +913,9 @@ public class TListSentryPrivilegesForProviderRequest implements org.apache.thrif
           oprot.writeFieldBegin(AUTHORIZABLES_FIELD_DESC);
           {
             oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, struct.authorizables.size()));
-            for (TAuthorizable _iter87 : struct.authorizables)
+            for (TAuthorizable _iter103 : struct.authorizables)
             {
-              _iter87.write(oprot);
+              _iter103.write(oprot);
             }
             oprot.writeListEnd();
           }
@@ -944,9 +944,9 @@ public class TListSentryPrivilegesForProviderRequest implements org.apache.thrif
       oprot.writeString(struct.serviceName);
       {
         oprot.writeI32(struct.groups.size());
-        for (String _iter88 : struct.groups)
+        for (String _iter104 : struct.groups)
         {
-          oprot.writeString(_iter88);
+          oprot.writeString(_iter104);
         }
       }
       struct.roleSet.write(oprot);
@@ -958,9 +958,9 @@ public class TListSentryPrivilegesForProviderRequest implements org.apache.thrif
       if (struct.isSetAuthorizables()) {
         {
           oprot.writeI32(struct.authorizables.size());
-          for (TAuthorizable _iter89 : struct.authorizables)
+          for (TAuthorizable _iter105 : struct.authorizables)
           {
-            _iter89.write(oprot);
+            _iter105.write(oprot);
           }
         }
       }
@@ -976,13 +976,13 @@ public class TListSentryPrivilegesForProviderRequest implements org.apache.thrif
       struct.serviceName = iprot.readString();
       struct.setServiceNameIsSet(true);
       {
-        org.apache.thrift.protocol.TSet _set90 = new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
-        struct.groups = new HashSet<String>(2*_set90.size);
-        String _elem91;
-        for (int _i92 = 0; _i92 < _set90.size; ++_i92)
+        org.apache.thrift.protocol.TSet _set106 = new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
+        struct.groups = new HashSet<String>(2*_set106.size);
+        String _elem107;
+        for (int _i108 = 0; _i108 < _set106.size; ++_i108)
         {
-          _elem91 = iprot.readString();
-          struct.groups.add(_elem91);
+          _elem107 = iprot.readString();
+          struct.groups.add(_elem107);
         }
       }
       struct.setGroupsIsSet(true);
@@ -992,14 +992,14 @@ public class TListSentryPrivilegesForProviderRequest implements org.apache.thrif
       BitSet incoming = iprot.readBitSet(1);
       if (incoming.get(0)) {
         {
-          org.apache.thrift.protocol.TList _list93 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
-          struct.authorizables = new ArrayList<TAuthorizable>(_list93.size);
-          TAuthorizable _elem94;
-          for (int _i95 = 0; _i95 < _list93.size; ++_i95)
+          org.apache.thrift.protocol.TList _list109 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
+          struct.authorizables = new ArrayList<TAuthorizable>(_list109.size);
+          TAuthorizable _elem110;
+          for (int _i111 = 0; _i111 < _list109.size; ++_i111)
           {
-            _elem94 = new TAuthorizable();
-            _elem94.read(iprot);
-            struct.authorizables.add(_elem94);
+            _elem110 = new TAuthorizable();
+            _elem110.read(iprot);
+            struct.authorizables.add(_elem110);
           }
         }
         struct.setAuthorizablesIsSet(true);
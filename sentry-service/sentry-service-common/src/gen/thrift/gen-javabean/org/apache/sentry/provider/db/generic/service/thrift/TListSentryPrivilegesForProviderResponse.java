@@ -445,13 +445,13 @@ public class TListSentryPrivilegesForProviderResponse implements org.apache.thri
           case 2: // PRIVILEGES
             if (schemeField.type == org.apache.thrift.protocol.TType.SET) {
               {
-                org.apache.thrift.protocol.TSet _set96 = iprot.readSetBegin();
-                struct.privileges = new HashSet<String>(2*_set96.size);
-                String _elem97;
-                for (int _i98 = 0; _i98 < _set96.size; ++_i98)
+                org.apache.thrift.protocol.TSet _set112 = iprot.readSetBegin();
+                struct.privileges = new HashSet<String>(2*_set112.size);
+                String _elem113;
+                for (int _i114 = 0; _i114 < _set112.size; ++_i114)
                 {
-                  _elem97 = iprot.readString();
-                  struct.privileges.add(_elem97);
+                  _elem113 = iprot.readString();
+                  struct.privileges.add(_elem113);
                 }
                 iprot.readSetEnd();
               }
@@ -482,9 +482,9 @@ public class TListSentryPrivilegesForProviderResponse implements org.apache.thri
         oprot.writeFieldBegin(PRIVILEGES_FIELD_DESC);
         {
           oprot.writeSetBegin(new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRING, struct.privileges.size()));
-          for (String _iter99 : struct.privileges)
+          for (String _iter115 : struct.privileges)
           {
-            oprot.writeString(_iter99);
+            oprot.writeString(_iter115);
           }
           oprot.writeSetEnd();
         }
@@ -510,9 +510,9 @@ public class TListSentryPrivilegesForProviderResponse implements org.apache.thri
       struct.status.write(oprot);
       {
         oprot.writeI32(struct.privileges.size());
-        for (String _iter100 : struct.privileges)
+        for (String _iter116 : struct.privileges)
         {
-          oprot.writeString(_iter100);
+          oprot.writeString(_iter116);
         }
       }
     }
@@ -524,13 +524,13 @@ public class TListSentryPrivilegesForProviderResponse implements org.apache.thri
       struct.status.read(iprot);
       struct.setStatusIsSet(true);
       {
-        org.apache.thrift.protocol.TSet _set101 = new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
-        struct.privileges = new HashSet<String>(2*_set101.size);
-        String _elem102;
-        for (int _i103 = 0; _i103 < _set101.size; ++_i103)
+        org.apache.thrift.protocol.TSet _set117 = new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
+        struct.privileges = new HashSet<String>(2*_set117.size);
+        String _elem118;
+        for (int _i119 = 0; _i119 < _set117.size; ++_i119)
         {
-          _elem102 = iprot.readString();
-          struct.privileges.add(_elem102);
+          _elem118 = iprot.readString();
+          struct.privileges.add(_elem118);
         }
       }
       struct.setPrivilegesIsSet(true);
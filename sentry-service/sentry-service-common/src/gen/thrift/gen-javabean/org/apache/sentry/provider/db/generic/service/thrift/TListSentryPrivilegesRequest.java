@@ -818,14 +818,14 @@ public class TListSentryPrivilegesRequest implements org.apache.thrift.TBase<TLi
           case 6: // AUTHORIZABLES
             if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
               {
-                org.apache.thrift.protocol.TList _list40 = iprot.readListBegin();
-                struct.authorizables = new ArrayList<TAuthorizable>(_list40.size);
-                TAuthorizable _elem41;
-                for (int _i42 = 0; _i42 < _list40.size; ++_i42)
+                org.apache.thrift.protocol.TList _list56 = iprot.readListBegin();
+                struct.authorizables = new ArrayList<TAuthorizable>(_list56.size);
+                TAuthorizable _elem57;
+                for (int _i58 = 0; _i58 < _list56.size; ++_i58)
                 {
-                  _elem41 = new TAuthorizable();
-                  _elem41.read(iprot);
-                  struct.authorizables.add(_elem41);
+                  _elem57 = new TAuthorizable();
+                  _elem57.read(iprot);
+                  struct.authorizables.add(_elem57);
                 }
                 iprot.readListEnd();
               }
@@ -875,9 +875,9 @@ public class TListSentryPrivilegesRequest implements org.apache.thrift.TBase<TLi
           oprot.writeFieldBegin(AUTHORIZABLES_FIELD_DESC);
           {
             oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, struct.authorizables.size()));
-            for (TAuthorizable _iter43 : struct.authorizables)
+            for (TAuthorizable _iter59 : struct.authorizables)
             {
-              _iter43.write(oprot);
+              _iter59.write(oprot);
             }
             oprot.writeListEnd();
           }
@@ -914,9 +914,9 @@ public class TListSentryPrivilegesRequest implements org.apache.thrift.TBase<TLi
       if (struct.isSetAuthorizables()) {
         {
           oprot.writeI32(struct.authorizables.size());
-          for (TAuthorizable _iter44 : struct.authorizables)
+          for (TAuthorizable _iter60 : struct.authorizables)
           {
-            _iter44.write(oprot);
+            _iter60.write(oprot);
           }
         }
       }
@@ -938,14 +938,14 @@ public class TListSentryPrivilegesRequest implements org.apache.thrift.TBase<TLi
       BitSet incoming = iprot.readBitSet(1);
       if (incoming.get(0)) {
         {
-          org.apache.thrift.protocol.TList _list45 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
-          struct.authorizables = new ArrayList<TAuthorizable>(_list45.size);
-          TAuthorizable _elem46;
-          for (int _i47 = 0; _i47 < _list45.size; ++_i47)
+          org.apache.thrift.protocol.TList _list61 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
+          struct.authorizables = new ArrayList<TAuthorizable>(_list61.size);
+          TAuthorizable _elem62;
+          for (int _i63 = 0; _i63 < _list61.size; ++_i63)
           {
-            _elem46 = new TAuthorizable();
-            _elem46.read(iprot);
-            struct.authorizables.add(_elem46);
+            _elem62 = new TAuthorizable();
+            _elem62.read(iprot);
+            struct.authorizables.add(_elem62);
           }
         }
         struct.setAuthorizablesIsSet(true);
@@ -445,14 +445,14 @@ public class TListSentryPrivilegesResponse implements org.apache.thrift.TBase<TL
           case 2: // PRIVILEGES
             if (schemeField.type == org.apache.thrift.protocol.TType.SET) {
               {
-                org.apache.thrift.protocol.TSet _set48 = iprot.readSetBegin();
-                struct.privileges = new HashSet<TSentryPrivilege>(2*_set48.size);
-                TSentryPrivilege _elem49;
-                for (int _i50 = 0; _i50 < _set48.size; ++_i50)
+                org.apache.thrift.protocol.TSet _set64 = iprot.readSetBegin();
+                struct.privileges = new HashSet<TSentryPrivilege>(2*_set64.size);
+                TSentryPrivilege _elem65;
+                for (int _i66 = 0; _i66 < _set64.size; ++_i66)
                 {
-                  _elem49 = new TSentryPrivilege();
-                  _elem49.read(iprot);
-                  struct.privileges.add(_elem49);
+                  _elem65 = new TSentryPrivilege();
+                  _elem65.read(iprot);
+                  struct.privileges.add(_elem65);
                 }
                 iprot.readSetEnd();
               }
@@ -484,9 +484,9 @@ public class TListSentryPrivilegesResponse implements org.apache.thrift.TBase<TL
           oprot.writeFieldBegin(PRIVILEGES_FIELD_DESC);
           {
             oprot.writeSetBegin(new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRUCT, struct.privileges.size()));
-            for (TSentryPrivilege _iter51 : struct.privileges)
+            for (TSentryPrivilege _iter67 : struct.privileges)
             {
-              _iter51.write(oprot);
+              _iter67.write(oprot);
             }
             oprot.writeSetEnd();
           }
@@ -519,9 +519,9 @@ public class TListSentryPrivilegesResponse implements org.apache.thrift.TBase<TL
       if (struct.isSetPrivileges()) {
         {
           oprot.writeI32(struct.privileges.size());
-          for (TSentryPrivilege _iter52 : struct.privileges)
+          for (TSentryPrivilege _iter68 : struct.privileges)
           {
-            _iter52.write(oprot);
+            _iter68.write(oprot);
           }
         }
       }
@@ -536,14 +536,14 @@ public class TListSentryPrivilegesResponse implements org.apache.thrift.TBase<TL
       BitSet incoming = iprot.readBitSet(1);
       if (incoming.get(0)) {
         {
-          org.apache.thrift.protocol.TSet _set53 = new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
-          struct.privileges = new HashSet<TSentryPrivilege>(2*_set53.size);
-          TSentryPrivilege _elem54;
-          for (int _i55 = 0; _i55 < _set53.size; ++_i55)
+          org.apache.thrift.protocol.TSet _set69 = new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
+          struct.privileges = new HashSet<TSentryPrivilege>(2*_set69.size);
+          TSentryPrivilege _elem70;
+          for (int _i71 = 0; _i71 < _set69.size; ++_i71)
           {
-            _elem54 = new TSentryPrivilege();
-            _elem54.read(iprot);
-            struct.privileges.add(_elem54);
+            _elem70 = new TSentryPrivilege();
+            _elem70.read(iprot);
+            struct.privileges.add(_elem70);
           }
         }
         struct.setPrivilegesIsSet(true);
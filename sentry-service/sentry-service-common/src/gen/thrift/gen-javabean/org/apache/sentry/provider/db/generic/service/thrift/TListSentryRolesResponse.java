@@ -445,14 +445,14 @@ public class TListSentryRolesResponse implements org.apache.thrift.TBase<TListSe
           case 2: // ROLES
             if (schemeField.type == org.apache.thrift.protocol.TType.SET) {
               {
-                org.apache.thrift.protocol.TSet _set32 = iprot.readSetBegin();
-                struct.roles = new HashSet<TSentryRole>(2*_set32.size);
-                TSentryRole _elem33;
-                for (int _i34 = 0; _i34 < _set32.size; ++_i34)
+                org.apache.thrift.protocol.TSet _set48 = iprot.readSetBegin();
+                struct.roles = new HashSet<TSentryRole>(2*_set48.size);
+                TSentryRole _elem49;
+                for (int _i50 = 0; _i50 < _set48.size; ++_i50)
                 {
-                  _elem33 = new TSentryRole();
-                  _elem33.read(iprot);
-                  struct.roles.add(_elem33);
+                  _elem49 = new TSentryRole();
+                  _elem49.read(iprot);
+                  struct.roles.add(_elem49);
                 }
                 iprot.readSetEnd();
               }
@@ -484,9 +484,9 @@ public class TListSentryRolesResponse implements org.apache.thrift.TBase<TListSe
           oprot.writeFieldBegin(ROLES_FIELD_DESC);
           {
             oprot.writeSetBegin(new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRUCT, struct.roles.size()));
-            for (TSentryRole _iter35 : struct.roles)
+            for (TSentryRole _iter51 : struct.roles)
             {
-              _iter35.write(oprot);
+              _iter51.write(oprot);
             }
             oprot.writeSetEnd();
           }
@@ -519,9 +519,9 @@ public class TListSentryRolesResponse implements org.apache.thrift.TBase<TListSe
       if (struct.isSetRoles()) {
         {
           oprot.writeI32(struct.roles.size());
-          for (TSentryRole _iter36 : struct.roles)
+          for (TSentryRole _iter52 : struct.roles)
           {
-            _iter36.write(oprot);
+            _iter52.write(oprot);
           }
         }
       }
@@ -536,14 +536,14 @@ public class TListSentryRolesResponse implements org.apache.thrift.TBase<TListSe
       BitSet incoming = iprot.readBitSet(1);
       if (incoming.get(0)) {
         {
-          org.apache.thrift.protocol.TSet _set37 = new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
-          struct.roles = new HashSet<TSentryRole>(2*_set37.size);
-          TSentryRole _elem38;
-          for (int _i39 = 0; _i39 < _set37.size; ++_i39)
+          org.apache.thrift.protocol.TSet _set53 = new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
+          struct.roles = new HashSet<TSentryRole>(2*_set53.size);
+          TSentryRole _elem54;
+          for (int _i55 = 0; _i55 < _set53.size; ++_i55)
           {
-            _elem38 = new TSentryRole();
-            _elem38.read(iprot);
-            struct.roles.add(_elem38);
+            _elem54 = new TSentryRole();
+            _elem54.read(iprot);
+            struct.roles.add(_elem54);
           }
         }
         struct.setRolesIsSet(true);
@@ -833,14 +833,14 @@ public class TRenamePrivilegesRequest implements org.apache.thrift.TBase<TRename
           case 5: // OLD_AUTHORIZABLES
             if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
               {
-                org.apache.thrift.protocol.TList _list56 = iprot.readListBegin();
-                struct.oldAuthorizables = new ArrayList<TAuthorizable>(_list56.size);
-                TAuthorizable _elem57;
-                for (int _i58 = 0; _i58 < _list56.size; ++_i58)
+                org.apache.thrift.protocol.TList _list72 = iprot.readListBegin();
+                struct.oldAuthorizables = new ArrayList<TAuthorizable>(_list72.size);
+                TAuthorizable _elem73;
+                for (int _i74 = 0; _i74 < _list72.size; ++_i74)
                 {
-                  _elem57 = new TAuthorizable();
-                  _elem57.read(iprot);
-                  struct.oldAuthorizables.add(_elem57);
+                  _elem73 = new TAuthorizable();
+                  _elem73.read(iprot);
+                  struct.oldAuthorizables.add(_elem73);
                 }
                 iprot.readListEnd();
               }
@@ -852,14 +852,14 @@ public class TRenamePrivilegesRequest implements org.apache.thrift.TBase<TRename
           case 6: // NEW_AUTHORIZABLES
             if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
               {
-                org.apache.thrift.protocol.TList _list59 = iprot.readListBegin();
-                struct.newAuthorizables = new ArrayList<TAuthorizable>(_list59.size);
-                TAuthorizable _elem60;
-                for (int _i61 = 0; _i61 < _list59.size; ++_i61)
+                org.apache.thrift.protocol.TList _list75 = iprot.readListBegin();
+                struct.newAuthorizables = new ArrayList<TAuthorizable>(_list75.size);
+                TAuthorizable _elem76;
+                for (int _i77 = 0; _i77 < _list75.size; ++_i77)
                 {
-                  _elem60 = new TAuthorizable();
-                  _elem60.read(iprot);
-                  struct.newAuthorizables.add(_elem60);
+                  _elem76 = new TAuthorizable();
+                  _elem76.read(iprot);
+                  struct.newAuthorizables.add(_elem76);
                 }
                 iprot.readListEnd();
               }
@@ -903,9 +903,9 @@ public class TRenamePrivilegesRequest implements org.apache.thrift.TBase<TRename
         oprot.writeFieldBegin(OLD_AUTHORIZABLES_FIELD_DESC);
         {
           oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, struct.oldAuthorizables.size()));
-          for (TAuthorizable _iter62 : struct.oldAuthorizables)
+          for (TAuthorizable _iter78 : struct.oldAuthorizables)
           {
-            _iter62.write(oprot);
+            _iter78.write(oprot);
           }
           oprot.writeListEnd();
         }
@@ -915,9 +915,9 @@ public class TRenamePrivilegesRequest implements org.apache.thrift.TBase<TRename
         oprot.writeFieldBegin(NEW_AUTHORIZABLES_FIELD_DESC);
         {
           oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, struct.newAuthorizables.size()));
-          for (TAuthorizable _iter63 : struct.newAuthorizables)
+          for (TAuthorizable _iter79 : struct.newAuthorizables)
           {
-            _iter63.write(oprot);
+            _iter79.write(oprot);
           }
           oprot.writeListEnd();
         }
@@ -946,16 +946,16 @@ public class TRenamePrivilegesRequest implements org.apache.thrift.TBase<TRename
       oprot.writeString(struct.serviceName);
       {
         oprot.writeI32(struct.oldAuthorizables.size());
-        for (TAuthorizable _iter64 : struct.oldAuthorizables)
+        for (TAuthorizable _iter80 : struct.oldAuthorizables)
         {
-          _iter64.write(oprot);
+          _iter80.write(oprot);
         }
       }
       {
         oprot.writeI32(struct.newAuthorizables.size());
-        for (TAuthorizable _iter65 : struct.newAuthorizables)
+        for (TAuthorizable _iter81 : struct.newAuthorizables)
         {
-          _iter65.write(oprot);
+          _iter81.write(oprot);
         }
       }
     }
@@ -972,26 +972,26 @@ public class TRenamePrivilegesRequest implements org.apache.thrift.TBase<TRename
       struct.serviceName = iprot.readString();
       struct.setServiceNameIsSet(true);
       {
-        org.apache.thrift.protocol.TList _list66 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
-        struct.oldAuthorizables = new ArrayList<TAuthorizable>(_list66.size);
-        TAuthorizable _elem67;
-        for (int _i68 = 0; _i68 < _list66.size; ++_i68)
+        org.apache.thrift.protocol.TList _list82 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
+        struct.oldAuthorizables = new ArrayList<TAuthorizable>(_list82.size);
+        TAuthorizable _elem83;
+        for (int _i84 = 0; _i84 < _list82.size; ++_i84)
         {
-          _elem67 = new TAuthorizable();
-          _elem67.read(iprot);
-          struct.oldAuthorizables.add(_elem67);
+          _elem83 = new TAuthorizable();
+          _elem83.read(iprot);
+          struct.oldAuthorizables.add(_elem83);
         }
       }
       struct.setOldAuthorizablesIsSet(true);
       {
-        org.apache.thrift.protocol.TList _list69 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
-        struct.newAuthorizables = new ArrayList<TAuthorizable>(_list69.size);
-        TAuthorizable _elem70;
-        for (int _i71 = 0; _i71 < _list69.size; ++_i71)
+        org.apache.thrift.protocol.TList _list85 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
+        struct.newAuthorizables = new ArrayList<TAuthorizable>(_list85.size);
+        TAuthorizable _elem86;
+        for (int _i87 = 0; _i87 < _list85.size; ++_i87)
         {
-          _elem70 = new TAuthorizable();
-          _elem70.read(iprot);
-          struct.newAuthorizables.add(_elem70);
+          _elem86 = new TAuthorizable();
+          _elem86.read(iprot);
+          struct.newAuthorizables.add(_elem86);
         }
       }
       struct.setNewAuthorizablesIsSet(true);
@@ -444,13 +444,13 @@ public class TSentryActiveRoleSet implements org.apache.thrift.TBase<TSentryActi
           case 2: // ROLES
             if (schemeField.type == org.apache.thrift.protocol.TType.SET) {
               {
-                org.apache.thrift.protocol.TSet _set72 = iprot.readSetBegin();
-                struct.roles = new HashSet<String>(2*_set72.size);
-                String _elem73;
-                for (int _i74 = 0; _i74 < _set72.size; ++_i74)
+                org.apache.thrift.protocol.TSet _set88 = iprot.readSetBegin();
+                struct.roles = new HashSet<String>(2*_set88.size);
+                String _elem89;
+                for (int _i90 = 0; _i90 < _set88.size; ++_i90)
                 {
-                  _elem73 = iprot.readString();
-                  struct.roles.add(_elem73);
+                  _elem89 = iprot.readString();
+                  struct.roles.add(_elem89);
                 }
                 iprot.readSetEnd();
               }
@@ -479,9 +479,9 @@ public class TSentryActiveRoleSet implements org.apache.thrift.TBase<TSentryActi
         oprot.writeFieldBegin(ROLES_FIELD_DESC);
         {
           oprot.writeSetBegin(new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRING, struct.roles.size()));
-          for (String _iter75 : struct.roles)
+          for (String _iter91 : struct.roles)
           {
-            oprot.writeString(_iter75);
+            oprot.writeString(_iter91);
           }
           oprot.writeSetEnd();
         }
@@ -507,9 +507,9 @@ public class TSentryActiveRoleSet implements org.apache.thrift.TBase<TSentryActi
       oprot.writeBool(struct.all);
       {
         oprot.writeI32(struct.roles.size());
-        for (String _iter76 : struct.roles)
+        for (String _iter92 : struct.roles)
         {
-          oprot.writeString(_iter76);
+          oprot.writeString(_iter92);
         }
       }
     }
@@ -520,13 +520,13 @@ public class TSentryActiveRoleSet implements org.apache.thrift.TBase<TSentryActi
       struct.all = iprot.readBool();
       struct.setAllIsSet(true);
       {
-        org.apache.thrift.protocol.TSet _set77 = new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
-        struct.roles = new HashSet<String>(2*_set77.size);
-        String _elem78;
-        for (int _i79 = 0; _i79 < _set77.size; ++_i79)
+        org.apache.thrift.protocol.TSet _set93 = new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
+        struct.roles = new HashSet<String>(2*_set93.size);
+        String _elem94;
+        for (int _i95 = 0; _i95 < _set93.size; ++_i95)
         {
-          _elem78 = iprot.readString();
-          struct.roles.add(_elem78);
+          _elem94 = iprot.readString();
+          struct.roles.add(_elem94);
         }
       }
       struct.setRolesIsSet(true);
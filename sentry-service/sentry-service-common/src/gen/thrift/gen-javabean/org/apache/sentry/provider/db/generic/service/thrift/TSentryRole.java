@@ -444,13 +444,13 @@ public class TSentryRole implements org.apache.thrift.TBase<TSentryRole, TSentry
           case 2: // GROUPS
             if (schemeField.type == org.apache.thrift.protocol.TType.SET) {
               {
-                org.apache.thrift.protocol.TSet _set24 = iprot.readSetBegin();
-                struct.groups = new HashSet<String>(2*_set24.size);
-                String _elem25;
-                for (int _i26 = 0; _i26 < _set24.size; ++_i26)
+                org.apache.thrift.protocol.TSet _set40 = iprot.readSetBegin();
+                struct.groups = new HashSet<String>(2*_set40.size);
+                String _elem41;
+                for (int _i42 = 0; _i42 < _set40.size; ++_i42)
                 {
-                  _elem25 = iprot.readString();
-                  struct.groups.add(_elem25);
+                  _elem41 = iprot.readString();
+                  struct.groups.add(_elem41);
                 }
                 iprot.readSetEnd();
               }
@@ -481,9 +481,9 @@ public class TSentryRole implements org.apache.thrift.TBase<TSentryRole, TSentry
         oprot.writeFieldBegin(GROUPS_FIELD_DESC);
         {
           oprot.writeSetBegin(new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRING, struct.groups.size()));
-          for (String _iter27 : struct.groups)
+          for (String _iter43 : struct.groups)
           {
-            oprot.writeString(_iter27);
+            oprot.writeString(_iter43);
           }
           oprot.writeSetEnd();
         }
@@ -509,9 +509,9 @@ public class TSentryRole implements org.apache.thrift.TBase<TSentryRole, TSentry
       oprot.writeString(struct.roleName);
       {
         oprot.writeI32(struct.groups.size());
-        for (String _iter28 : struct.groups)
+        for (String _iter44 : struct.groups)
         {
-          oprot.writeString(_iter28);
+          oprot.writeString(_iter44);
         }
       }
     }
@@ -522,13 +522,13 @@ public class TSentryRole implements org.apache.thrift.TBase<TSentryRole, TSentry
       struct.roleName = iprot.readString();
       struct.setRoleNameIsSet(true);
       {
-        org.apache.thrift.protocol.TSet _set29 = new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
-        struct.groups = new HashSet<String>(2*_set29.size);
-        String _elem30;
-        for (int _i31 = 0; _i31 < _set29.size; ++_i31)
+        org.apache.thrift.protocol.TSet _set45 = new org.apache.thrift.protocol.TSet(org.apache.thrift.protocol.TType.STRING, iprot.readI32());
+        struct.groups = new HashSet<String>(2*_set45.size);
+        String _elem46;
+        for (int _i47 = 0; _i47 < _set45.size; ++_i47)
         {
-          _elem30 = iprot.readString();
-          struct.groups.add(_elem30);
+          _elem46 = iprot.readString();
+          struct.groups.add(_elem46);
         }
       }
       struct.setGroupsIsSet(true);
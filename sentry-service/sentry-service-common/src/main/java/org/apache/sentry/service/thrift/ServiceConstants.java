@@ -67,6 +67,20 @@ public class ServiceConstants {
     public static final int RPC_MAX_THREADS_DEFAULT = 500;
     public static final String RPC_MIN_THREADS = "sentry.service.server-min-threads";
     public static final int RPC_MIN_THREADS_DEFAULT = 10;
+    // "threadpool" serves each connection on its own thread, "nonblocking"
+    // multiplexes connections over selector threads and needs framed clients.
+    // "nonblocking" is for unsecured deployments only: it has no SASL support,
+    // so the server refuses to start with it in kerberos mode, and its audit
+    // log entries carry no client address
+    public static final String RPC_SERVER_TYPE = "sentry.service.server.rpc-server-type";
+    public static final String RPC_SERVER_TYPE_THREADPOOL = "threadpool";
+    public static final String RPC_SERVER_TYPE_NONBLOCKING = "nonblocking";
+    public static final String RPC_SERVER_TYPE_DEFAULT = RPC_SERVER_TYPE_THREADPOOL;
+    public static final String RPC_SELECTOR_THREADS = "sentry.service.server.rpc-selector-threads";
+    public static final int RPC_SELECTOR_THREADS_DEFAULT = 2;
+    // pending requests of the nonblocking server waiting for a worker thread
+    public static final String RPC_REQUEST_QUEUE_SIZE = "sentry.service.server.rpc-request-queue-size";
+    public static final int RPC_REQUEST_QUEUE_SIZE_DEFAULT = 10000;
     public static final String ALLOW_CONNECT = "sentry.service.allow.connect";
 
     public static final String SENTRY_POLICY_STORE_PLUGINS = "sentry.policy.store.plugins";
@@ -115,9 +129,26 @@ public class ServiceConstants {
     public static final String SENTRY_STORE_HADOOP_GROUP_MAPPING = "org.apache.sentry.provider.common.HadoopGroupMappingService";
     public static final String SENTRY_STORE_LOCAL_GROUP_MAPPING = "org.apache.sentry.provider.file.LocalGroupMappingService";
     public static final String SENTRY_STORE_GROUP_MAPPING_DEFAULT = SENTRY_STORE_HADOOP_GROUP_MAPPING;
+    // Cache the user -> groups resolution shared by the policy processors
+    public static final String SENTRY_STORE_GROUP_MAPPING_CACHE_ENABLED = "sentry.store.group.mapping.cache.enabled";
+    public static final boolean SENTRY_STORE_GROUP_MAPPING_CACHE_ENABLED_DEFAULT = false;
+    public static final String SENTRY_STORE_GROUP_MAPPING_CACHE_SIZE = "sentry.store.group.mapping.cache.size";
+    public static final long SENTRY_STORE_GROUP_MAPPING_CACHE_SIZE_DEFAULT = 10000;
+    public static final String SENTRY_STORE_GROUP_MAPPING_CACHE_TTL_MS = "sentry.store.group.mapping.cache.ttl.ms";
+    public static final long SENTRY_STORE_GROUP_MAPPING_CACHE_TTL_MS_DEFAULT = 300000;
+    // Entries older than this are reloaded in the background while the cached groups are served
+    public static final String SENTRY_STORE_GROUP_MAPPING_CACHE_REFRESH_MS = "sentry.store.group.mapping.cache.refresh.ms";
+    public static final long SENTRY_STORE_GROUP_MAPPING_CACHE_REFRESH_MS_DEFAULT = 60000;
+    // How long a user without groups is remembered
+    public static final String SENTRY_STORE_GROUP_MAPPING_CACHE_NEGATIVE_TTL_MS = "sentry.store.group.mapping.cache.negative.ttl.ms";
+    public static final long SENTRY_STORE_GROUP_MAPPING_CACHE_NEGATIVE_TTL_MS_DEFAULT = 30000;
 
     public static final String SENTRY_STORE_ORPHANED_PRIVILEGE_REMOVAL = "sentry.store.orphaned.privilege.removal";
     public static final String SENTRY_STORE_ORPHANED_PRIVILEGE_REMOVAL_DEFAULT = "false";
+    // Rename/drop the privileges of a database or table hierarchy with set-based
+    // updates instead of revoking and re-granting them role by role
+    public static final String SENTRY_STORE_BULK_PRIVILEGE_UPDATE = "sentry.store.bulk.privilege.update";
+    public static final boolean SENTRY_STORE_BULK_PRIVILEGE_UPDATE_DEFAULT = true;
     public static final String SENTRY_HA_ENABLED = "sentry.ha.enabled";
     public static final boolean SENTRY_HA_ENABLED_DEFAULT = false;
     public static final String SENTRY_HA_ZK_PROPERTY_PREFIX = "sentry.ha.zookeeper.";
@@ -215,6 +246,9 @@ public class ServiceConstants {
     public static final String SERVER_RPC_ADDRESS = "sentry.service.client.server.rpc-address";
     public static final String SERVER_RPC_CONN_TIMEOUT = "sentry.service.client.server.rpc-connection-timeout";
     public static final int SERVER_RPC_CONN_TIMEOUT_DEFAULT = 200000;
+    // must be enabled when the server runs with the nonblocking server type
+    public static final String SERVER_RPC_FRAMED_TRANSPORT = "sentry.service.client.server.rpc-framed-transport";
+    public static final boolean SERVER_RPC_FRAMED_TRANSPORT_DEFAULT = false;
 
     // HA configuration
     public static final String SERVER_HA_ENABLED = "sentry.ha.enabled";
@@ -223,6 +257,15 @@ public class ServiceConstants {
     public static final String SERVER_HA_ZOOKEEPER_QUORUM_DEFAULT = ServerConfig.SENTRY_HA_ZOOKEEPER_QUORUM_DEFAULT;
     public static final String SENTRY_HA_ZOOKEEPER_NAMESPACE = ServerConfig.SENTRY_HA_ZOOKEEPER_NAMESPACE;
     public static final String SERVER_HA_ZOOKEEPER_NAMESPACE_DEFAULT = ServerConfig.SENTRY_HA_ZOOKEEPER_NAMESPACE_DEFAULT;
+    // route the list RPCs of a requestor or group set to the same live server, so that
+    // each server caches the results of a share of the callers only
+    public static final String SENTRY_HA_AFFINITY_ENABLED = "sentry.service.client.ha.affinity.enabled";
+    public static final boolean SENTRY_HA_AFFINITY_ENABLED_DEFAULT = false;
+    // a server takes at most load-factor times its even share of the keys of one client
+    public static final String SENTRY_HA_AFFINITY_LOAD_FACTOR = "sentry.service.client.ha.affinity.load-factor";
+    public static final float SENTRY_HA_AFFINITY_LOAD_FACTOR_DEFAULT = 1.25f;
+    public static final String SENTRY_HA_AFFINITY_MAX_KEYS = "sentry.service.client.ha.affinity.max-keys";
+    public static final int SENTRY_HA_AFFINITY_MAX_KEYS_DEFAULT = 10000;
 
     // connection pool configuration
     public static final String SENTRY_POOL_ENABLED = "sentry.service.client.connection.pool.enabled";
@@ -240,6 +283,13 @@ public class ServiceConstants {
     public static final String SENTRY_POOL_RETRY_TOTAL = "sentry.service.client.connection.pool.retry-total";
     public static final int SENTRY_POOL_RETRY_TOTAL_DEFAULT = 3;
 
+    // share a fixed set of persistent connections between all callers of one client,
+    // the retry total of the connection pool also applies
+    public static final String SENTRY_FIXED_POOL_ENABLED = "sentry.service.client.connection.fixed-pool.enabled";
+    public static final boolean SENTRY_FIXED_POOL_ENABLED_DEFAULT = false;
+    public static final String SENTRY_FIXED_POOL_CONNECTIONS = "sentry.service.client.connection.fixed-pool.connections";
+    public static final int SENTRY_FIXED_POOL_CONNECTIONS_DEFAULT = 4;
+
     // max message size for thrift messages
     public static final String SENTRY_POLICY_CLIENT_THRIFT_MAX_MESSAGE_SIZE = "sentry.policy.client.thrift.max.message.size";
     public static final long SENTRY_POLICY_CLIENT_THRIFT_MAX_MESSAGE_SIZE_DEFAULT = 100 * 1024 * 1024;
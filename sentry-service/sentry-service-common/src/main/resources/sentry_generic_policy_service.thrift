@@ -111,7 +111,8 @@ struct TAlterSentryRoleGrantPrivilegeRequest {
 2: required string requestorUserName, # user on whose behalf the request is issued
 3: required string roleName,
 4: required string component, # The request is issued to which component
-5: required TSentryPrivilege privilege
+5: TSentryPrivilege privilege, # unset when only privileges is set
+6: optional set<TSentryPrivilege> privileges # granted along with privilege in one transaction
 }
 struct TAlterSentryRoleGrantPrivilegeResponse {
 1: required TSentryResponseStatus status
@@ -123,7 +124,8 @@ struct TAlterSentryRoleRevokePrivilegeRequest {
 2: required string requestorUserName, # user on whose behalf the request is issued
 3: required string roleName,
 4: required string component, # The request is issued to which component
-5: required TSentryPrivilege privilege
+5: TSentryPrivilege privilege, # unset when only privileges is set
+6: optional set<TSentryPrivilege> privileges # revoked along with privilege in one transaction
 }
 struct TAlterSentryRoleRevokePrivilegeResponse {
 1: required TSentryResponseStatus status
@@ -164,6 +164,55 @@ public class DelegateSentryStore implements SentryStoreLayer {
     return null;
   }
 
+  @Override
+  public Object alterRoleGrantPrivileges(final String component, final String role,
+      final Set<PrivilegeObject> privileges, final String grantorPrincipal)
+      throws Exception {
+    delegate.getTransactionManager().executeTransactionWithRetry(
+        new TransactionBlock() {
+          public Object execute(PersistenceManager pm) throws Exception {
+            String trimmedRole = toTrimmedLower(role);
+            MSentryRole mRole = getRole(trimmedRole, pm);
+            if (mRole == null) {
+              throw new SentryNoSuchObjectException("Role: " + trimmedRole + " doesn't exist");
+            }
+            // all privileges are checked first, so none is granted if one is denied
+            for (PrivilegeObject privilege : privileges) {
+              grantOptionCheck(privilege, grantorPrincipal, pm);
+            }
+            for (PrivilegeObject privilege : privileges) {
+              privilegeOperator.grantPrivilege(privilege, mRole, pm);
+            }
+            return null;
+          }
+        });
+    return null;
+  }
+
+  @Override
+  public Object alterRoleRevokePrivileges(final String component, final String role,
+      final Set<PrivilegeObject> privileges, final String grantorPrincipal)
+      throws Exception {
+    delegate.getTransactionManager().executeTransactionWithRetry(
+        new TransactionBlock() {
+          public Object execute(PersistenceManager pm) throws Exception {
+            String trimmedRole = toTrimmedLower(role);
+            MSentryRole mRole = getRole(trimmedRole, pm);
+            if (mRole == null) {
+              throw new SentryNoSuchObjectException("Role: " + trimmedRole + " doesn't exist");
+            }
+            for (PrivilegeObject privilege : privileges) {
+              grantOptionCheck(privilege, grantorPrincipal, pm);
+            }
+            for (PrivilegeObject privilege : privileges) {
+              privilegeOperator.revokePrivilege(privilege, mRole, pm);
+            }
+            return null;
+          }
+        });
+    return null;
+  }
+
   @Override
   public Object renamePrivilege(final String component, final String service,
       final List<? extends Authorizable> oldAuthorizables,
@@ -91,6 +91,28 @@ public interface SentryStoreLayer {
   Object alterRoleRevokePrivilege(String component, String role,
       PrivilegeObject privilege, String grantorPrincipal) throws Exception;
 
+  /**
+   * Grant privileges to role in one transaction, none of them is granted if one fails.
+   * @param component: The request respond to which component
+   * @param role: The name of role
+   * @param privileges: The privilege objects will be granted
+   * @param grantorPrincipal: User on whose behalf the request is launched
+   * @throws Exception
+   */
+  Object alterRoleGrantPrivileges(String component, String role,
+      Set<PrivilegeObject> privileges, String grantorPrincipal) throws Exception;
+
+  /**
+   * Revoke privileges from role in one transaction, none of them is revoked if one fails.
+   * @param component: The request respond to which component
+   * @param role: The name of role
+   * @param privileges: The privilege objects will be revoked
+   * @param grantorPrincipal: User on whose behalf the request is launched
+   * @throws Exception
+   */
+  Object alterRoleRevokePrivileges(String component, String role,
+      Set<PrivilegeObject> privileges, String grantorPrincipal) throws Exception;
+
   /**
    * Rename privilege
    *
@@ -42,6 +42,7 @@ import org.apache.sentry.core.common.exception.SentryThriftAPIMismatchException;
 import org.apache.sentry.provider.db.generic.service.persistent.PrivilegeObject;
 import org.apache.sentry.provider.db.generic.service.persistent.PrivilegeObject.Builder;
 import org.apache.sentry.provider.db.generic.service.persistent.SentryStoreLayer;
+import org.apache.sentry.provider.db.log.entity.JsonLogEntity;
 import org.apache.sentry.provider.db.log.entity.JsonLogEntityFactory;
 import org.apache.sentry.provider.db.log.util.Constants;
 import org.apache.sentry.provider.db.service.model.MSentryGMPrivilege;
@@ -240,6 +241,30 @@ public class SentryGenericPolicyProcessor implements SentryGenericPolicyService.
                                              .build();
   }
 
+  /**
+   * The privileges of a batch grant or revoke request, the single privilege is
+   * optional then.
+   */
+  private Set<PrivilegeObject> toPrivilegeObjects(TSentryPrivilege tSentryPrivilege,
+      Set<TSentryPrivilege> tSentryPrivileges) {
+    Set<PrivilegeObject> privileges = Sets.newLinkedHashSet();
+    if (tSentryPrivilege != null) {
+      privileges.add(toPrivilegeObject(tSentryPrivilege));
+    }
+    for (TSentryPrivilege privilege : tSentryPrivileges) {
+      privileges.add(toPrivilegeObject(privilege));
+    }
+    return privileges;
+  }
+
+  private static TSentryPrivilege checkPrivilegeSet(TSentryPrivilege tSentryPrivilege)
+      throws SentryInvalidInputException {
+    if (tSentryPrivilege == null) {
+      throw new SentryInvalidInputException("privilege or privileges should be set");
+    }
+    return tSentryPrivilege;
+  }
+
   private TSentryPrivilege fromPrivilegeObject(PrivilegeObject privilege) {
 
     TSentryPrivilege tPrivilege = new TSentryPrivilege(privilege.getComponent(), privilege.getService(),
@@ -301,7 +326,8 @@ public class SentryGenericPolicyProcessor implements SentryGenericPolicyService.
 
   private List<? extends Authorizable> toAuthorizables(String privilegeStr) {
     List<Authorizable> authorizables = Lists.newArrayList();
-    if (privilegeStr == null) {
+    // the empty string stands for the service itself
+    if (privilegeStr == null || privilegeStr.isEmpty()) {
       return authorizables;
     }
 
@@ -458,10 +484,17 @@ public class SentryGenericPolicyProcessor implements SentryGenericPolicyService.
       @Override
       public Response<Void> handle() throws Exception {
         validateClientVersion(request.getProtocol_version());
-        store.alterRoleGrantPrivilege(request.getComponent(),
-                request.getRoleName(),
-                toPrivilegeObject(request.getPrivilege()),
-                request.getRequestorUserName());
+        if (request.isSetPrivileges()) {
+          store.alterRoleGrantPrivileges(request.getComponent(),
+                  request.getRoleName(),
+                  toPrivilegeObjects(request.getPrivilege(), request.getPrivileges()),
+                  request.getRequestorUserName());
+        } else {
+          store.alterRoleGrantPrivilege(request.getComponent(),
+                  request.getRoleName(),
+                  toPrivilegeObject(checkPrivilegeSet(request.getPrivilege())),
+                  request.getRequestorUserName());
+        }
        return new Response<Void>(Status.OK());
       }
     });
@@ -472,8 +505,11 @@ public class SentryGenericPolicyProcessor implements SentryGenericPolicyService.
     }
 
     try {
-      AUDIT_LOGGER.info(JsonLogEntityFactory.getInstance()
-        .createJsonLogEntity(request, tResponse, conf).toJsonFormatLog());
+      Set<JsonLogEntity> jsonLogEntitys = JsonLogEntityFactory.getInstance()
+        .createJsonLogEntitys(request, tResponse, conf);
+      for (JsonLogEntity jsonLogEntity : jsonLogEntitys) {
+        AUDIT_LOGGER.info(jsonLogEntity.toJsonFormatLog());
+      }
     } catch (Exception e) {
       // if any exception, log the exception.
       String msg = "Error in creating audit log for grant privilege to role: " + e.getMessage();
@@ -489,10 +525,17 @@ public class SentryGenericPolicyProcessor implements SentryGenericPolicyService.
       @Override
       public Response<Void> handle() throws Exception {
         validateClientVersion(request.getProtocol_version());
-        store.alterRoleRevokePrivilege(request.getComponent(),
-                request.getRoleName(),
-                toPrivilegeObject(request.getPrivilege()),
-                request.getRequestorUserName());
+        if (request.isSetPrivileges()) {
+          store.alterRoleRevokePrivileges(request.getComponent(),
+                  request.getRoleName(),
+                  toPrivilegeObjects(request.getPrivilege(), request.getPrivileges()),
+                  request.getRequestorUserName());
+        } else {
+          store.alterRoleRevokePrivilege(request.getComponent(),
+                  request.getRoleName(),
+                  toPrivilegeObject(checkPrivilegeSet(request.getPrivilege())),
+                  request.getRequestorUserName());
+        }
        return new Response<Void>(Status.OK());
       }
     });
@@ -504,8 +547,11 @@ public class SentryGenericPolicyProcessor implements SentryGenericPolicyService.
     }
 
     try {
-      AUDIT_LOGGER.info(JsonLogEntityFactory.getInstance()
-        .createJsonLogEntity(request, tResponse, conf).toJsonFormatLog());
+      Set<JsonLogEntity> jsonLogEntitys = JsonLogEntityFactory.getInstance()
+        .createJsonLogEntitys(request, tResponse, conf);
+      for (JsonLogEntity jsonLogEntity : jsonLogEntitys) {
+        AUDIT_LOGGER.info(jsonLogEntity.toJsonFormatLog());
+      }
     } catch (Exception e) {
       // if any exception, log the exception.
       String msg = "Error in creating audit log for revoke privilege from role: " + e.getMessage();
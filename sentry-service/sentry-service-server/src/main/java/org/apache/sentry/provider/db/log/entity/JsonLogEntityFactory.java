@@ -20,6 +20,7 @@ package org.apache.sentry.provider.db.log.entity;
 
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -248,47 +249,64 @@ public final class JsonLogEntityFactory {
   }
 
   // log entity for generic model grant privilege
-  public JsonLogEntity createJsonLogEntity(
+  public Set<JsonLogEntity> createJsonLogEntitys(
       org.apache.sentry.provider.db.generic.service.thrift.TAlterSentryRoleGrantPrivilegeRequest request,
       org.apache.sentry.provider.db.generic.service.thrift.TAlterSentryRoleGrantPrivilegeResponse response,
       Configuration conf) {
-    GMAuditMetadataLogEntity gmamle = createCommonGMAMLE(conf, response.getStatus(),
-        request.getRequestorUserName(), request.getClass().getName(), request.getComponent());
-    if (request.getPrivilege() != null) {
-      List<TAuthorizable> authorizables = request.getPrivilege().getAuthorizables();
-      Map<String, String> privilegesMap = new LinkedHashMap<String, String>();
-      if (authorizables != null) {
-        for (TAuthorizable authorizable : authorizables) {
-          privilegesMap.put(authorizable.getType(), authorizable.getName());
-        }
-      }
-      gmamle.setPrivilegesMap(privilegesMap);
+    ImmutableSet.Builder<JsonLogEntity> setBuilder = ImmutableSet.builder();
+    for (org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege privilege
+        : getGMPrivileges(request.getPrivilege(), request.getPrivileges())) {
+      GMAuditMetadataLogEntity gmamle = createCommonGMAMLE(conf, response.getStatus(),
+          request.getRequestorUserName(), request.getClass().getName(), request.getComponent());
+      gmamle.setPrivilegesMap(getPrivilegesMap(privilege));
+      gmamle.setOperationText(CommandUtil.createCmdForGrantGMPrivilege(request));
+      setBuilder.add(gmamle);
     }
-    gmamle.setOperationText(CommandUtil.createCmdForGrantGMPrivilege(request));
-
-    return gmamle;
+    return setBuilder.build();
   }
 
   // log entity for generic model revoke privilege
-  public JsonLogEntity createJsonLogEntity(
+  public Set<JsonLogEntity> createJsonLogEntitys(
       org.apache.sentry.provider.db.generic.service.thrift.TAlterSentryRoleRevokePrivilegeRequest request,
       org.apache.sentry.provider.db.generic.service.thrift.TAlterSentryRoleRevokePrivilegeResponse response,
       Configuration conf) {
-    GMAuditMetadataLogEntity gmamle = createCommonGMAMLE(conf, response.getStatus(),
-        request.getRequestorUserName(), request.getClass().getName(), request.getComponent());
-    if (request.getPrivilege() != null) {
-      List<TAuthorizable> authorizables = request.getPrivilege().getAuthorizables();
-      Map<String, String> privilegesMap = new LinkedHashMap<String, String>();
-      if (authorizables != null) {
-        for (TAuthorizable authorizable : authorizables) {
-          privilegesMap.put(authorizable.getType(), authorizable.getName());
-        }
-      }
-      gmamle.setPrivilegesMap(privilegesMap);
+    ImmutableSet.Builder<JsonLogEntity> setBuilder = ImmutableSet.builder();
+    for (org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege privilege
+        : getGMPrivileges(request.getPrivilege(), request.getPrivileges())) {
+      GMAuditMetadataLogEntity gmamle = createCommonGMAMLE(conf, response.getStatus(),
+          request.getRequestorUserName(), request.getClass().getName(), request.getComponent());
+      gmamle.setPrivilegesMap(getPrivilegesMap(privilege));
+      gmamle.setOperationText(CommandUtil.createCmdForRevokeGMPrivilege(request));
+      setBuilder.add(gmamle);
     }
-    gmamle.setOperationText(CommandUtil.createCmdForRevokeGMPrivilege(request));
+    return setBuilder.build();
+  }
 
-    return gmamle;
+  // the single privilege and the privileges of a batch request
+  private Set<org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege> getGMPrivileges(
+      org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege privilege,
+      Set<org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege> privileges) {
+    Set<org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege> all =
+        new LinkedHashSet<org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege>();
+    if (privilege != null) {
+      all.add(privilege);
+    }
+    if (privileges != null) {
+      all.addAll(privileges);
+    }
+    return all;
+  }
+
+  private Map<String, String> getPrivilegesMap(
+      org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege privilege) {
+    Map<String, String> privilegesMap = new LinkedHashMap<String, String>();
+    List<TAuthorizable> authorizables = privilege.getAuthorizables();
+    if (authorizables != null) {
+      for (TAuthorizable authorizable : authorizables) {
+        privilegesMap.put(authorizable.getType(), authorizable.getName());
+      }
+    }
+    return privilegesMap;
   }
 
   // log entity for generic model add role to group
@@ -160,13 +160,34 @@ public final class CommandUtil {
 
   public static String createCmdForGrantGMPrivilege(
       org.apache.sentry.provider.db.generic.service.thrift.TAlterSentryRoleGrantPrivilegeRequest request) {
-    return createCmdForGrantOrRevokeGMPrivilege(request.getRoleName(), request.getPrivilege(), true);
+    return createCmdForGrantOrRevokeGMPrivileges(request.getRoleName(), request.getPrivilege(),
+        request.getPrivileges(), true);
   }
 
   public static String createCmdForRevokeGMPrivilege(
       org.apache.sentry.provider.db.generic.service.thrift.TAlterSentryRoleRevokePrivilegeRequest request) {
-    return createCmdForGrantOrRevokeGMPrivilege(request.getRoleName(), request.getPrivilege(),
-        false);
+    return createCmdForGrantOrRevokeGMPrivileges(request.getRoleName(), request.getPrivilege(),
+        request.getPrivileges(), false);
+  }
+
+  // the privilege and the privileges of a batch request, one command per privilege
+  private static String createCmdForGrantOrRevokeGMPrivileges(String roleName,
+      org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege privilege,
+      Set<org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege> privileges,
+      boolean isGrant) {
+    StringBuilder sb = new StringBuilder();
+    if (privilege != null) {
+      sb.append(createCmdForGrantOrRevokeGMPrivilege(roleName, privilege, isGrant));
+    }
+    if (privileges != null) {
+      for (org.apache.sentry.provider.db.generic.service.thrift.TSentryPrivilege p : privileges) {
+        if (sb.length() > 0) {
+          sb.append("; ");
+        }
+        sb.append(createCmdForGrantOrRevokeGMPrivilege(roleName, p, isGrant));
+      }
+    }
+    return sb.toString();
   }
 
   private static String createCmdForGrantOrRevokeGMPrivilege(String roleName,
@@ -112,6 +112,7 @@ public class SentryStore {
   private PrivCleaner privCleaner = null;
   private Thread privCleanerThread = null;
   private final TransactionManager tm;
+  private final boolean bulkPrivilegeUpdate;
 
   public SentryStore(Configuration conf) throws Exception {
     this.conf = conf;
@@ -164,6 +165,8 @@ public class SentryStore {
 
     pmf = JDOHelper.getPersistenceManagerFactory(prop);
     tm = new TransactionManager(pmf, conf);
+    bulkPrivilegeUpdate = conf.getBoolean(ServerConfig.SENTRY_STORE_BULK_PRIVILEGE_UPDATE,
+        ServerConfig.SENTRY_STORE_BULK_PRIVILEGE_UPDATE_DEFAULT);
     verifySentryStoreSchema(checkSchemaVersion);
 
     // Kick off the thread that cleans orphaned privileges (unless told not to)
@@ -1551,6 +1554,9 @@ public class SentryStore {
 
             TSentryPrivilege tPrivilege = toSentryPrivilege(tAuthorizable);
             try {
+              if (bulkPrivilegeUpdate && dropOrRenamePrivilegesInBulk(pm, tPrivilege, null)) {
+                return null;
+              }
               if (isMultiActionsSupported(tPrivilege)) {
                 for (String privilegeAction : ALL_ACTIONS) {
                   tPrivilege.setAction(privilegeAction);
@@ -1584,6 +1590,10 @@ public class SentryStore {
             TSentryPrivilege tPrivilege = toSentryPrivilege(tAuthorizable);
             TSentryPrivilege newPrivilege = toSentryPrivilege(newTAuthorizable);
             try {
+              if (bulkPrivilegeUpdate
+                  && dropOrRenamePrivilegesInBulk(pm, tPrivilege, newPrivilege)) {
+                return null;
+              }
               // In case of tables or DBs, check all actions
               if (isMultiActionsSupported(tPrivilege)) {
                 for (String privilegeAction : ALL_ACTIONS) {
@@ -1676,6 +1686,93 @@ public class SentryStore {
     }
   }
 
+  /**
+   * Drop or rename the privileges of a database or table and of all its
+   * children for all roles at once. The whole hierarchy is fetched with a
+   * single query, then the role mappings are removed and the rows deleted
+   * (drop) or the name columns are updated in place (rename), so the cost no
+   * longer depends on the number of roles touching the object.
+   * @param pm Persistence manager instance
+   * @param tPrivilege Privilege describing the old object
+   * @param newTPrivilege Privilege describing the new object, null for drop
+   * @return false if the bulk path doesn't apply and the caller should fall
+   * back to {@link #dropOrRenamePrivilegeForAllRoles}
+   */
+  private boolean dropOrRenamePrivilegesInBulk(PersistenceManager pm,
+      TSentryPrivilege tPrivilege, TSentryPrivilege newTPrivilege) {
+    String scope = tPrivilege.getPrivilegeScope();
+    if (!PrivilegeScope.DATABASE.name().equals(scope)
+        && !PrivilegeScope.TABLE.name().equals(scope)) {
+      return false;
+    }
+    if (newTPrivilege != null && !scope.equals(newTPrivilege.getPrivilegeScope())) {
+      return false;
+    }
+
+    String serverName = safeTrimLower(tPrivilege.getServerName());
+    String dbName = safeTrimLower(tPrivilege.getDbName());
+    String tableName = safeTrimLower(tPrivilege.getTableName());
+    List<MSentryPrivilege> mPrivileges =
+        getMSentryPrivilegesForHierarchy(pm, serverName, dbName, tableName);
+
+    if (newTPrivilege == null) {
+      for (MSentryPrivilege mPrivilege : mPrivileges) {
+        for (MSentryRole mRole : ImmutableSet.copyOf(mPrivilege.getRoles())) {
+          mPrivilege.removeRole(mRole);
+        }
+      }
+      pm.deletePersistentAll(mPrivileges);
+      LOGGER.debug("Dropped {} privileges under {} in bulk", mPrivileges.size(),
+          AUTHORIZABLE_JOINER.join(serverName, dbName, toNULLCol(tableName)));
+      return true;
+    }
+
+    String newDbName = dbName;
+    String newTableName = tableName;
+    if (PrivilegeScope.DATABASE.name().equals(scope)) {
+      newDbName = safeTrimLower(newTPrivilege.getDbName());
+    } else {
+      newTableName = safeTrimLower(newTPrivilege.getTableName());
+    }
+    // Updating in place would violate PRIVILEGE_INDEX if the target object
+    // already holds privileges, the per-role path merges them correctly
+    if (!getMSentryPrivilegesForHierarchy(pm, serverName, newDbName, newTableName).isEmpty()) {
+      return false;
+    }
+    for (MSentryPrivilege mPrivilege : mPrivileges) {
+      if (PrivilegeScope.DATABASE.name().equals(scope)) {
+        mPrivilege.setDbName(newDbName);
+      } else {
+        mPrivilege.setTableName(newTableName);
+      }
+    }
+    pm.makePersistentAll(mPrivileges);
+    LOGGER.debug("Renamed {} privileges under {} in bulk", mPrivileges.size(),
+        AUTHORIZABLE_JOINER.join(serverName, dbName, toNULLCol(tableName)));
+    return true;
+  }
+
+  /**
+   * Get the privileges of the given database or table and of all its children
+   * (tables and columns).
+   */
+  @SuppressWarnings("unchecked")
+  private List<MSentryPrivilege> getMSentryPrivilegesForHierarchy(PersistenceManager pm,
+      String serverName, String dbName, String tableName) {
+    Query query = pm.newQuery(MSentryPrivilege.class);
+    StringBuilder filters = new StringBuilder("this.serverName == serverName"
+        + " && this.dbName == dbName");
+    if (isNULL(tableName)) {
+      query.declareParameters("String serverName, String dbName");
+      query.setFilter(filters.toString());
+      return (List<MSentryPrivilege>) query.execute(toNULLCol(serverName), dbName);
+    }
+    filters.append(" && this.tableName == tableName");
+    query.declareParameters("String serverName, String dbName, String tableName");
+    query.setFilter(filters.toString());
+    return (List<MSentryPrivilege>) query.execute(toNULLCol(serverName), dbName, tableName);
+  }
+
   private TSentryPrivilege toSentryPrivilege(TSentryAuthorizable tAuthorizable)
       throws SentryInvalidInputException {
     TSentryPrivilege tSentryPrivilege = new TSentryPrivilege();
@@ -0,0 +1,173 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.provider.db.service.thrift;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.sentry.core.common.exception.SentryGroupNotFoundException;
+import org.apache.sentry.core.common.exception.SentryUserException;
+import org.apache.sentry.core.common.service.GroupMappingService;
+import org.apache.sentry.service.thrift.ServiceConstants.ServerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * GroupMappingService which caches the groups of each user on top of the
+ * configured group mapping. A single instance is shared by the policy
+ * processors of the server, so expensive lookups (e.g. LDAP through Hadoop
+ * Groups) are done once per user and TTL instead of on every admin RPC.
+ * Entries older than the refresh interval are reloaded in the background
+ * while the cached groups keep being served, and users without groups are
+ * remembered for a shorter period.
+ */
+public class CachingGroupMappingService implements GroupMappingService {
+  private static final Logger LOGGER = LoggerFactory
+      .getLogger(CachingGroupMappingService.class);
+
+  private static CachingGroupMappingService instance = null;
+
+  private final LoadingCache<String, Set<String>> groupsCache;
+  private final Cache<String, Boolean> missingUsersCache;
+  private final AtomicLong negativeHitCount = new AtomicLong();
+
+  @VisibleForTesting
+  CachingGroupMappingService(final GroupMappingService groupMappingService,
+      long maxSize, long ttlMs, long refreshMs, long negativeTtlMs) {
+    final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("sentry-group-mapping-refresh-%d").build());
+    groupsCache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+        .refreshAfterWrite(refreshMs, TimeUnit.MILLISECONDS)
+        .build(new CacheLoader<String, Set<String>>() {
+          @Override
+          public Set<String> load(String user) {
+            return ImmutableSet.copyOf(groupMappingService.getGroups(user));
+          }
+
+          @Override
+          public ListenableFuture<Set<String>> reload(final String user,
+              Set<String> oldGroups) {
+            ListenableFutureTask<Set<String>> task = ListenableFutureTask.create(
+                new Callable<Set<String>>() {
+                  @Override
+                  public Set<String> call() {
+                    return load(user);
+                  }
+                });
+            refreshExecutor.execute(task);
+            return task;
+          }
+        });
+    missingUsersCache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(negativeTtlMs, TimeUnit.MILLISECONDS)
+        .build();
+  }
+
+  /**
+   * Get the cache shared by the processors of this server, creating it from
+   * the group mapping configured in conf on first use.
+   */
+  public static synchronized CachingGroupMappingService getInstance(Configuration conf)
+      throws SentryUserException {
+    if (instance == null) {
+      instance = new CachingGroupMappingService(
+          SentryPolicyStoreProcessor.createGroupMappingService(conf),
+          conf.getLong(ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_SIZE,
+              ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_SIZE_DEFAULT),
+          conf.getLong(ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_TTL_MS,
+              ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_TTL_MS_DEFAULT),
+          conf.getLong(ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_REFRESH_MS,
+              ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_REFRESH_MS_DEFAULT),
+          conf.getLong(ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_NEGATIVE_TTL_MS,
+              ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_NEGATIVE_TTL_MS_DEFAULT));
+      SentryMetrics.getInstance().addGroupMappingCacheGauges(instance);
+      LOGGER.info("Enabled group mapping cache");
+    }
+    return instance;
+  }
+
+  @Override
+  public Set<String> getGroups(String user) {
+    if (missingUsersCache.getIfPresent(user) != null) {
+      negativeHitCount.incrementAndGet();
+      throw new SentryGroupNotFoundException("Unable to obtain groups for " + user);
+    }
+    try {
+      // callers are free to modify the returned set
+      return new HashSet<String>(groupsCache.get(user));
+    } catch (UncheckedExecutionException e) {
+      if (e.getCause() instanceof SentryGroupNotFoundException) {
+        missingUsersCache.put(user, Boolean.TRUE);
+        throw (SentryGroupNotFoundException) e.getCause();
+      }
+      throw Throwables.propagate(e.getCause());
+    } catch (ExecutionException e) {
+      throw new SentryGroupNotFoundException("Unable to obtain groups for " + user,
+          e.getCause());
+    }
+  }
+
+  /**
+   * Drop all cached entries, positive and negative.
+   */
+  public void invalidateAll() {
+    groupsCache.invalidateAll();
+    missingUsersCache.invalidateAll();
+  }
+
+  public CacheStats getStats() {
+    return groupsCache.stats();
+  }
+
+  public long getSize() {
+    return groupsCache.size();
+  }
+
+  public long getNegativeSize() {
+    return missingUsersCache.size();
+  }
+
+  public long getNegativeHitCount() {
+    return negativeHitCount.get();
+  }
+}
@@ -130,6 +130,51 @@ public final class SentryMetrics {
   }
 
 
+  void addGroupMappingCacheGauges(final CachingGroupMappingService groupMappingCache) {
+    addGauge(CachingGroupMappingService.class, "size", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return groupMappingCache.getSize();
+      }
+    });
+    addGauge(CachingGroupMappingService.class, "hit_count", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return groupMappingCache.getStats().hitCount();
+      }
+    });
+    addGauge(CachingGroupMappingService.class, "miss_count", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return groupMappingCache.getStats().missCount();
+      }
+    });
+    addGauge(CachingGroupMappingService.class, "hit_rate", new Gauge<Double>() {
+      @Override
+      public Double getValue() {
+        return groupMappingCache.getStats().hitRate();
+      }
+    });
+    addGauge(CachingGroupMappingService.class, "load_failure_count", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return groupMappingCache.getStats().loadExceptionCount();
+      }
+    });
+    addGauge(CachingGroupMappingService.class, "negative_size", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return groupMappingCache.getNegativeSize();
+      }
+    });
+    addGauge(CachingGroupMappingService.class, "negative_hit_count", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return groupMappingCache.getNegativeHitCount();
+      }
+    });
+  }
+
   /**
    * Initialize reporters. Only initializes once.
    * <p>
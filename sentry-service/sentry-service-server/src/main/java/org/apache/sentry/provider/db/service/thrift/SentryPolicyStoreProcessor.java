@@ -823,12 +823,21 @@ public class SentryPolicyStoreProcessor implements SentryPolicyService.Iface {
 
   public static Set<String> getGroupsFromUserName(Configuration conf,
       String userName) throws SentryUserException {
+    if (conf.getBoolean(ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_ENABLED,
+        ServerConfig.SENTRY_STORE_GROUP_MAPPING_CACHE_ENABLED_DEFAULT)) {
+      return CachingGroupMappingService.getInstance(conf).getGroups(userName);
+    }
+    return createGroupMappingService(conf).getGroups(userName);
+  }
+
+  // load the group mapping provider class
+  static GroupMappingService createGroupMappingService(Configuration conf)
+      throws SentryUserException {
     String groupMapping = conf.get(ServerConfig.SENTRY_STORE_GROUP_MAPPING,
         ServerConfig.SENTRY_STORE_GROUP_MAPPING_DEFAULT);
     String authResoruce = conf
         .get(ServerConfig.SENTRY_STORE_GROUP_MAPPING_RESOURCE);
 
-    // load the group mapping provider class
     GroupMappingService groupMappingService;
     try {
       Constructor<?> constrctor = Class.forName(groupMapping)
@@ -851,7 +860,7 @@ public class SentryPolicyStoreProcessor implements SentryPolicyService.Iface {
     } catch (InvocationTargetException e) {
       throw new SentryUserException("Unable to instantiate group mapping", e);
     }
-    return groupMappingService.getGroups(userName);
+    return groupMappingService;
   }
 
   @Override
@@ -53,7 +53,8 @@ public final class ThriftUtil {
       if (tSocket != null) {
         setIpAddress(tSocket.getSocket().getInetAddress().toString());
       } else {
-        LOGGER.warn("Unknown Transport, cannot determine ipAddress");
+        // e.g. the in-memory frame transport of the nonblocking server
+        LOGGER.debug("Unknown Transport, cannot determine ipAddress");
       }
     } catch (Exception e) {
       // If there has exception when get impersonator info, log the error information.
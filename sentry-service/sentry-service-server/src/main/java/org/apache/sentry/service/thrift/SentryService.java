@@ -33,7 +33,10 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.security.auth.Subject;
 
@@ -58,6 +61,8 @@ import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.server.TServer;
 import org.apache.thrift.server.TServerEventHandler;
 import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.server.TThreadedSelectorServer;
+import org.apache.thrift.transport.TNonblockingServerSocket;
 import org.apache.thrift.transport.TSaslServerTransport;
 import org.apache.thrift.transport.TServerSocket;
 import org.apache.thrift.transport.TServerTransport;
@@ -67,6 +72,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 public class SentryService implements Callable {
 
@@ -81,6 +87,9 @@ public class SentryService implements Callable {
   private final InetSocketAddress address;
   private final int maxThreads;
   private final int minThreads;
+  private final String serverType;
+  private final int selectorThreads;
+  private final int requestQueueSize;
   private boolean kerberos;
   private final String principal;
   private final String[] principalParts;
@@ -113,6 +122,21 @@ public class SentryService implements Callable {
         ServerConfig.RPC_MIN_THREADS_DEFAULT);
     maxMessageSize = conf.getLong(ServerConfig.SENTRY_POLICY_SERVER_THRIFT_MAX_MESSAGE_SIZE,
         ServerConfig.SENTRY_POLICY_SERVER_THRIFT_MAX_MESSAGE_SIZE_DEFAULT);
+    serverType = conf.get(ServerConfig.RPC_SERVER_TYPE,
+        ServerConfig.RPC_SERVER_TYPE_DEFAULT).trim().toLowerCase();
+    Preconditions.checkArgument(ServerConfig.RPC_SERVER_TYPE_THREADPOOL.equals(serverType)
+        || ServerConfig.RPC_SERVER_TYPE_NONBLOCKING.equals(serverType),
+        "Unknown " + ServerConfig.RPC_SERVER_TYPE + ": " + serverType);
+    // Thrift's nonblocking servers read whole frames off the selector and
+    // cannot run the SASL handshake, so they are limited to simple auth
+    Preconditions.checkArgument(!(kerberos
+        && ServerConfig.RPC_SERVER_TYPE_NONBLOCKING.equals(serverType)),
+        ServerConfig.RPC_SERVER_TYPE + "=" + serverType
+        + " is not supported with kerberos security mode");
+    selectorThreads = conf.getInt(ServerConfig.RPC_SELECTOR_THREADS,
+        ServerConfig.RPC_SELECTOR_THREADS_DEFAULT);
+    requestQueueSize = conf.getInt(ServerConfig.RPC_REQUEST_QUEUE_SIZE,
+        ServerConfig.RPC_REQUEST_QUEUE_SIZE_DEFAULT);
     if (kerberos) {
       // Use Hadoop libraries to translate the _HOST placeholder with actual hostname
       try {
@@ -212,6 +236,18 @@ public class SentryService implements Callable {
       throw new IllegalStateException(
           "Failed to register any processors from " + processorFactories);
     }
+    if (ServerConfig.RPC_SERVER_TYPE_NONBLOCKING.equals(serverType)) {
+      thriftServer = createNonblockingServer(processor);
+    } else {
+      thriftServer = createThreadPoolServer(processor);
+    }
+    LOGGER.info("Serving on " + address + " with " + serverType + " server");
+    startSentryWebServer();
+    thriftServer.serve();
+  }
+
+  private TServer createThreadPoolServer(TMultiplexedProcessor processor)
+      throws Exception {
     TServerTransport serverTransport = new TServerSocket(address);
     TTransportFactory transportFactory = null;
     if (kerberos) {
@@ -228,10 +264,31 @@ public class SentryService implements Callable {
         .transportFactory(transportFactory)
         .protocolFactory(new TBinaryProtocol.Factory(true, true, maxMessageSize, maxMessageSize))
         .minWorkerThreads(minThreads).maxWorkerThreads(maxThreads);
-    thriftServer = new TThreadPoolServer(args);
-    LOGGER.info("Serving on " + address);
-    startSentryWebServer();
-    thriftServer.serve();
+    return new TThreadPoolServer(args);
+  }
+
+  /**
+   * Selector based server: idle connections only cost a registered channel,
+   * and requests are handed to a bounded worker pool with a bounded queue.
+   * Clients must use framed transport.
+   */
+  private TServer createNonblockingServer(TMultiplexedProcessor processor)
+      throws Exception {
+    TNonblockingServerSocket serverTransport = new TNonblockingServerSocket(address);
+    // a queued executor only grows past its core size once the queue is full,
+    // so size the core to maxThreads and let idle workers time out instead
+    ThreadPoolExecutor workers = new ThreadPoolExecutor(maxThreads, maxThreads,
+        60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(requestQueueSize),
+        new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("sentry-rpc-worker-%d").build());
+    workers.allowCoreThreadTimeOut(true);
+    TThreadedSelectorServer.Args args = new TThreadedSelectorServer.Args(
+        serverTransport).selectorThreads(selectorThreads)
+        .executorService(workers);
+    args.maxReadBufferBytes = maxMessageSize;
+    args.processor(processor)
+        .protocolFactory(new TBinaryProtocol.Factory(true, true, maxMessageSize, maxMessageSize));
+    return new TThreadedSelectorServer(args);
   }
 
   private void startSentryWebServer() throws Exception{
@@ -407,7 +464,7 @@ public class SentryService implements Callable {
   }
 
   /**
-   * Add Thrift event handler to underlying thrift threadpool server
+   * Add Thrift event handler to underlying thrift server
    * @param eventHandler
    */
   public void setThriftEventHandler(TServerEventHandler eventHandler) throws IllegalStateException {
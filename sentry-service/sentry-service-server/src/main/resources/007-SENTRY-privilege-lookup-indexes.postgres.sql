@@ -0,0 +1,8 @@
+-- Lookups of the role maps by privilege, group and user (the primary keys lead with ROLE_ID)
+CREATE INDEX "SEN_RLE_DB_PRV_MAP_PRV_IDX" ON "SENTRY_ROLE_DB_PRIVILEGE_MAP" USING btree ("DB_PRIVILEGE_ID");
+
+CREATE INDEX "SEN_RLE_GM_PRV_MAP_PRV_IDX" ON "SENTRY_ROLE_GM_PRIVILEGE_MAP" USING btree ("GM_PRIVILEGE_ID");
+
+CREATE INDEX "SEN_RLE_GRP_MAP_GRP_IDX" ON "SENTRY_ROLE_GROUP_MAP" USING btree ("GROUP_ID");
+
+CREATE INDEX "SEN_RLE_USR_MAP_USR_IDX" ON "SENTRY_ROLE_USER_MAP" USING btree ("USER_ID");
@@ -195,3 +195,12 @@ ALTER TABLE "SENTRY_ROLE_USER_MAP"
 ALTER TABLE "SENTRY_ROLE_USER_MAP"
   ADD CONSTRAINT "SEN_ROLE_USER_MAP_SEN_USER_FK"
   FOREIGN KEY ("USER_ID") REFERENCES "SENTRY_USER"("USER_ID") INITIALLY DEFERRED;
+
+-- Lookups of the role maps by privilege, group and user (the primary keys lead with ROLE_ID)
+CREATE INDEX "SEN_RLE_DB_PRV_MAP_PRV_IDX" ON "SENTRY_ROLE_DB_PRIVILEGE_MAP" ("DB_PRIVILEGE_ID");
+
+CREATE INDEX "SEN_RLE_GM_PRV_MAP_PRV_IDX" ON "SENTRY_ROLE_GM_PRIVILEGE_MAP" ("GM_PRIVILEGE_ID");
+
+CREATE INDEX "SEN_RLE_GRP_MAP_GRP_IDX" ON "SENTRY_ROLE_GROUP_MAP" ("GROUP_ID");
+
+CREATE INDEX "SEN_RLE_USR_MAP_USR_IDX" ON "SENTRY_ROLE_USER_MAP" ("USER_ID");
@@ -136,6 +136,62 @@ public class TestSentryGenericServiceIntegration extends SentryGenericServiceInt
       }});
   }
 
+  @Test
+  public void testGrantRevokePrivileges() throws Exception {
+    runTestAsSubject(new TestOperation(){
+      @Override
+      public void runTestAsSubject() throws Exception {
+        String adminUser = ADMIN_USER;
+        Set<String> adminGroup = Sets.newHashSet(ADMIN_GROUP);
+        String grantOptionUser = "user1";
+        Set<String> grantOptionGroup = Sets.newHashSet("group1");
+        setLocalGroupMapping(adminUser, adminGroup);
+        setLocalGroupMapping(grantOptionUser, grantOptionGroup);
+        writePolicyFile();
+
+        String grantRole = "grant_r";
+        String testRole = "test_role";
+        client.createRole(adminUser, grantRole, SOLR);
+        client.createRole(adminUser, testRole, SOLR);
+
+        TSentryPrivilege grantPrivilege = new TSentryPrivilege(SOLR, "service1",
+            fromAuthorizable(Arrays.asList(new Collection("c1"))),
+            SearchConstants.QUERY);
+        grantPrivilege.setGrantOption(TSentryGrantOption.TRUE);
+        client.grantPrivilege(adminUser, grantRole, SOLR, grantPrivilege);
+        client.addRoleToGroups(adminUser, grantRole, SOLR, grantOptionGroup);
+
+        TSentryPrivilege c1Privilege = new TSentryPrivilege(SOLR, "service1",
+            fromAuthorizable(Arrays.asList(new Collection("c1"), new Field("f1"))),
+            SearchConstants.QUERY);
+        TSentryPrivilege c2Privilege = new TSentryPrivilege(SOLR, "service1",
+            fromAuthorizable(Arrays.asList(new Collection("c2"), new Field("f1"))),
+            SearchConstants.QUERY);
+        Set<TSentryPrivilege> privileges = Sets.newHashSet(c1Privilege, c2Privilege);
+
+        // grantOptionUser can't grant the privilege on c2, so none is granted
+        try {
+          client.grantPrivileges(grantOptionUser, testRole, SOLR, privileges);
+          fail("grantOptionUser can't grant privilege on c2");
+        } catch (SentryUserException e) {
+        }
+        assertEquals(0, client.listPrivilegesByRoleName(adminUser, testRole, SOLR, "service1").size());
+
+        client.grantPrivileges(adminUser, testRole, SOLR, privileges);
+        assertEquals(2, client.listPrivilegesByRoleName(adminUser, testRole, SOLR, "service1").size());
+
+        try {
+          client.revokePrivileges(grantOptionUser, testRole, SOLR, privileges);
+          fail("grantOptionUser can't revoke privilege on c2");
+        } catch (SentryUserException e) {
+        }
+        assertEquals(2, client.listPrivilegesByRoleName(adminUser, testRole, SOLR, "service1").size());
+
+        client.revokePrivileges(adminUser, testRole, SOLR, privileges);
+        assertEquals(0, client.listPrivilegesByRoleName(adminUser, testRole, SOLR, "service1").size());
+      }});
+  }
+
   @Test
   public void testMultipleRolesSamePrivilege() throws Exception {
     runTestAsSubject(new TestOperation(){
@@ -446,6 +502,13 @@ public class TestSentryGenericServiceIntegration extends SentryGenericServiceInt
         actualMap = privilegeMap.get(new String("Collection=c1"));
         assertEquals(1, actualMap.getPrivilegeMap().size());
         assertEquals(2, actualMap.getPrivilegeMap().get(testRole).size());
+
+        //test listPrivilegsbyAuthorizable of all the privileges of the service
+        privilegeMap = client.listPrivilegsbyAuthorizable(SOLR,
+            "service1", adminUser, Sets.newHashSet(""), null, null);
+        actualMap = privilegeMap.get("");
+        assertEquals(1, actualMap.getPrivilegeMap().size());
+        assertEquals(2, actualMap.getPrivilegeMap().get(testRole).size());
       }});
   }
 
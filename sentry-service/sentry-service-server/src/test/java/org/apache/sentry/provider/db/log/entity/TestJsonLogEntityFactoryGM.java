@@ -23,6 +23,7 @@ import static org.junit.Assert.assertEquals;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -49,6 +50,9 @@ import org.apache.sentry.service.thrift.Status;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
 public class TestJsonLogEntityFactoryGM {
 
   private static Configuration conf;
@@ -121,9 +125,10 @@ public class TestJsonLogEntityFactoryGM {
     TSentryPrivilege privilege = getPrivilege();
     request.setPrivilege(privilege);
     response.setStatus(Status.OK());
-    GMAuditMetadataLogEntity amle = (GMAuditMetadataLogEntity) JsonLogEntityFactory.getInstance()
-        .createJsonLogEntity(
-        request, response, conf);
+    Set<JsonLogEntity> amles = JsonLogEntityFactory.getInstance()
+        .createJsonLogEntitys(request, response, conf);
+    assertEquals(1, amles.size());
+    GMAuditMetadataLogEntity amle = (GMAuditMetadataLogEntity) amles.iterator().next();
     assertCommon(
         amle,
         Constants.TRUE,
@@ -132,8 +137,9 @@ public class TestJsonLogEntityFactoryGM {
         Constants.OBJECT_TYPE_PRINCIPAL, TEST_PRIVILEGES_MAP);
 
     response.setStatus(Status.InvalidInput("", null));
-    amle = (GMAuditMetadataLogEntity) JsonLogEntityFactory.getInstance().createJsonLogEntity(
-        request, response, conf);
+    amles = JsonLogEntityFactory.getInstance().createJsonLogEntitys(request, response, conf);
+    assertEquals(1, amles.size());
+    amle = (GMAuditMetadataLogEntity) amles.iterator().next();
     assertCommon(
         amle,
         Constants.FALSE,
@@ -152,8 +158,10 @@ public class TestJsonLogEntityFactoryGM {
     TSentryPrivilege privilege = getPrivilege();
     request.setPrivilege(privilege);
     response.setStatus(Status.OK());
-    GMAuditMetadataLogEntity amle = (GMAuditMetadataLogEntity) JsonLogEntityFactory.getInstance()
-        .createJsonLogEntity(request, response, conf);
+    Set<JsonLogEntity> amles = JsonLogEntityFactory.getInstance()
+        .createJsonLogEntitys(request, response, conf);
+    assertEquals(1, amles.size());
+    GMAuditMetadataLogEntity amle = (GMAuditMetadataLogEntity) amles.iterator().next();
     assertCommon(
         amle,
         Constants.TRUE,
@@ -162,8 +170,9 @@ public class TestJsonLogEntityFactoryGM {
         Constants.OBJECT_TYPE_PRINCIPAL, TEST_PRIVILEGES_MAP);
 
     response.setStatus(Status.InvalidInput("", null));
-    amle = (GMAuditMetadataLogEntity) JsonLogEntityFactory.getInstance().createJsonLogEntity(
-        request, response, conf);
+    amles = JsonLogEntityFactory.getInstance().createJsonLogEntitys(request, response, conf);
+    assertEquals(1, amles.size());
+    amle = (GMAuditMetadataLogEntity) amles.iterator().next();
 
     assertCommon(
         amle,
@@ -173,6 +182,31 @@ public class TestJsonLogEntityFactoryGM {
         Constants.OBJECT_TYPE_PRINCIPAL, TEST_PRIVILEGES_MAP);
   }
 
+  /**
+   * A batch grant logs one entity per privilege, each with its own authorizables.
+   */
+  @Test
+  public void testGrantPrivileges() {
+    TAlterSentryRoleGrantPrivilegeRequest request = new TAlterSentryRoleGrantPrivilegeRequest();
+    request.setRequestorUserName(TEST_USER_NAME);
+    request.setRoleName(TEST_ROLE_NAME);
+    TSentryPrivilege other = getPrivilege();
+    other.setAuthorizables(Lists.newArrayList(new TAuthorizable("resourceType1", "other")));
+    request.setPrivileges(Sets.newLinkedHashSet(Lists.newArrayList(getPrivilege(), other)));
+    TAlterSentryRoleGrantPrivilegeResponse response = new TAlterSentryRoleGrantPrivilegeResponse();
+    response.setStatus(Status.OK());
+
+    Set<JsonLogEntity> amles = JsonLogEntityFactory.getInstance()
+        .createJsonLogEntitys(request, response, conf);
+    assertEquals(2, amles.size());
+    Iterator<JsonLogEntity> iter = amles.iterator();
+    assertPrivilegesMap(TEST_PRIVILEGES_MAP,
+        ((GMAuditMetadataLogEntity) iter.next()).getPrivilegesMap());
+    Map<String, String> otherMap = new HashMap<String, String>();
+    otherMap.put("resourceType1", "other");
+    assertPrivilegesMap(otherMap, ((GMAuditMetadataLogEntity) iter.next()).getPrivilegesMap());
+  }
+
   @Test
   public void testAddRole() {
     TAlterSentryRoleAddGroupsRequest request = new TAlterSentryRoleAddGroupsRequest();
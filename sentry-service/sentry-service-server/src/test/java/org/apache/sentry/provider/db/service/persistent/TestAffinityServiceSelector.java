@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.sentry.provider.db.service.persistent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.curator.x.discovery.ServiceInstance;
+import org.junit.Test;
+
+public class TestAffinityServiceSelector {
+
+  private static List<ServiceInstance<Void>> createInstances(int count) throws Exception {
+    List<ServiceInstance<Void>> instances = new ArrayList<ServiceInstance<Void>>();
+    for (int i = 0; i < count; i++) {
+      instances.add(ServiceInstance.<Void>builder().name("sentry").id("server" + i)
+          .address("localhost" + i).port(8038).build());
+    }
+    return instances;
+  }
+
+  private static Map<String, String> assignAll(AffinityServiceSelector selector,
+      List<ServiceInstance<Void>> instances, int keys) {
+    Map<String, String> assignments = new HashMap<String, String>();
+    for (int i = 0; i < keys; i++) {
+      assignments.put("user" + i, selector.select("user" + i, instances).getId());
+    }
+    return assignments;
+  }
+
+  @Test
+  public void testSameKeySameServer() throws Exception {
+    List<ServiceInstance<Void>> instances = createInstances(4);
+    AffinityServiceSelector selector = new AffinityServiceSelector(1.25f, 1000);
+    Map<String, String> first = assignAll(selector, instances, 100);
+    assertEquals(first, assignAll(selector, instances, 100));
+    assertNull(selector.select("user0", new ArrayList<ServiceInstance<Void>>()));
+  }
+
+  @Test
+  public void testBoundedLoad() throws Exception {
+    List<ServiceInstance<Void>> instances = createInstances(4);
+    AffinityServiceSelector selector = new AffinityServiceSelector(1.25f, 10000);
+    Map<String, String> assignments = assignAll(selector, instances, 1000);
+    Map<String, Integer> loads = new HashMap<String, Integer>();
+    for (String id : assignments.values()) {
+      loads.put(id, loads.containsKey(id) ? loads.get(id) + 1 : 1);
+    }
+    assertEquals(4, loads.size());
+    for (int load : loads.values()) {
+      assertTrue("load " + load, load <= Math.ceil(1.25 * 1000 / 4));
+    }
+  }
+
+  @Test
+  public void testRemovedServerOnlyMovesItsKeys() throws Exception {
+    List<ServiceInstance<Void>> instances = createInstances(4);
+    // no load bound, the assignment is only decided by the hash
+    AffinityServiceSelector selector = new AffinityServiceSelector(100f, 10000);
+    Map<String, String> before = assignAll(selector, instances, 1000);
+    ServiceInstance<Void> removed = instances.remove(3);
+    Map<String, String> after = assignAll(selector, instances, 1000);
+    for (Map.Entry<String, String> entry : before.entrySet()) {
+      if (!entry.getValue().equals(removed.getId())) {
+        assertEquals(entry.getValue(), after.get(entry.getKey()));
+      }
+    }
+  }
+
+  @Test
+  public void testMaxKeys() throws Exception {
+    List<ServiceInstance<Void>> instances = createInstances(2);
+    AffinityServiceSelector selector = new AffinityServiceSelector(1.25f, 10);
+    assignAll(selector, instances, 100);
+    assertEquals(10, selector.getAssignedKeys());
+  }
+}
@@ -2084,6 +2084,115 @@ public class TestSentryStore extends org.junit.Assert {
     assertEquals(1, privilegeSet.size());
   }
 
+  /**
+   * Rename and drop a database holding many table and column privileges
+   * spread over several roles, which goes through the bulk update path.
+   */
+  @Test
+  public void testRenameAndDropDbHierarchy() throws Exception {
+    String grantor = "g1";
+    String[] roleNames = { "role1", "role2", "role3" };
+    int numTables = 10, numColumns = 20;
+    for (String roleName : roleNames) {
+      sentryStore.createSentryRole(roleName);
+    }
+
+    TSentryPrivilege privilege_db1 = new TSentryPrivilege();
+    privilege_db1.setPrivilegeScope("DATABASE");
+    privilege_db1.setServerName("server1");
+    privilege_db1.setDbName("db1");
+    privilege_db1.setAction(AccessConstants.ALL);
+    privilege_db1.setCreateTime(System.currentTimeMillis());
+    sentryStore.alterSentryRoleGrantPrivilege(grantor, roleNames[0], privilege_db1);
+
+    TSentryPrivilege privilege_other_db = new TSentryPrivilege(privilege_db1);
+    privilege_other_db.setDbName("db10");
+    sentryStore.alterSentryRoleGrantPrivilege(grantor, roleNames[0], privilege_other_db);
+
+    for (int t = 0; t < numTables; t++) {
+      TSentryPrivilege privilege_tbl = new TSentryPrivilege(privilege_db1);
+      privilege_tbl.setPrivilegeScope("TABLE");
+      privilege_tbl.setTableName("tbl" + t);
+      privilege_tbl.setAction(AccessConstants.INSERT);
+      sentryStore.alterSentryRoleGrantPrivilege(grantor, roleNames[1], privilege_tbl);
+      for (int c = 0; c < numColumns; c++) {
+        TSentryPrivilege privilege_col = new TSentryPrivilege(privilege_tbl);
+        privilege_col.setPrivilegeScope("COLUMN");
+        privilege_col.setColumnName("c" + c);
+        privilege_col.setAction(AccessConstants.SELECT);
+        sentryStore.alterSentryRoleGrantPrivilege(grantor, roleNames[1], privilege_col);
+        sentryStore.alterSentryRoleGrantPrivilege(grantor, roleNames[2], privilege_col);
+      }
+    }
+
+    TSentryAuthorizable oldDb = toTSentryAuthorizable(privilege_db1);
+    TSentryAuthorizable newDb = toTSentryAuthorizable(privilege_db1);
+    newDb.setDb("db2");
+    sentryStore.renamePrivilege(oldDb, newDb);
+
+    Set<TSentryPrivilege> privilegeSet = sentryStore
+        .getAllTSentryPrivilegesByRoleName(roleNames[0]);
+    assertEquals(2, privilegeSet.size());
+    privilegeSet = sentryStore.getAllTSentryPrivilegesByRoleName(roleNames[1]);
+    assertEquals(numTables * (numColumns + 1), privilegeSet.size());
+    for (TSentryPrivilege privilege : privilegeSet) {
+      assertEquals("db2", privilege.getDbName());
+      assertFalse(privilege.getTableName().isEmpty());
+    }
+    privilegeSet = sentryStore.getAllTSentryPrivilegesByRoleName(roleNames[2]);
+    assertEquals(numTables * numColumns, privilegeSet.size());
+    for (TSentryPrivilege privilege : privilegeSet) {
+      assertEquals("db2", privilege.getDbName());
+      assertEquals(AccessConstants.SELECT, privilege.getAction());
+    }
+
+    sentryStore.dropPrivilege(newDb);
+    privilegeSet = sentryStore.getAllTSentryPrivilegesByRoleName(roleNames[0]);
+    assertEquals(1, privilegeSet.size());
+    assertEquals("db10", Iterables.getOnlyElement(privilegeSet).getDbName());
+    assertEquals(0, sentryStore.getAllTSentryPrivilegesByRoleName(roleNames[1]).size());
+    assertEquals(0, sentryStore.getAllTSentryPrivilegesByRoleName(roleNames[2]).size());
+    assertEquals(Long.valueOf(1), sentryStore.getPrivilegeCountGauge().getValue());
+  }
+
+  /**
+   * Renaming onto a table that already has privileges can't be done in place,
+   * the store falls back to revoking and re-granting role by role.
+   */
+  @Test
+  public void testRenameTableOntoExistingPrivileges() throws Exception {
+    String roleName1 = "role1", roleName2 = "role2";
+    String grantor = "g1";
+    String table1 = "tbl1", table2 = "tbl2";
+    sentryStore.createSentryRole(roleName1);
+    sentryStore.createSentryRole(roleName2);
+
+    TSentryPrivilege privilege_tbl1 = new TSentryPrivilege();
+    privilege_tbl1.setPrivilegeScope("TABLE");
+    privilege_tbl1.setServerName("server1");
+    privilege_tbl1.setDbName("db1");
+    privilege_tbl1.setTableName(table1);
+    privilege_tbl1.setAction(AccessConstants.SELECT);
+    privilege_tbl1.setCreateTime(System.currentTimeMillis());
+
+    TSentryPrivilege privilege_tbl2 = new TSentryPrivilege(privilege_tbl1);
+    privilege_tbl2.setTableName(table2);
+
+    sentryStore.alterSentryRoleGrantPrivilege(grantor, roleName1, privilege_tbl1);
+    sentryStore.alterSentryRoleGrantPrivilege(grantor, roleName2, privilege_tbl2);
+
+    TSentryAuthorizable oldTable = toTSentryAuthorizable(privilege_tbl1);
+    TSentryAuthorizable newTable = toTSentryAuthorizable(privilege_tbl2);
+    sentryStore.renamePrivilege(oldTable, newTable);
+
+    for (String roleName : Sets.newHashSet(roleName1, roleName2)) {
+      Set<TSentryPrivilege> privilegeSet = sentryStore
+          .getAllTSentryPrivilegesByRoleName(roleName);
+      assertEquals(1, privilegeSet.size());
+      assertEquals(table2, Iterables.getOnlyElement(privilegeSet).getTableName());
+    }
+  }
+
   @Test
   public void testSentryTablePrivilegeSome() throws Exception {
     String roleName = "test-table-privilege-some";
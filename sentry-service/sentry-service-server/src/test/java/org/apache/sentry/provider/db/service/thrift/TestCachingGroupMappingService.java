@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.provider.db.service.thrift;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sentry.core.common.exception.SentryGroupNotFoundException;
+import org.apache.sentry.core.common.service.GroupMappingService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class TestCachingGroupMappingService {
+
+  private static final long HOUR_MS = 60L * 60L * 1000L;
+
+  private CountingGroupMappingService groupMapping;
+  private CachingGroupMappingService cache;
+
+  @Before
+  public void setup() {
+    groupMapping = new CountingGroupMappingService();
+    cache = new CachingGroupMappingService(groupMapping, 100, HOUR_MS, HOUR_MS, HOUR_MS);
+  }
+
+  @Test
+  public void testGroupsAreCached() throws Exception {
+    Assert.assertEquals(Sets.newHashSet("g1", "g2"), cache.getGroups("user1"));
+    Assert.assertEquals(Sets.newHashSet("g1", "g2"), cache.getGroups("user1"));
+    Assert.assertEquals(1, groupMapping.lookups.get());
+    Assert.assertEquals(1, cache.getStats().hitCount());
+    Assert.assertEquals(1, cache.getSize());
+
+    // the cached entry must not be changed through the returned set
+    cache.getGroups("user1").add("admin");
+    Assert.assertEquals(Sets.newHashSet("g1", "g2"), cache.getGroups("user1"));
+
+    cache.invalidateAll();
+    cache.getGroups("user1");
+    Assert.assertEquals(2, groupMapping.lookups.get());
+  }
+
+  @Test
+  public void testMissingUserIsCached() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      try {
+        cache.getGroups("nobody");
+        Assert.fail("Expected SentryGroupNotFoundException");
+      } catch (SentryGroupNotFoundException e) {
+        // expected
+      }
+    }
+    Assert.assertEquals(1, groupMapping.lookups.get());
+    Assert.assertEquals(1, cache.getNegativeSize());
+    Assert.assertEquals(2, cache.getNegativeHitCount());
+  }
+
+  private static class CountingGroupMappingService implements GroupMappingService {
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @Override
+    public Set<String> getGroups(String user) {
+      lookups.incrementAndGet();
+      if ("nobody".equals(user)) {
+        throw new SentryGroupNotFoundException("No groups found for user " + user);
+      }
+      return new HashSet<String>(Sets.newHashSet("g1", "g2"));
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.provider.db.service.thrift;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.sentry.service.thrift.SentryService;
+import org.apache.sentry.service.thrift.SentryServiceClientFactory;
+import org.apache.sentry.service.thrift.SentryServiceIntegrationBase;
+import org.apache.sentry.service.thrift.ServiceConstants.ClientConfig;
+import org.apache.sentry.service.thrift.ServiceConstants.ServerConfig;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Test the nonblocking server keeps serving requests while far more client
+ * connections are open than it has worker threads.
+ */
+public class TestSentryServerNonblockingWithoutKerberos extends SentryServiceIntegrationBase {
+  private static final int WORKER_THREADS = 4;
+  private static final int IDLE_CONNECTIONS = 200;
+  private static final int CONCURRENT_CLIENTS = 32;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    SentryServiceIntegrationBase.kerberos = false;
+    conf.set(ServerConfig.RPC_SERVER_TYPE, ServerConfig.RPC_SERVER_TYPE_NONBLOCKING);
+    conf.setInt(ServerConfig.RPC_MAX_THREADS, WORKER_THREADS);
+    conf.setBoolean(ClientConfig.SERVER_RPC_FRAMED_TRANSPORT, true);
+    SentryServiceIntegrationBase.beforeSetup();
+    SentryServiceIntegrationBase.setupConf();
+    SentryServiceIntegrationBase.startSentryService();
+    SentryServiceIntegrationBase.afterSetup();
+  }
+
+  @Test
+  public void testIdleConnectionsDoNotPinWorkers() throws Exception {
+    String requestorUserName = ADMIN_USER;
+    setLocalGroupMapping(requestorUserName, Sets.newHashSet(ADMIN_GROUP));
+    writePolicyFile();
+
+    // with the threadpool server each of these would hold one of the
+    // WORKER_THREADS threads and the client below would never be served
+    List<Socket> idleConnections = new ArrayList<Socket>();
+    try {
+      for (int i = 0; i < IDLE_CONNECTIONS; i++) {
+        idleConnections.add(new Socket(server.getAddress().getHostName(),
+            server.getAddress().getPort()));
+      }
+      SentryPolicyServiceClient newClient = SentryServiceClientFactory.create(conf);
+      try {
+        newClient.dropRoleIfExists(requestorUserName, "admin_r");
+        newClient.createRole(requestorUserName, "admin_r");
+        Assert.assertEquals(1, newClient.listRoles(requestorUserName).size());
+      } finally {
+        newClient.close();
+      }
+    } finally {
+      for (Socket socket : idleConnections) {
+        socket.close();
+      }
+    }
+  }
+
+  @Test
+  public void testConcurrentClients() throws Exception {
+    final String requestorUserName = ADMIN_USER;
+    setLocalGroupMapping(requestorUserName, Sets.newHashSet(ADMIN_GROUP));
+    writePolicyFile();
+    client.createRole(requestorUserName, "admin_r");
+
+    ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CLIENTS);
+    try {
+      List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+      for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+        results.add(executor.submit(new Callable<Integer>() {
+          @Override
+          public Integer call() throws Exception {
+            SentryPolicyServiceClient newClient = SentryServiceClientFactory.create(conf);
+            try {
+              int roles = 0;
+              for (int j = 0; j < 10; j++) {
+                Set<TSentryRole> tRoles = newClient.listRoles(requestorUserName);
+                roles = tRoles.size();
+              }
+              return roles;
+            } finally {
+              newClient.close();
+            }
+          }
+        }));
+      }
+      for (Future<Integer> result : results) {
+        Assert.assertEquals(1, result.get(60, TimeUnit.SECONDS).intValue());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonblockingServerRejectsKerberos() throws Exception {
+    Configuration kerberosConf = new Configuration(false);
+    kerberosConf.set(ServerConfig.SECURITY_MODE, ServerConfig.SECURITY_MODE_KERBEROS);
+    kerberosConf.set(ServerConfig.RPC_SERVER_TYPE, ServerConfig.RPC_SERVER_TYPE_NONBLOCKING);
+    kerberosConf.set(ServerConfig.RPC_ADDRESS, SERVER_HOST);
+    kerberosConf.setInt(ServerConfig.RPC_PORT, 0);
+    new SentryService(kerberosConf);
+  }
+}
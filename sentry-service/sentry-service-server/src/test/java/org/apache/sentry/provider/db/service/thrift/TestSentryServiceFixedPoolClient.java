@@ -0,0 +1,272 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sentry.provider.db.service.thrift;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.sentry.core.common.exception.SentryUserException;
+import org.apache.sentry.service.thrift.FixedPoolClientInvocationHandler;
+import org.apache.sentry.service.thrift.SentryServiceClientFactory;
+import org.apache.sentry.service.thrift.SentryServiceFactory;
+import org.apache.sentry.service.thrift.SentryServiceIntegrationBase;
+import org.apache.sentry.service.thrift.ServiceConstants.ClientConfig;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.server.ServerContext;
+import org.apache.thrift.server.TServerEventHandler;
+import org.apache.thrift.transport.TTransport;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class TestSentryServiceFixedPoolClient extends SentryServiceIntegrationBase {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    SentryServiceIntegrationBase.kerberos = false;
+    SentryServiceIntegrationBase.pooled = false;
+    conf.setBoolean(ClientConfig.SENTRY_FIXED_POOL_ENABLED, true);
+    conf.setInt(ClientConfig.SENTRY_FIXED_POOL_CONNECTIONS, 2);
+    SentryServiceIntegrationBase.beforeSetup();
+    SentryServiceIntegrationBase.setupConf();
+    SentryServiceIntegrationBase.startSentryService();
+    SentryServiceIntegrationBase.afterSetup();
+  }
+
+  @Test
+  public void testConcurrentCallsOnSharedConnections() throws Exception {
+    final String requestorUserName = ADMIN_USER;
+    Set<String> requestorUserGroupNames = Sets.newHashSet(ADMIN_GROUP);
+    setLocalGroupMapping(requestorUserName, requestorUserGroupNames);
+    writePolicyFile();
+    client.createRole(requestorUserName, "admin_r");
+
+    ExecutorService executorService = Executors.newFixedThreadPool(20);
+    try {
+      List<Future<Integer>> tasks = new ArrayList<Future<Integer>>();
+      for (int i = 0; i < 100; i++) {
+        tasks.add(executorService.submit(new Callable<Integer>() {
+          @Override
+          public Integer call() throws Exception {
+            return client.listRoles(requestorUserName).size();
+          }
+        }));
+      }
+      for (Future<Integer> task : tasks) {
+        assertEquals(1, task.get().intValue());
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private static FixedPoolClientInvocationHandler getHandler(SentryPolicyServiceClient sentryClient) {
+    return ((FixedPoolClientInvocationHandler.Reference) Proxy.getInvocationHandler(sentryClient))
+        .getHandler();
+  }
+
+  @Test
+  public void testClientsShareConnections() throws Exception {
+    String requestorUserName = ADMIN_USER;
+    setLocalGroupMapping(requestorUserName, Sets.newHashSet(ADMIN_GROUP));
+    writePolicyFile();
+
+    // e.g. one client per compiled Hive query
+    List<SentryPolicyServiceClient> clients = new ArrayList<SentryPolicyServiceClient>();
+    for (int i = 0; i < 10; i++) {
+      SentryPolicyServiceClient newClient = SentryServiceClientFactory.create(conf);
+      newClient.listRoles(requestorUserName);
+      newClient.listRoles(requestorUserName);
+      clients.add(newClient);
+    }
+    FixedPoolClientInvocationHandler handler = getHandler(client);
+    for (SentryPolicyServiceClient newClient : clients) {
+      assertSame(handler, getHandler(newClient));
+    }
+    assertEquals(2, handler.getOpenConnectionCount());
+
+    // closing the other clients, twice, keeps the connections of the test client
+    for (SentryPolicyServiceClient newClient : clients) {
+      newClient.close();
+      newClient.close();
+    }
+    assertEquals(2, handler.getOpenConnectionCount());
+    client.listRoles(requestorUserName);
+    try {
+      clients.get(0).listRoles(requestorUserName);
+      fail("A closed client must not be usable");
+    } catch (SentryUserException e) {
+      // expected
+    }
+
+    // the last client of a configuration closes its connections
+    Configuration otherConf = new Configuration(conf);
+    otherConf.setInt(ClientConfig.SENTRY_FIXED_POOL_CONNECTIONS, 1);
+    int sharedHandlers = FixedPoolClientInvocationHandler.getSharedHandlerCount();
+    SentryPolicyServiceClient otherClient = SentryServiceClientFactory.create(otherConf);
+    otherClient.listRoles(requestorUserName);
+    FixedPoolClientInvocationHandler otherHandler = getHandler(otherClient);
+    assertNotSame(handler, otherHandler);
+    assertEquals(1, otherHandler.getOpenConnectionCount());
+    assertEquals(sharedHandlers + 1, FixedPoolClientInvocationHandler.getSharedHandlerCount());
+    otherClient.close();
+    assertEquals(0, otherHandler.getOpenConnectionCount());
+    assertEquals(sharedHandlers, FixedPoolClientInvocationHandler.getSharedHandlerCount());
+  }
+
+  /**
+   * Releasing the last reference of a configuration closes its sockets, the server
+   * sees its connections go away.
+   */
+  @Test
+  public void testReleasingLastReferenceClosesConnections() throws Exception {
+    String requestorUserName = ADMIN_USER;
+    setLocalGroupMapping(requestorUserName, Sets.newHashSet(ADMIN_GROUP));
+    writePolicyFile();
+
+    final AtomicInteger serverConnections = new AtomicInteger();
+    TServerEventHandler previousHandler = server.getThriftEventHandler();
+    server.setThriftEventHandler(new ConnectionCounter(serverConnections));
+    try {
+      Configuration otherConf = new Configuration(conf);
+      otherConf.setInt(ClientConfig.SENTRY_FIXED_POOL_CONNECTIONS, 3);
+      SentryPolicyServiceClient first = SentryServiceClientFactory.create(otherConf);
+      SentryPolicyServiceClient second = SentryServiceClientFactory.create(otherConf);
+      FixedPoolClientInvocationHandler handler = getHandler(first);
+      assertSame(handler, getHandler(second));
+      // the calls go round-robin over the idle connections
+      for (int i = 0; i < 3; i++) {
+        first.listRoles(requestorUserName);
+        second.listRoles(requestorUserName);
+      }
+      assertEquals(3, handler.getOpenConnectionCount());
+      assertEquals(3, serverConnections.get());
+
+      first.close();
+      assertEquals(3, handler.getOpenConnectionCount());
+      second.close();
+      assertEquals(0, handler.getOpenConnectionCount());
+      waitForConnections(serverConnections, 0);
+    } finally {
+      server.setThriftEventHandler(previousHandler);
+    }
+  }
+
+  @Test
+  public void testCloseAll() throws Exception {
+    String requestorUserName = ADMIN_USER;
+    setLocalGroupMapping(requestorUserName, Sets.newHashSet(ADMIN_GROUP));
+    writePolicyFile();
+
+    client.listRoles(requestorUserName);
+    FixedPoolClientInvocationHandler handler = getHandler(client);
+    FixedPoolClientInvocationHandler.closeAll();
+    assertEquals(0, handler.getOpenConnectionCount());
+    assertEquals(0, FixedPoolClientInvocationHandler.getSharedHandlerCount());
+    try {
+      client.listRoles(requestorUserName);
+      fail("A client of a closed handler must not be usable");
+    } catch (SentryUserException e) {
+      // expected
+    }
+
+    // a new client gets new connections, releasing the old one leaves them alone
+    SentryPolicyServiceClient newClient = SentryServiceClientFactory.create(conf);
+    try {
+      newClient.listRoles(requestorUserName);
+      assertNotSame(handler, getHandler(newClient));
+      client.close();
+      assertEquals(1, FixedPoolClientInvocationHandler.getSharedHandlerCount());
+      newClient.listRoles(requestorUserName);
+    } finally {
+      newClient.close();
+    }
+  }
+
+  private static void waitForConnections(AtomicInteger connections, int expected)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000L;
+    while (connections.get() != expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+    assertEquals(expected, connections.get());
+  }
+
+  /**
+   * Counts the connections the server is serving.
+   */
+  private static class ConnectionCounter implements TServerEventHandler {
+    private final AtomicInteger connections;
+
+    ConnectionCounter(AtomicInteger connections) {
+      this.connections = connections;
+    }
+
+    @Override
+    public void preServe() {
+    }
+
+    @Override
+    public ServerContext createContext(TProtocol input, TProtocol output) {
+      connections.incrementAndGet();
+      return null;
+    }
+
+    @Override
+    public void deleteContext(ServerContext serverContext, TProtocol input, TProtocol output) {
+      connections.decrementAndGet();
+    }
+
+    @Override
+    public void processContext(ServerContext serverContext, TTransport inputTransport,
+        TTransport outputTransport) {
+    }
+  }
+
+  @Test
+  public void testConnectionWhenReconnect() throws Exception {
+    String requestorUserName = ADMIN_USER;
+    Set<String> requestorUserGroupNames = Sets.newHashSet(ADMIN_GROUP);
+    String roleName = "admin_r";
+    setLocalGroupMapping(requestorUserName, requestorUserGroupNames);
+    writePolicyFile();
+
+    client.dropRoleIfExists(requestorUserName, roleName);
+    client.createRole(requestorUserName, roleName);
+    client.listRoles(requestorUserName);
+    stopSentryService();
+    SentryServiceIntegrationBase.server = new SentryServiceFactory().create(SentryServiceIntegrationBase.conf);
+    SentryServiceIntegrationBase.startSentryService();
+    client.listRoles(requestorUserName);
+    client.dropRole(requestorUserName, roleName);
+  }
+}
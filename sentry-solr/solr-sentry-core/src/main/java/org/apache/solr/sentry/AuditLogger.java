@@ -16,6 +16,13 @@
  */
 package org.apache.solr.sentry;
 
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.lucene.util.Version;
 import org.noggit.CharArr;
@@ -28,23 +35,103 @@ import org.slf4j.LoggerFactory;
  * Writes audit events to the audit log. This helps answer questions such as:
  * Who did what action when from where, and what values were changed from what
  * to what as a result?
+ * <p>
+ * By default the events are written on the request thread. With the system property
+ * org.apache.solr.sentry.AuditLogger.async set to true they are put into a bounded
+ * queue instead and written in batches by a writer thread, which flushes the
+ * RollingFileWithoutDeleteAppenders of the audit log after a batch, or at most once
+ * per flushIntervalMs, and fsyncs them on flush if fsync is true. When the queue is
+ * full, the overflowPolicy "block" makes the request wait for room and "drop" drops
+ * the event, the dropped events are counted and reported.
  */
 final class AuditLogger {
 
   public static final int ALLOWED = 1;
   public static final int UNAUTHORIZED = 0;
 
+  // the status of the writer, not a child of the audit logger so it stays out of the audit log
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AuditLogger.class.getName() + "Writer");
+
   private final Logger logger;
 
   private static final boolean IS_ENABLED =
     Boolean.valueOf(
       System.getProperty(AuditLogger.class.getName() + ".isEnabled", "true"));
 
+  private static final boolean IS_ASYNC =
+    Boolean.valueOf(
+      System.getProperty(AuditLogger.class.getName() + ".async", "false"));
+  private static final int QUEUE_SIZE =
+    Integer.getInteger(AuditLogger.class.getName() + ".queueSize", 8192);
+  private static final int BATCH_SIZE =
+    Integer.getInteger(AuditLogger.class.getName() + ".batchSize", 256);
+  private static final long FLUSH_INTERVAL_MS =
+    Long.getLong(AuditLogger.class.getName() + ".flushIntervalMs", 0L);
+  private static final boolean FSYNC =
+    Boolean.valueOf(
+      System.getProperty(AuditLogger.class.getName() + ".fsync", "false"));
+  private static final String OVERFLOW_POLICY =
+    System.getProperty(AuditLogger.class.getName() + ".overflowPolicy", "block");
+
+  private static final long DROPPED_REPORT_INTERVAL_MS = 60 * 1000L;
+  // the writer thread wakes up at least this often to see close()
+  private static final long MAX_POLL_MS = 1000L;
+
   private static final String SOLR_VERSION = Version.LATEST.toString();
 
+  private final BlockingQueue<CharArr> queue;
+  private final int batchSize;
+  private final long flushIntervalMs;
+  private final boolean fsync;
+  private final boolean dropOnOverflow;
+  private final Thread writerThread;
+  private volatile boolean running = true;
+
+  private final AtomicLong enqueuedCount = new AtomicLong();
+  private final AtomicLong writtenCount = new AtomicLong();
+  private final AtomicLong droppedCount = new AtomicLong();
+  private final AtomicLong blockedCount = new AtomicLong();
 
   public AuditLogger() {
+    this(IS_ASYNC ? QUEUE_SIZE : 0, BATCH_SIZE, FLUSH_INTERVAL_MS, FSYNC,
+        "drop".equalsIgnoreCase(OVERFLOW_POLICY));
+  }
+
+  /**
+   * @param queueSize capacity of the queue of the writer thread, 0 to write the
+   *        events on the calling thread
+   */
+  AuditLogger(int queueSize, int batchSize, long flushIntervalMs, boolean fsync,
+      boolean dropOnOverflow) {
     this.logger = LoggerFactory.getLogger(getClass());
+    this.batchSize = Math.max(1, batchSize);
+    this.flushIntervalMs = Math.max(0L, flushIntervalMs);
+    this.fsync = fsync;
+    this.dropOnOverflow = dropOnOverflow;
+    if (queueSize > 0) {
+      queue = new ArrayBlockingQueue<CharArr>(queueSize);
+      writerThread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          writeEvents();
+        }
+      }, "SentrySolrAuditWriter");
+      writerThread.setDaemon(true);
+      writerThread.start();
+      Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          close();
+        }
+      }, "SentrySolrAuditWriterShutdown"));
+      LOG.info("Writing audit events asynchronously, queueSize: " + queueSize
+          + ", batchSize: " + this.batchSize + ", flushIntervalMs: " + this.flushIntervalMs
+          + ", fsync: " + fsync + ", overflowPolicy: " + (dropOnOverflow ? "drop" : "block"));
+    } else {
+      queue = null;
+      writerThread = null;
+    }
   }
 
   public boolean isLogEnabled() {
@@ -85,7 +172,128 @@ final class AuditLogger {
     writer.writeValueSeparator();
     writeField("impersonator", impersonator, writer);
     writer.endObject();
-    logger.info("{}", chars);
+    if (queue == null) {
+      logger.info("{}", chars);
+    } else {
+      enqueue(chars);
+    }
+  }
+
+  private void enqueue(CharArr event) {
+    if (!running) {
+      // the writer thread is gone while the JVM shuts down
+      logger.info("{}", event);
+    } else if (queue.offer(event)) {
+      enqueuedCount.incrementAndGet();
+    } else if (dropOnOverflow) {
+      droppedCount.incrementAndGet();
+    } else {
+      blockedCount.incrementAndGet();
+      try {
+        queue.put(event);
+        enqueuedCount.incrementAndGet();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        droppedCount.incrementAndGet();
+      }
+    }
+  }
+
+  private void writeEvents() {
+    List<CharArr> batch = new ArrayList<CharArr>(batchSize);
+    long lastFlush = System.currentTimeMillis();
+    long lastReport = lastFlush;
+    long reportedDropped = 0;
+    boolean unflushed = false;
+    long pollMs = flushIntervalMs > 0 ? Math.min(flushIntervalMs, MAX_POLL_MS) : MAX_POLL_MS;
+    while (running || !queue.isEmpty()) {
+      try {
+        CharArr event = queue.poll(pollMs, TimeUnit.MILLISECONDS);
+        if (event != null) {
+          batch.add(event);
+          queue.drainTo(batch, batchSize - 1);
+          for (CharArr chars : batch) {
+            logger.info("{}", chars);
+          }
+          writtenCount.addAndGet(batch.size());
+          batch.clear();
+          unflushed = true;
+        }
+      } catch (InterruptedException e) {
+        running = false;
+      } catch (RuntimeException e) {
+        LOG.error("Unable to write " + batch.size() + " audit events", e);
+        droppedCount.addAndGet(batch.size());
+        batch.clear();
+      }
+      long now = System.currentTimeMillis();
+      if (unflushed && (flushIntervalMs == 0 || now - lastFlush >= flushIntervalMs
+          || !running)) {
+        flushAppenders();
+        unflushed = false;
+        lastFlush = now;
+      }
+      long dropped = droppedCount.get();
+      if (dropped != reportedDropped && now - lastReport >= DROPPED_REPORT_INTERVAL_MS) {
+        LOG.warn("Dropped " + (dropped - reportedDropped) + " audit events, "
+            + getStatistics());
+        reportedDropped = dropped;
+        lastReport = now;
+      }
+    }
+  }
+
+  private void flushAppenders() {
+    Enumeration<?> appenders =
+        org.apache.log4j.Logger.getLogger(AuditLogger.class).getAllAppenders();
+    while (appenders.hasMoreElements()) {
+      Object appender = appenders.nextElement();
+      if (appender instanceof RollingFileWithoutDeleteAppender) {
+        ((RollingFileWithoutDeleteAppender) appender).flush(fsync);
+      }
+    }
+  }
+
+  /**
+   * Stop the writer thread after it has written the queued events.
+   */
+  void close() {
+    if (writerThread == null || !running) {
+      return;
+    }
+    running = false;
+    try {
+      writerThread.join(10 * 1000L);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    LOG.info("Audit writer stopped, " + getStatistics());
+  }
+
+  String getStatistics() {
+    return "enqueued: " + enqueuedCount.get() + ", written: " + writtenCount.get()
+        + ", dropped: " + droppedCount.get() + ", blocked: " + blockedCount.get()
+        + ", queued: " + getQueuedCount();
+  }
+
+  long getEnqueuedCount() {
+    return enqueuedCount.get();
+  }
+
+  long getWrittenCount() {
+    return writtenCount.get();
+  }
+
+  long getDroppedCount() {
+    return droppedCount.get();
+  }
+
+  long getBlockedCount() {
+    return blockedCount.get();
+  }
+
+  int getQueuedCount() {
+    return queue == null ? 0 : queue.size();
   }
 
   private void writeField(String key, Object value, JSONWriter writer) {
@@ -19,8 +19,11 @@
 package org.apache.solr.sentry;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
 
 import org.apache.log4j.FileAppender;
@@ -38,6 +41,8 @@ public class RollingFileWithoutDeleteAppender extends FileAppender {
 
   private long nextRollover = 0;
 
+  private FileOutputStream fileStream;
+
   /**
    * The default constructor simply calls its {@link FileAppender#FileAppender
    * parents constructor}.
@@ -150,6 +155,29 @@ public class RollingFileWithoutDeleteAppender extends FileAppender {
     maxFileSize = OptionConverter.toFileSize(value, maxFileSize + 1);
   }
 
+  /**
+   * Write out the events buffered by the appender, e.g. with BufferedIO, and with
+   * <code>sync</code> force them to the storage device as well.
+   */
+  public synchronized void flush(boolean sync) {
+    if (qw == null) {
+      return;
+    }
+    qw.flush();
+    if (sync && fileStream != null) {
+      try {
+        fileStream.getFD().sync();
+      } catch (IOException e) {
+        LogLog.error("sync of " + fileName + " failed.", e);
+      }
+    }
+  }
+
+  protected OutputStreamWriter createWriter(OutputStream os) {
+    fileStream = os instanceof FileOutputStream ? (FileOutputStream) os : null;
+    return super.createWriter(os);
+  }
+
   protected void setQWForFiles(Writer writer) {
     this.qw = new CountingQuietWriter(writer, errorHandler);
   }
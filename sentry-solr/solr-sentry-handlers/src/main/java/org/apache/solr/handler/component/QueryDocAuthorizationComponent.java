@@ -20,6 +20,7 @@ package org.apache.solr.handler.component;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
 
@@ -27,12 +28,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.solr.common.SolrException;
 import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.params.ShardParams;
 import org.apache.solr.common.params.SolrParams;
 import org.apache.solr.common.util.NamedList;
+import org.apache.solr.core.CoreDescriptor;
+import org.apache.solr.search.DocSet;
+import org.apache.solr.search.SolrCache;
+import org.apache.solr.search.SolrIndexSearcher;
+import org.apache.solr.search.WrappedQuery;
 import org.apache.solr.sentry.SentryIndexAuthorizationSingleton;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 public class QueryDocAuthorizationComponent extends SearchComponent
 {
@@ -42,10 +56,21 @@ public class QueryDocAuthorizationComponent extends SearchComponent
   public static final String DEFAULT_AUTH_FIELD = "sentry_auth";
   public static final String ALL_ROLES_TOKEN_PROP = "allRolesToken";
   public static final String ENABLED_PROP = "enabled";
+  public static final String CACHED_FILTER_PROP = "cachedFilter";
+  public static final String FILTER_CACHE_SIZE_PROP = "filterCacheSize";
+  public static final int DEFAULT_FILTER_CACHE_SIZE = 1000;
+  public static final String DOC_SET_CACHE_PROP = "docSetCache";
+  private static final String DISTRIB = "distrib";
   private SentryIndexAuthorizationSingleton sentryInstance;
   private String authField;
   private String allRolesToken;
   private boolean enabled;
+  private boolean cachedFilter;
+  // <sorted roles, filter query>, users with the same roles share the filter and
+  // with it the DocSet the filterCache of each searcher keeps for the query
+  private Cache<List<String>, Query> filterQueries;
+  // name of the user cache of the searchers which keeps <filter query, DocSet>
+  private String docSetCache;
 
   public QueryDocAuthorizationComponent() {
     this(SentryIndexAuthorizationSingleton.getInstance());
@@ -66,6 +91,14 @@ public class QueryDocAuthorizationComponent extends SearchComponent
     LOG.info("QueryDocAuthorizationComponent allRolesToken: " + this.allRolesToken);
     this.enabled = params.getBool(ENABLED_PROP, false);
     LOG.info("QueryDocAuthorizationComponent enabled: " + this.enabled);
+    this.cachedFilter = params.getBool(CACHED_FILTER_PROP, false);
+    LOG.info("QueryDocAuthorizationComponent cachedFilter: " + this.cachedFilter);
+    // an empty name, e.g. of an unset property, turns the cache off
+    this.docSetCache = Strings.emptyToNull(params.get(DOC_SET_CACHE_PROP));
+    LOG.info("QueryDocAuthorizationComponent docSetCache: " + this.docSetCache);
+    this.filterQueries = CacheBuilder.newBuilder()
+      .maximumSize(params.getInt(FILTER_CACHE_SIZE_PROP, DEFAULT_FILTER_CACHE_SIZE))
+      .build();
   }
 
   private void addRawClause(StringBuilder builder, String authField, String value) {
@@ -109,6 +142,62 @@ public class QueryDocAuthorizationComponent extends SearchComponent
     return null;
   }
 
+  /**
+   * Get the filter query of the role set, built with the roles in sorted order so
+   * that the query is equal for every ordering of the roles, and shared by the
+   * requests with the same roles.
+   */
+  public Query getCachedFilterQuery(Set<String> roles) {
+    if (roles == null || roles.isEmpty()) {
+      return null;
+    }
+    List<String> sortedRoles = ImmutableList.copyOf(new TreeSet<String>(roles));
+    Query query = filterQueries.getIfPresent(sortedRoles);
+    if (query == null) {
+      query = getFilterQuery(new TreeSet<String>(sortedRoles));
+      filterQueries.put(sortedRoles, query);
+    }
+    return query;
+  }
+
+  /**
+   * Get the filter for the documents of the searcher matching the role-set filter
+   * query, through the DocSet kept in the user cache of the searcher. The filter
+   * bypasses the filterCache since it is only valid for this searcher. Without the
+   * user cache the role-set filter query itself is returned.
+   */
+  private Query getDocSetFilter(SolrIndexSearcher searcher, Query filterQuery)
+      throws IOException {
+    SolrCache cache = searcher.getCache(docSetCache);
+    if (cache == null) {
+      return filterQuery;
+    }
+    DocSet docSet = (DocSet) cache.get(filterQuery);
+    if (docSet == null) {
+      docSet = SentryDocSetRegenerator.getDocSet(searcher, filterQuery);
+      cache.put(filterQuery, docSet);
+    }
+    WrappedQuery query = new WrappedQuery(new ConstantScoreQuery(docSet.getTopFilter()));
+    query.setCache(false);
+    return query;
+  }
+
+  /**
+   * Check whether the request is sent on to the shards. The shard requests are built
+   * from the params of the request and run as the superuser, so the filter must be
+   * passed as a fq param then, the filters of the ResponseBuilder would be lost.
+   */
+  private static boolean isDistributed(ResponseBuilder rb) {
+    if (rb.isDistrib) {
+      return true;
+    }
+    SolrParams params = rb.req.getParams();
+    CoreDescriptor coreDescriptor = rb.req.getCore().getCoreDescriptor();
+    boolean zkAware = coreDescriptor != null && coreDescriptor.getCoreContainer() != null
+        && coreDescriptor.getCoreContainer().isZooKeeperAware();
+    return params.getBool(DISTRIB, zkAware) || params.get(ShardParams.SHARDS) != null;
+  }
+
   @Override
   public void prepare(ResponseBuilder rb) throws IOException {
     if (!enabled) {
@@ -121,7 +210,19 @@ public class QueryDocAuthorizationComponent extends SearchComponent
       return;
     }
     Set<String> roles = sentryInstance.getRoles(userName);
-    if (roles != null && roles.size() > 0) {
+    if (roles != null && roles.size() > 0 && (cachedFilter || docSetCache != null)
+        && !isDistributed(rb)) {
+      // the filter goes to the search directly, QueryComponent keeps the filters
+      // which are set before it parses the fq params
+      Query filter = getCachedFilterQuery(roles);
+      if (docSetCache != null) {
+        filter = getDocSetFilter(rb.req.getSearcher(), filter);
+      }
+      List<Query> filters = rb.getFilters() == null
+        ? new ArrayList<Query>() : new ArrayList<Query>(rb.getFilters());
+      filters.add(filter);
+      rb.setFilters(filters);
+    } else if (roles != null && roles.size() > 0) {
       String filterQuery = getFilterQueryStr(roles);
       ModifiableSolrParams newParams = new ModifiableSolrParams(rb.req.getParams());
       newParams.add("fq", filterQuery);
@@ -150,4 +251,8 @@ public class QueryDocAuthorizationComponent extends SearchComponent
   public boolean getEnabled() {
     return enabled;
   }
+
+  public boolean getCachedFilter() {
+    return cachedFilter;
+  }
 }
@@ -21,10 +21,12 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.index.AtomicReaderContext;
 import org.apache.lucene.index.IndexableField;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.FixedBitSet;
 
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.common.SolrDocument;
@@ -59,7 +61,10 @@ import com.google.common.annotations.VisibleForTesting;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class SecureRealTimeGetComponent extends SearchComponent
@@ -151,16 +156,15 @@ public class SecureRealTimeGetComponent extends SearchComponent
     UpdateLog ulog = core.getUpdateHandler().getUpdateLog();
     SchemaField idField = core.getLatestSchema().getUniqueKeyField();
     FieldType fieldType = idField.getType();
-    boolean openedRealTimeSearcher = false;
     RefCounted<SolrIndexSearcher> searcherHolder = core.getRealtimeSearcher();
 
     SolrDocumentList docListToReturn = new SolrDocumentList();
     try {
-      SolrIndexSearcher searcher = searcherHolder.get();
       for (SolrDocument doc : docList) {
         // -1 doc id indicates this value was read from log; we need to open
-        // a new real time searcher to run the filter query against
-        if (Integer.valueOf(-1).equals(doc.get(ID_FIELD_NAME)) && !openedRealTimeSearcher) {
+        // a new real time searcher to run the filter query against. It is opened
+        // once, before any document is checked, so all of them use the same searcher.
+        if (Integer.valueOf(-1).equals(doc.get(ID_FIELD_NAME))) {
           searcherHolder.decref();
           // hack to clear ulog maps since we don't have
           // openRealtimeSearcher API from SOLR-8436
@@ -169,11 +173,15 @@ public class SecureRealTimeGetComponent extends SearchComponent
           ulog.add(cmd, true);
 
           searcherHolder = core.getRealtimeSearcher();
-          searcher = searcherHolder.get();
-          openedRealTimeSearcher = true;
+          break;
         }
+      }
 
-        int docid = getFilteredInternalDocId(doc, idField, fieldType, filterQuery, searcher);
+      SolrIndexSearcher searcher = searcherHolder.get();
+      int[] docids = getFilteredInternalDocIds(docList, idField, fieldType, filterQuery, searcher);
+      int i = 0;
+      for (SolrDocument doc : docList) {
+        int docid = docids[i++];
         if (docid < 0) continue;
         Document luceneDocument = searcher.doc(docid);
         SolrDocument newDoc = toSolrDoc(luceneDocument,  core.getLatestSchema());
@@ -244,36 +252,87 @@ public class SecureRealTimeGetComponent extends SearchComponent
   }
 
   /**
-   * @param doc SolrDocument to check
+   * @param docs SolrDocuments to check
    * @param idField field where the id is stored
    * @param fieldType type of id field
    * @param filterQuery Query to filter by
    * @param searcher SolrIndexSearcher on which to apply the filter query
-   * @returns the internal docid, or -1 if doc is not found or doesn't match filter
+   * @returns the internal docid of each document, or -1 if the doc is not found or
+   *          doesn't match filter
    */
-  private static int getFilteredInternalDocId(SolrDocument doc, SchemaField idField, FieldType fieldType,
-        Query filterQuery, SolrIndexSearcher searcher) throws IOException {
-    int docid = -1;
-    Field f = (Field)doc.getFieldValue(idField.getName());
-    String idStr = f.stringValue();
-    BytesRef idBytes = new BytesRef();
-    fieldType.readableToIndexed(idStr, idBytes);
-    // get the internal document id
-    long segAndId = searcher.lookupId(idBytes);
-
-      // if docid is valid, run it through the filter
-    if (segAndId >= 0) {
-      int segid = (int) segAndId;
-      AtomicReaderContext ctx = searcher.getTopReaderContext().leaves().get((int) (segAndId >> 32));
-      docid = segid + ctx.docBase;
-      Weight weight = filterQuery.createWeight(searcher);
+  private static int[] getFilteredInternalDocIds(SolrDocumentList docs, SchemaField idField,
+        FieldType fieldType, Query filterQuery, SolrIndexSearcher searcher) throws IOException {
+    List<AtomicReaderContext> leaves = searcher.getTopReaderContext().leaves();
+    int[] docids = new int[docs.size()];
+    int[] leafOrds = new int[docs.size()];
+    // <leaf ord, segment doc ids of the requested documents in the leaf>
+    Map<Integer, List<Integer>> segmentDocs = new HashMap<>();
+    int i = 0;
+    for (SolrDocument doc : docs) {
+      Field f = (Field)doc.getFieldValue(idField.getName());
+      String idStr = f.stringValue();
+      BytesRef idBytes = new BytesRef();
+      fieldType.readableToIndexed(idStr, idBytes);
+      // get the internal document id
+      long segAndId = searcher.lookupId(idBytes);
+      if (segAndId >= 0) {
+        int leafOrd = (int) (segAndId >> 32);
+        int segid = (int) segAndId;
+        docids[i] = segid + leaves.get(leafOrd).docBase;
+        leafOrds[i] = leafOrd;
+        List<Integer> segids = segmentDocs.get(leafOrd);
+        if (segids == null) {
+          segids = new ArrayList<>();
+          segmentDocs.put(leafOrd, segids);
+        }
+        segids.add(segid);
+      } else {
+        docids[i] = -1;
+      }
+      i++;
+    }
+    if (segmentDocs.isEmpty()) {
+      return docids;
+    }
+
+    // run the found docs through the filter: the weight is created once, and one
+    // scorer per segment visits the requested docs of the segment in doc id order
+    Weight weight = filterQuery.createWeight(searcher);
+    Map<Integer, FixedBitSet> allowedDocs = new HashMap<>();
+    for (Map.Entry<Integer, List<Integer>> entry : segmentDocs.entrySet()) {
+      AtomicReaderContext ctx = leaves.get(entry.getKey());
+      FixedBitSet allowed = new FixedBitSet(ctx.reader().maxDoc());
+      allowedDocs.put(entry.getKey(), allowed);
       Scorer scorer = weight.scorer(ctx, null);
-      if (scorer == null || segid != scorer.advance(segid)) {
-        // filter doesn't match.
-        docid = -1;
+      if (scorer == null) {
+        continue;
+      }
+      List<Integer> segids = entry.getValue();
+      Collections.sort(segids);
+      int current = -1;
+      for (int segid : segids) {
+        if (current < segid) {
+          current = scorer.advance(segid);
+        }
+        if (current == DocIdSetIterator.NO_MORE_DOCS) {
+          break;
+        }
+        if (current == segid) {
+          allowed.set(segid);
+        }
+      }
+    }
+
+    for (i = 0; i < docids.length; i++) {
+      if (docids[i] >= 0) {
+        int segid = docids[i] - leaves.get(leafOrds[i]).docBase;
+        if (!allowedDocs.get(leafOrds[i]).get(segid)) {
+          // filter doesn't match.
+          docids[i] = -1;
+        }
       }
     }
-    return docid;
+    return docids;
   }
 
   @Override
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.solr.handler.component;
+
+import java.io.IOException;
+
+import org.apache.lucene.search.Query;
+import org.apache.solr.search.CacheRegenerator;
+import org.apache.solr.search.DocSet;
+import org.apache.solr.search.DocSetCollector;
+import org.apache.solr.search.SolrCache;
+import org.apache.solr.search.SolrIndexSearcher;
+
+/**
+ * Regenerator of the user cache which QueryDocAuthorizationComponent keeps the
+ * document-level security DocSets in. The keys of the cache are the role-set filter
+ * queries, so the DocSets of the entries the cache autowarms, e.g. the most used
+ * ones of a solr.LFUCache, are recomputed on the new searcher when it opens.
+ *
+ * <pre>
+ * &lt;cache name="sentryDocSetCache" class="solr.LFUCache" size="512"
+ *   autowarmCount="128"
+ *   regenerator="org.apache.solr.handler.component.SentryDocSetRegenerator"/&gt;
+ * </pre>
+ */
+public class SentryDocSetRegenerator implements CacheRegenerator {
+
+  @Override
+  public boolean regenerateItem(SolrIndexSearcher newSearcher, SolrCache newCache,
+      SolrCache oldCache, Object oldKey, Object oldVal) throws IOException {
+    newCache.put(oldKey, getDocSet(newSearcher, (Query) oldKey));
+    return true;
+  }
+
+  /**
+   * Compute the documents of the searcher matching the filter, without going
+   * through the filterCache.
+   */
+  static DocSet getDocSet(SolrIndexSearcher searcher, Query query) throws IOException {
+    int maxDoc = searcher.maxDoc();
+    DocSetCollector collector = new DocSetCollector(maxDoc >> 6, maxDoc);
+    searcher.search(query, null, collector);
+    return collector.getDocSet();
+  }
+}
@@ -18,8 +18,11 @@ package org.apache.solr.handler.component;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+import org.apache.lucene.search.Query;
+
 import org.apache.solr.common.params.ModifiableSolrParams;
 import org.apache.solr.common.SolrException;
 import org.apache.solr.common.params.SolrParams;
@@ -29,6 +32,9 @@ import org.apache.solr.sentry.SentryTestBase;
 import org.apache.solr.sentry.SentryIndexAuthorizationSingleton;
 import org.apache.solr.sentry.SentrySingletonTestInstance;
 import org.apache.solr.request.SolrQueryRequest;
+import org.apache.solr.search.DocSet;
+import org.apache.solr.search.ExtendedQuery;
+import org.apache.solr.search.SolrCache;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -226,6 +232,144 @@ public class QueryDocAuthorizationComponentTest extends SentryTestBase {
     checkParams(new String[] {expect}, builder);
   }
 
+  @Test
+  public void testCachedFilter() throws Exception {
+    NamedList args = new NamedList();
+    args.add(QueryDocAuthorizationComponent.ENABLED_PROP, "true");
+    args.add(QueryDocAuthorizationComponent.CACHED_FILTER_PROP, "true");
+    ResponseBuilder builder = runComponent("multiGroupUser", args, null);
+
+    // the filter is not passed as a fq param
+    checkParams(null, builder);
+    List<Query> filters = builder.getFilters();
+    assertNotNull(filters);
+    assertEquals(1, filters.size());
+    QueryDocAuthorizationComponent component = new QueryDocAuthorizationComponent(sentryInstance);
+    component.init(args);
+    Set<String> roles = new HashSet<String>(
+        Arrays.asList("updateOnlyAdmin_role", "junit_role", "queryOnlyAdmin_role"));
+    assertEquals(component.getFilterQuery(roles), filters.get(0));
+  }
+
+  @Test
+  public void testCachedFilterDistributed() throws Exception {
+    NamedList args = new NamedList();
+    args.add(QueryDocAuthorizationComponent.ENABLED_PROP, "true");
+    args.add(QueryDocAuthorizationComponent.CACHED_FILTER_PROP, "true");
+    String expect = getClause(QueryDocAuthorizationComponent.DEFAULT_AUTH_FIELD, "junit_role");
+
+    // the shard requests are built from the params, so the filter stays a fq param
+    ModifiableSolrParams params = new ModifiableSolrParams();
+    params.add("distrib", "true");
+    ResponseBuilder builder = runComponent("junit", args, params);
+    checkParams(new String[] {expect}, builder);
+    assertNull(builder.getFilters());
+
+    params = new ModifiableSolrParams();
+    params.add("shards", "localhost:8983/solr/collection1,localhost:7574/solr/collection1");
+    builder = runComponent("junit", args, params);
+    checkParams(new String[] {expect}, builder);
+    assertNull(builder.getFilters());
+  }
+
+  @Test
+  public void testCachedFilterRoleOrder() throws Exception {
+    NamedList args = new NamedList();
+    args.add(QueryDocAuthorizationComponent.ENABLED_PROP, "true");
+    args.add(QueryDocAuthorizationComponent.CACHED_FILTER_PROP, "true");
+    args.add(QueryDocAuthorizationComponent.ALL_ROLES_TOKEN_PROP, "specialAllRolesToken");
+    QueryDocAuthorizationComponent component = new QueryDocAuthorizationComponent(sentryInstance);
+    component.init(args);
+
+    Query query = component.getCachedFilterQuery(new HashSet<String>(Arrays.asList("b", "a", "c")));
+    // the same role set gives the same query, whatever the order of the roles
+    assertSame(query, component.getCachedFilterQuery(
+        new HashSet<String>(Arrays.asList("c", "b", "a"))));
+    assertNotSame(query, component.getCachedFilterQuery(
+        new HashSet<String>(Arrays.asList("a", "b"))));
+    assertNull(component.getCachedFilterQuery(new HashSet<String>()));
+  }
+
+  @Test
+  public void testCachedFilterExistingFilters() throws Exception {
+    ModifiableSolrParams newParams = new ModifiableSolrParams();
+    String existingFq = "bogusField:(bogusUser)";
+    newParams.add("fq", existingFq);
+    NamedList args = new NamedList();
+    args.add(QueryDocAuthorizationComponent.ENABLED_PROP, "true");
+    args.add(QueryDocAuthorizationComponent.CACHED_FILTER_PROP, "true");
+    ResponseBuilder builder = runComponent("junit", args, newParams);
+
+    // the fq params of the request are left as they are
+    checkParams(new String[] {existingFq}, builder);
+    assertEquals(1, builder.getFilters().size());
+  }
+
+  @Test
+  public void testDocSetCache() throws Exception {
+    NamedList args = new NamedList();
+    args.add(QueryDocAuthorizationComponent.ENABLED_PROP, "true");
+    args.add(QueryDocAuthorizationComponent.DOC_SET_CACHE_PROP, "sentryDocSetCache");
+    ResponseBuilder builder = runComponent("junit", args, null);
+
+    checkParams(null, builder);
+    List<Query> filters = builder.getFilters();
+    assertEquals(1, filters.size());
+    // the DocSet of the searcher must not end up in the filterCache
+    assertTrue(filters.get(0) instanceof ExtendedQuery);
+    assertFalse(((ExtendedQuery) filters.get(0)).getCache());
+
+    QueryDocAuthorizationComponent component = new QueryDocAuthorizationComponent(sentryInstance);
+    component.init(args);
+    Query filterQuery = component.getCachedFilterQuery(new HashSet<String>(Arrays.asList("junit_role")));
+    SolrCache cache = builder.req.getSearcher().getCache("sentryDocSetCache");
+    assertNotNull(cache);
+    DocSet docSet = (DocSet) cache.get(filterQuery);
+    assertNotNull(docSet);
+    assertEquals(0, docSet.size());
+  }
+
+  @Test
+  public void testDocSetCacheDistributed() throws Exception {
+    NamedList args = new NamedList();
+    args.add(QueryDocAuthorizationComponent.ENABLED_PROP, "true");
+    args.add(QueryDocAuthorizationComponent.DOC_SET_CACHE_PROP, "sentryDocSetCache");
+    ModifiableSolrParams params = new ModifiableSolrParams();
+    params.add("distrib", "true");
+    ResponseBuilder builder = runComponent("junit", args, params);
+
+    // the DocSet of this searcher can't go to the shards, the fq param does
+    checkParams(new String[] {getClause(QueryDocAuthorizationComponent.DEFAULT_AUTH_FIELD,
+        "junit_role")}, builder);
+    assertNull(builder.getFilters());
+  }
+
+  @Test
+  public void testDocSetCacheEmptyName() throws Exception {
+    NamedList args = new NamedList();
+    args.add(QueryDocAuthorizationComponent.ENABLED_PROP, "true");
+    args.add(QueryDocAuthorizationComponent.DOC_SET_CACHE_PROP, "");
+    ResponseBuilder builder = runComponent("junit", args, null);
+
+    checkParams(new String[] {getClause(QueryDocAuthorizationComponent.DEFAULT_AUTH_FIELD,
+        "junit_role")}, builder);
+    assertNull(builder.getFilters());
+  }
+
+  @Test
+  public void testDocSetCacheNotConfigured() throws Exception {
+    NamedList args = new NamedList();
+    args.add(QueryDocAuthorizationComponent.ENABLED_PROP, "true");
+    args.add(QueryDocAuthorizationComponent.DOC_SET_CACHE_PROP, "bogusCache");
+    ResponseBuilder builder = runComponent("junit", args, null);
+
+    // falls back to the role-set filter query
+    QueryDocAuthorizationComponent component = new QueryDocAuthorizationComponent(sentryInstance);
+    component.init(args);
+    assertEquals(component.getFilterQuery(new HashSet<String>(Arrays.asList("junit_role"))),
+        builder.getFilters().get(0));
+  }
+
   @Test
   public void testAllRolesToken() throws Exception {
     // test no arg
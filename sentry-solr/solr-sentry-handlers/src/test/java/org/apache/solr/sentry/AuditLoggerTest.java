@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.solr.sentry;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the asynchronous writer of AuditLogger
+ */
+public class AuditLoggerTest {
+
+  private Logger auditLog;
+  private Level savedLevel;
+  private BlockingAppender appender;
+  private AuditLogger auditLogger;
+
+  @Before
+  public void setUp() {
+    auditLog = Logger.getLogger(AuditLogger.class);
+    savedLevel = auditLog.getLevel();
+    auditLog.setLevel(Level.INFO);
+    appender = new BlockingAppender();
+    auditLog.addAppender(appender);
+  }
+
+  @After
+  public void tearDown() {
+    appender.release();
+    if (auditLogger != null) {
+      auditLogger.close();
+    }
+    auditLog.removeAppender(appender);
+    auditLog.setLevel(savedLevel);
+  }
+
+  private void log(int i) {
+    auditLogger.log("user" + i, null, "127.0.0.1", "myOperation", "", i,
+        AuditLogger.ALLOWED, "collection1");
+  }
+
+  /**
+   * Log a first event and wait for the writer thread to be stuck writing it.
+   */
+  private void blockWriter() throws InterruptedException {
+    log(0);
+    Assert.assertTrue(appender.entered.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testDropWhenQueueFull() throws Exception {
+    auditLogger = new AuditLogger(2, 1, 0, false, true);
+    blockWriter();
+    for (int i = 1; i <= 4; i++) {
+      log(i);
+    }
+    Assert.assertEquals(3, auditLogger.getEnqueuedCount());
+    Assert.assertEquals(2, auditLogger.getDroppedCount());
+    Assert.assertEquals(0, auditLogger.getBlockedCount());
+    Assert.assertEquals(2, auditLogger.getQueuedCount());
+
+    appender.release();
+    auditLogger.close();
+    Assert.assertEquals(3, auditLogger.getWrittenCount());
+    Assert.assertEquals(3, appender.appended.get());
+  }
+
+  @Test
+  public void testBlockWhenQueueFull() throws Exception {
+    auditLogger = new AuditLogger(2, 1, 0, false, false);
+    blockWriter();
+    log(1);
+    log(2);
+    Thread request = new Thread() {
+      @Override
+      public void run() {
+        log(3);
+      }
+    };
+    request.start();
+    request.join(500);
+    Assert.assertTrue("the request must wait for room in the queue", request.isAlive());
+    Assert.assertEquals(1, auditLogger.getBlockedCount());
+
+    appender.release();
+    request.join(10000);
+    Assert.assertFalse(request.isAlive());
+    auditLogger.close();
+    Assert.assertEquals(4, auditLogger.getEnqueuedCount());
+    Assert.assertEquals(4, auditLogger.getWrittenCount());
+    Assert.assertEquals(0, auditLogger.getDroppedCount());
+    Assert.assertEquals(4, appender.appended.get());
+  }
+
+  /**
+   * close() writes the queued events and flushes them, even before the end of the
+   * flush interval.
+   */
+  @Test
+  public void testCloseWritesAndFlushesQueuedEvents() throws Exception {
+    auditLogger = new AuditLogger(16, 4, 60 * 60 * 1000L, false, true);
+    blockWriter();
+    for (int i = 1; i < 10; i++) {
+      log(i);
+    }
+    Assert.assertEquals(9, auditLogger.getQueuedCount());
+    Assert.assertEquals(0, appender.flushes.get());
+
+    appender.release();
+    auditLogger.close();
+    Assert.assertEquals(10, auditLogger.getEnqueuedCount());
+    Assert.assertEquals(10, auditLogger.getWrittenCount());
+    Assert.assertEquals(0, auditLogger.getQueuedCount());
+    Assert.assertEquals(0, auditLogger.getDroppedCount());
+    Assert.assertEquals(10, appender.appended.get());
+    Assert.assertTrue(appender.flushes.get() > 0);
+  }
+
+  /**
+   * Counts the appended events and the flushes, the first append waits for release().
+   */
+  private static class BlockingAppender extends RollingFileWithoutDeleteAppender {
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+    private final AtomicInteger appended = new AtomicInteger();
+    private final AtomicInteger flushes = new AtomicInteger();
+
+    void release() {
+      released.countDown();
+    }
+
+    @Override
+    public void append(LoggingEvent event) {
+      entered.countDown();
+      try {
+        released.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      appended.incrementAndGet();
+    }
+
+    @Override
+    public synchronized void flush(boolean sync) {
+      flushes.incrementAndGet();
+    }
+  }
+}
@@ -189,6 +189,46 @@ public class TestDocLevelOperations extends AbstractSolrSentryTestBase {
     }
   }
 
+  /**
+   * Test that the documents are filtered on every shard of a multi-shard collection
+   * with the cachedFilter option on.
+   */
+  @Test
+  public void testDocLevelOperationsCachedFilter() throws Exception {
+    String collectionName = "docLevelCachedFilterCollection";
+    System.setProperty("sentry.cached.filter", "true");
+    try {
+      setupCollectionWithDocSecurity(collectionName);
+      try {
+        createDocsAndQuerySimple(collectionName, true);
+      } finally {
+        deleteCollection(collectionName);
+      }
+    } finally {
+      System.clearProperty("sentry.cached.filter");
+    }
+  }
+
+  /**
+   * Test that the documents are filtered on every shard of a multi-shard collection
+   * with the docSetCache option on.
+   */
+  @Test
+  public void testDocLevelOperationsDocSetCache() throws Exception {
+    String collectionName = "docLevelDocSetCacheCollection";
+    System.setProperty("sentry.doc.set.cache", "sentryDocSetCache");
+    try {
+      setupCollectionWithDocSecurity(collectionName);
+      try {
+        createDocsAndQuerySimple(collectionName, true);
+      } finally {
+        deleteCollection(collectionName);
+      }
+    } finally {
+      System.clearProperty("sentry.doc.set.cache");
+    }
+  }
+
   /**
    * Test the allRolesToken.  Make it a keyword in the query language ("OR")
    * to make sure it is treated literally rather than interpreted.